@@ -0,0 +1,100 @@
+package com.uds.ged.benchmark;
+
+import com.uds.ged.domain.model.Document;
+import com.uds.ged.domain.model.DocumentVersion;
+import com.uds.ged.domain.model.User;
+import com.uds.ged.domain.model.enums.DocumentStatus;
+import com.uds.ged.domain.model.enums.UserRole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds realistic, deterministic domain data for the benchmarks.
+ *
+ * @author GED Team
+ * @version 1.0
+ * @since 2026-02-22
+ */
+final class BenchmarkFixtures {
+
+    static final String JWT_SECRET = "benchmarkSecretKeyForJWTTokenGenerationOnly1234567890abcdef";
+
+    private static final String[] TAGS = {
+            "contrato", "financeiro", "rh", "juridico", "2026", "urgente", "revisao", "publico"
+    };
+    private static final String[] MIME_TYPES = {"application/pdf", "image/png", "image/jpeg"};
+    private static final int VERSIONS_PER_DOCUMENT = 5;
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * A page of fully initialized documents, each owned by one of a few users and
+     * carrying tags and version history as listings and detail views see them.
+     */
+    static List<Document> documents(int count) {
+        Random random = new Random(42);
+        List<User> owners = List.of(user(1, "admin", UserRole.ADMIN), user(2, "user", UserRole.USER));
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 9, 0);
+
+        List<Document> documents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User owner = owners.get(i % owners.size());
+            List<String> tags = new ArrayList<>();
+            for (int t = 0; t < 3 + random.nextInt(3); t++) {
+                tags.add(TAGS[random.nextInt(TAGS.length)]);
+            }
+
+            Document document = Document.builder()
+                    .id((long) i + 1)
+                    .title("Relatório trimestral de contratos " + (i + 1))
+                    .description("Consolidação dos contratos vigentes, aditivos e pendências de assinatura "
+                            + "do trimestre, com anexos digitalizados e parecer do jurídico. Documento " + (i + 1))
+                    .tags(tags)
+                    .owner(owner)
+                    .tenantId("tenant-" + (i % 4))
+                    .status(DocumentStatus.values()[i % DocumentStatus.values().length])
+                    .currentVersion(VERSIONS_PER_DOCUMENT)
+                    .createdAt(base.plusMinutes(i))
+                    .updatedAt(base.plusMinutes(i).plusHours(1))
+                    .build();
+
+            for (int v = VERSIONS_PER_DOCUMENT; v >= 1; v--) {
+                document.addVersion(DocumentVersion.builder()
+                        .id((long) i * VERSIONS_PER_DOCUMENT + v)
+                        .versionNumber(v)
+                        .fileKey("blobs/ab/cd/" + i + "-" + v)
+                        .fileName("contrato_" + (i + 1) + "_v" + v + ".pdf")
+                        .fileSize(50_000L + random.nextInt(5_000_000))
+                        .mimeType(MIME_TYPES[random.nextInt(MIME_TYPES.length)])
+                        .uploadedBy(owner)
+                        .uploadedAt(base.plusMinutes(i).plusDays(v))
+                        .build());
+            }
+            documents.add(document);
+        }
+        return documents;
+    }
+
+    static List<DocumentVersion> versions(List<Document> documents) {
+        List<DocumentVersion> versions = new ArrayList<>();
+        for (Document document : documents) {
+            versions.addAll(document.getVersions());
+        }
+        return versions;
+    }
+
+    private static User user(long id, String username, UserRole role) {
+        return User.builder()
+                .id(id)
+                .username(username)
+                .email(username + "@ged.com")
+                .password("$2a$10$abcdefghijklmnopqrstuv")
+                .role(role)
+                .createdAt(LocalDateTime.of(2025, 12, 1, 8, 0))
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.uds.ged.benchmark;
+
+import com.uds.ged.infrastructure.security.JwtTokenProvider;
+import com.uds.ged.infrastructure.security.SecurityUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issuing and validation. {@code validateCached} is the steady state of a
+ * client reusing its token; {@code validateUncached} cycles through distinct tokens
+ * with a one-entry cache, so every call pays for the HMAC verification and parsing.
+ *
+ * @author GED Team
+ * @version 1.0
+ * @since 2026-02-22
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final int DISTINCT_TOKENS = 4096;
+    private static final long EXPIRATION_MS = 3_600_000;
+
+    private JwtTokenProvider cachingProvider;
+    private JwtTokenProvider verifyingProvider;
+    private Authentication authentication;
+    private String token;
+    private String[] distinctTokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        cachingProvider = new JwtTokenProvider(BenchmarkFixtures.JWT_SECRET, EXPIRATION_MS, 604_800_000, 10_000,
+                new SimpleMeterRegistry());
+        verifyingProvider = new JwtTokenProvider(BenchmarkFixtures.JWT_SECRET, EXPIRATION_MS, 604_800_000, 1,
+                new SimpleMeterRegistry());
+
+        authentication = authentication("admin");
+        token = cachingProvider.generateToken(authentication);
+
+        distinctTokens = new String[DISTINCT_TOKENS];
+        for (int i = 0; i < DISTINCT_TOKENS; i++) {
+            distinctTokens[i] = verifyingProvider.generateToken(authentication("user" + i));
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachingProvider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public boolean validateCached() {
+        return cachingProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public boolean validateUncached() {
+        next = (next + 1) & (DISTINCT_TOKENS - 1);
+        return verifyingProvider.validateToken(distinctTokens[next]);
+    }
+
+    private static Authentication authentication(String username) {
+        SecurityUser user = new SecurityUser(username, "password",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")), 0);
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+}
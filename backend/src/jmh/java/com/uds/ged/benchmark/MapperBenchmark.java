@@ -0,0 +1,69 @@
+package com.uds.ged.benchmark;
+
+import com.uds.ged.application.dto.response.DocumentResponse;
+import com.uds.ged.application.dto.response.DocumentVersionResponse;
+import com.uds.ged.application.mapper.DocumentMapper;
+import com.uds.ged.domain.model.Document;
+import com.uds.ged.domain.model.DocumentVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping of whole listing pages and version histories.
+ *
+ * @author GED Team
+ * @version 1.0
+ * @since 2026-02-22
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private final DocumentMapper mapper = new DocumentMapper();
+    private List<Document> documents;
+    private List<DocumentVersion> versions;
+
+    @Setup
+    public void setUp() {
+        documents = BenchmarkFixtures.documents(pageSize);
+        versions = BenchmarkFixtures.versions(documents);
+    }
+
+    @Benchmark
+    public List<DocumentResponse> toResponsePage() {
+        List<DocumentResponse> responses = new ArrayList<>(documents.size());
+        for (Document document : documents) {
+            responses.add(mapper.toResponse(document));
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public List<DocumentVersionResponse> toVersionResponses() {
+        List<DocumentVersionResponse> responses = new ArrayList<>(versions.size());
+        for (DocumentVersion version : versions) {
+            responses.add(mapper.toVersionResponse(version));
+        }
+        return responses;
+    }
+}
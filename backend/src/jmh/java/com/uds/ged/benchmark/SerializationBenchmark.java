@@ -0,0 +1,75 @@
+package com.uds.ged.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.uds.ged.application.dto.response.ApiResponse;
+import com.uds.ged.application.dto.response.DocumentResponse;
+import com.uds.ged.application.dto.response.PageResponse;
+import com.uds.ged.application.mapper.DocumentMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of a listing response, using the ObjectMapper exactly as
+ * Spring Boot configures it for the controllers.
+ *
+ * @author GED Team
+ * @version 1.0
+ * @since 2026-02-22
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectWriter writer;
+    private ApiResponse<PageResponse<DocumentResponse>> response;
+
+    @Setup
+    public void setUp() {
+        try (AnnotationConfigApplicationContext context =
+                     new AnnotationConfigApplicationContext(JacksonAutoConfiguration.class)) {
+            writer = context.getBean(ObjectMapper.class).writer();
+        }
+
+        DocumentMapper mapper = new DocumentMapper();
+        List<DocumentResponse> content = BenchmarkFixtures.documents(pageSize).stream()
+                .map(mapper::toResponse)
+                .toList();
+        response = ApiResponse.success(PageResponse.<DocumentResponse>builder()
+                .content(content)
+                .pageNumber(0)
+                .pageSize(pageSize)
+                .totalElements(10_000)
+                .totalPages(10_000 / pageSize)
+                .first(true)
+                .last(false)
+                .build());
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(response);
+    }
+}
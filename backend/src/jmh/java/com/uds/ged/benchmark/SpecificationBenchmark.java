@@ -0,0 +1,87 @@
+package com.uds.ged.benchmark;
+
+import com.uds.ged.domain.model.Document;
+import com.uds.ged.domain.model.DocumentVersion;
+import com.uds.ged.domain.model.User;
+import com.uds.ged.domain.model.enums.DocumentStatus;
+import com.uds.ged.domain.specification.DocumentSpecification;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Criteria predicate construction for the listing filters, against the real
+ * Hibernate metamodel. Hibernate is bootstrapped with the PostgreSQL dialect and
+ * without a database, as building predicates needs no connection.
+ *
+ * @author GED Team
+ * @version 1.0
+ * @since 2026-02-22
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpecificationBenchmark {
+
+    @Param({"none", "title", "status", "title+status"})
+    private String filters;
+
+    private SessionFactory sessionFactory;
+    private CriteriaBuilder criteriaBuilder;
+    private String title;
+    private DocumentStatus status;
+
+    @Setup
+    public void setUp() {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.DIALECT, PostgreSQLDialect.class.getName())
+                .applySetting("hibernate.temp.use_jdbc_metadata_defaults", false)
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClass(Document.class)
+                .addAnnotatedClass(DocumentVersion.class)
+                .addAnnotatedClass(User.class)
+                .buildMetadata()
+                .buildSessionFactory();
+        criteriaBuilder = sessionFactory.getCriteriaBuilder();
+
+        title = filters.contains("title") ? "contrato" : null;
+        status = filters.contains("status") ? DocumentStatus.PUBLISHED : null;
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public Predicate withFilters() {
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Document> root = query.from(Document.class);
+        return DocumentSpecification.withFilters(title, status).toPredicate(root, query, criteriaBuilder);
+    }
+}
@@ -0,0 +1,168 @@
+package com.uds.ged.benchmark;
+
+import com.uds.ged.application.service.FileStorageService;
+import com.uds.ged.infrastructure.codec.StorageCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.Resource;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Storing and reading files from 4KB to 500MB on the local disk. Content is read
+ * from a file rather than memory, as large multipart uploads are spooled to disk.
+ * Stored copies are removed after each iteration to keep disk usage bounded.
+ *
+ * @author GED Team
+ * @version 1.0
+ * @since 2026-02-22
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class StorageBenchmark {
+
+    private static final int BLOCK_SIZE = 1024 * 1024;
+
+    @Param({"4KB", "1MB", "64MB", "500MB"})
+    private String size;
+
+    private Path workDir;
+    private Path storageDir;
+    private FileStorageService storageService;
+    private MultipartFile source;
+    private String storedKey;
+
+    @Setup
+    public void setUp() throws IOException {
+        workDir = Files.createTempDirectory("ged-storage-bench");
+        storageDir = workDir.resolve("storage");
+        storageService = new FileStorageService(storageDir.toString(), false, null,
+                new StorageCodec(false, 6, List.of()), new SimpleMeterRegistry());
+
+        Path sourceFile = workDir.resolve("source.pdf");
+        writeRandom(sourceFile, DataSize.parse(size).toBytes());
+        source = new PathMultipartFile(sourceFile, "application/pdf");
+        storedKey = storageService.storeFile(source, 0L).fileKey();
+    }
+
+    @TearDown(Level.Iteration)
+    public void removeStoredCopies() throws IOException {
+        try (Stream<Path> files = Files.list(storageDir)) {
+            for (Path file : files.toList()) {
+                if (Files.isRegularFile(file) && !file.getFileName().toString().equals(storedKey)) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(workDir);
+    }
+
+    @Benchmark
+    public String storeFile() {
+        return storageService.storeFile(source, 1L).fileKey();
+    }
+
+    @Benchmark
+    public Resource loadFileAsResource() {
+        return storageService.loadFileAsResource(storedKey);
+    }
+
+    @Benchmark
+    public long loadAndRead() throws IOException {
+        try (InputStream inputStream = storageService.loadFileAsResource(storedKey).getInputStream()) {
+            return inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    private static void writeRandom(Path file, long length) throws IOException {
+        byte[] block = new byte[BLOCK_SIZE];
+        new Random(42).nextBytes(block);
+        try (OutputStream outputStream = Files.newOutputStream(file)) {
+            for (long remaining = length; remaining > 0; remaining -= BLOCK_SIZE) {
+                outputStream.write(block, 0, (int) Math.min(BLOCK_SIZE, remaining));
+            }
+        }
+    }
+
+    /**
+     * Multipart upload spooled to a file, as Tomcat hands over large parts.
+     */
+    private record PathMultipartFile(Path path, String contentType) implements MultipartFile {
+
+        @Override
+        public String getName() {
+            return "file";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return path.getFileName().toString();
+        }
+
+        @Override
+        public String getContentType() {
+            return contentType;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return getSize() == 0;
+        }
+
+        @Override
+        public long getSize() {
+            try {
+                return Files.size(path);
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        @Override
+        public byte[] getBytes() throws IOException {
+            return Files.readAllBytes(path);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(path);
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            Files.copy(path, dest.toPath());
+        }
+    }
+}
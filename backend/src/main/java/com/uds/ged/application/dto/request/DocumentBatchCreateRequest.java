@@ -0,0 +1,26 @@
+package com.uds.ged.application.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Documents to create in one call.
+ * Items are validated one by one, so an invalid item is reported in the
+ * result instead of rejecting the whole batch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentBatchCreateRequest {
+
+    public static final int MAX_ITEMS = 10_000;
+
+    @NotEmpty(message = "At least one document is required")
+    @Size(max = MAX_ITEMS, message = "At most " + MAX_ITEMS + " documents per batch")
+    private List<DocumentCreateRequest> documents;
+}
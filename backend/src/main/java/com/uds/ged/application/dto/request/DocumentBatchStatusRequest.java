@@ -0,0 +1,26 @@
+package com.uds.ged.application.dto.request;
+
+import com.uds.ged.domain.model.enums.DocumentStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentBatchStatusRequest {
+
+    public static final int MAX_ITEMS = 10_000;
+
+    @NotEmpty(message = "At least one document ID is required")
+    @Size(max = MAX_ITEMS, message = "At most " + MAX_ITEMS + " documents per batch")
+    private List<@NotNull(message = "Document ID is required") Long> ids;
+
+    @NotNull(message = "Status is required")
+    private DocumentStatus status;
+}
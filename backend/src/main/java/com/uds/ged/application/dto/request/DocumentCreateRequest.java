@@ -3,6 +3,7 @@ package com.uds.ged.application.dto.request;
 import com.uds.ged.domain.model.enums.DocumentStatus;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -16,12 +17,15 @@ import java.util.List;
 public class DocumentCreateRequest {
 
     @NotBlank(message = "Title is required")
+    @Size(max = 255, message = "Title must be at most 255 characters")
     private String title;
 
     private String description;
 
-    private List<String> tags = new ArrayList<>();
+    private List<@NotBlank(message = "Tags must not be blank")
+                 @Size(max = 255, message = "Tags must be at most 255 characters") String> tags = new ArrayList<>();
 
+    @Size(max = 100, message = "Tenant ID must be at most 100 characters")
     private String tenantId;
 
     @NotNull(message = "Status is required")
@@ -0,0 +1,58 @@
+package com.uds.ged.application.dto.request;
+
+import com.uds.ged.infrastructure.exception.InvalidCursorException;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Position of the last row of a keyset page: the (sortBy, id) tuple of that row.
+ * Travels to clients as an opaque URL-safe token in the {@code after} parameter.
+ *
+ * @param sortBy sort property, one of {@link #SORTABLE_PROPERTIES}
+ * @param direction sort direction the cursor was issued for
+ * @param value sort property value of the last row
+ * @param id ID of the last row, used as tie-breaker
+ */
+public record DocumentCursor(String sortBy, Sort.Direction direction, LocalDateTime value, Long id) {
+
+    /**
+     * Sort properties backed by a composite (property, id) index.
+     */
+    public static final Set<String> SORTABLE_PROPERTIES = Set.of("createdAt", "updatedAt");
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, sortBy, direction.name(), value.toString(), id.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token previously produced by {@link #encode()}.
+     *
+     * @param token the opaque cursor token
+     * @return the decoded cursor
+     * @throws InvalidCursorException if the token is malformed
+     */
+    public static DocumentCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 4 || !SORTABLE_PROPERTIES.contains(parts[0])) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+            return new DocumentCursor(
+                    parts[0],
+                    Sort.Direction.valueOf(parts[1]),
+                    LocalDateTime.parse(parts[2]),
+                    Long.valueOf(parts[3]));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new InvalidCursorException("Invalid cursor", ex);
+        }
+    }
+}
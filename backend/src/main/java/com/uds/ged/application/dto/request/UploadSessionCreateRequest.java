@@ -0,0 +1,33 @@
+package com.uds.ged.application.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionCreateRequest {
+
+    @NotBlank(message = "File name is required")
+    @Size(max = 255, message = "File name must be at most 255 characters")
+    private String fileName;
+
+    @Size(max = 100, message = "MIME type must be at most 100 characters")
+    private String mimeType;
+
+    @NotNull(message = "Total size is required")
+    @Positive(message = "Total size must be positive")
+    private Long totalSize;
+
+    /**
+     * Optional hex SHA-256 of the whole file, verified on completion.
+     */
+    @Pattern(regexp = "^[0-9a-fA-F]{64}$", message = "Content hash must be a hex SHA-256")
+    private String contentHash;
+}
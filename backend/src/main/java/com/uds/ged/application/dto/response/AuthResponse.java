@@ -12,7 +12,10 @@ import lombok.NoArgsConstructor;
 public class AuthResponse {
 
     private String token;
+    private String refreshToken;
     private String type;
+    /** Access token lifetime in seconds. */
+    private long expiresIn;
     private String username;
     private String email;
     private String role;
@@ -0,0 +1,40 @@
+package com.uds.ged.application.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a batch request, {@code index} being its position in the request.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResponse {
+
+    private int index;
+    private Long id;
+    private boolean success;
+    private String error;
+
+    public static BatchItemResponse succeeded(int index, Long id) {
+        return BatchItemResponse.builder()
+                .index(index)
+                .id(id)
+                .success(true)
+                .build();
+    }
+
+    public static BatchItemResponse failed(int index, Long id, String error) {
+        return BatchItemResponse.builder()
+                .index(index)
+                .id(id)
+                .success(false)
+                .error(error)
+                .build();
+    }
+}
@@ -0,0 +1,30 @@
+package com.uds.ged.application.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResponse {
+
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<BatchItemResponse> items;
+
+    public static BatchResponse of(List<BatchItemResponse> items) {
+        int succeeded = (int) items.stream().filter(BatchItemResponse::isSuccess).count();
+        return BatchResponse.builder()
+                .total(items.size())
+                .succeeded(succeeded)
+                .failed(items.size() - succeeded)
+                .items(items)
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.uds.ged.application.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.uds.ged.domain.model.enums.DocumentStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -10,7 +11,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class DocumentResponse {
@@ -25,4 +26,10 @@ public class DocumentResponse {
     private Integer currentVersion;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double relevance;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String highlight;
 }
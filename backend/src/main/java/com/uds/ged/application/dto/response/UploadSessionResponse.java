@@ -0,0 +1,26 @@
+package com.uds.ged.application.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionResponse {
+
+    private String uploadId;
+    private Long documentId;
+    private String fileName;
+    private String mimeType;
+    private Long totalSize;
+    private Integer chunkSize;
+    private Long chunkCount;
+    private List<Long> receivedOffsets;
+    private LocalDateTime expiresAt;
+}
@@ -2,26 +2,28 @@ package com.uds.ged.application.mapper;
 
 import com.uds.ged.application.dto.response.DocumentResponse;
 import com.uds.ged.application.dto.response.DocumentVersionResponse;
+import com.uds.ged.application.dto.response.UploadSessionResponse;
 import com.uds.ged.domain.model.Document;
 import com.uds.ged.domain.model.DocumentVersion;
+import com.uds.ged.domain.model.UploadSession;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Component
 public class DocumentMapper {
 
     public DocumentResponse toResponse(Document document) {
-        Integer currentVersion = document.getVersions().isEmpty() ? null :
-                document.getVersions().get(0).getVersionNumber();
-
         return DocumentResponse.builder()
                 .id(document.getId())
                 .title(document.getTitle())
                 .description(document.getDescription())
-                .tags(document.getTags())
+                .tags(new ArrayList<>(document.getTags()))
                 .ownerUsername(document.getOwner().getUsername())
                 .tenantId(document.getTenantId())
                 .status(document.getStatus())
-                .currentVersion(currentVersion)
+                .currentVersion(document.getCurrentVersion())
                 .createdAt(document.getCreatedAt())
                 .updatedAt(document.getUpdatedAt())
                 .build();
@@ -38,4 +40,18 @@ public class DocumentMapper {
                 .uploadedAt(version.getUploadedAt())
                 .build();
     }
+
+    public UploadSessionResponse toUploadResponse(UploadSession session, Long documentId, List<Long> receivedOffsets) {
+        return UploadSessionResponse.builder()
+                .uploadId(session.getId())
+                .documentId(documentId)
+                .fileName(session.getFileName())
+                .mimeType(session.getMimeType())
+                .totalSize(session.getTotalSize())
+                .chunkSize(session.getChunkSize())
+                .chunkCount(session.getChunkCount())
+                .receivedOffsets(receivedOffsets)
+                .expiresAt(session.getExpiresAt())
+                .build();
+    }
 }
@@ -1,25 +1,40 @@
 package com.uds.ged.application.service;
 
 import com.uds.ged.application.dto.request.LoginRequest;
+import com.uds.ged.application.dto.request.RefreshTokenRequest;
 import com.uds.ged.application.dto.request.RegisterRequest;
 import com.uds.ged.application.dto.response.AuthResponse;
 import com.uds.ged.infrastructure.exception.EmailAlreadyExistsException;
 import com.uds.ged.infrastructure.exception.PasswordMismatchException;
+import com.uds.ged.infrastructure.exception.UnauthorizedException;
 import com.uds.ged.infrastructure.exception.UsernameAlreadyExistsException;
+import com.uds.ged.domain.model.RefreshToken;
 import com.uds.ged.domain.model.User;
 import com.uds.ged.domain.model.enums.UserRole;
+import com.uds.ged.domain.repository.RefreshTokenRepository;
 import com.uds.ged.domain.repository.UserRepository;
+import com.uds.ged.domain.repository.UserTokenState;
+import com.uds.ged.infrastructure.security.JwtPrincipal;
 import com.uds.ged.infrastructure.security.JwtTokenProvider;
+import com.uds.ged.infrastructure.security.SecurityUser;
+import com.uds.ged.infrastructure.security.TokenVersionCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -29,8 +44,17 @@ public class AuthService {
     private final JwtTokenProvider tokenProvider;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionCache tokenVersionCache;
+    private final RegisteredUserFilter registeredUserFilter;
+    private final RefreshTokenRepository refreshTokenRepository;
 
-    @Transactional(readOnly = true)
+    /**
+     * Authenticates a user and issues an access token and a refresh token.
+     * Not transactional: no database connection is held while the password is verified.
+     *
+     * @param request the login request
+     * @return authentication response with JWT token
+     */
     public AuthResponse login(LoginRequest request) {
         log.debug("Attempting login for user: {}", request.getUsername());
 
@@ -42,26 +66,21 @@ public class AuthService {
         );
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String token = tokenProvider.generateToken(authentication);
 
         User user = userRepository.findByUsername(request.getUsername())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         log.info("User {} logged in successfully", request.getUsername());
 
-        return AuthResponse.builder()
-                .token(token)
-                .type("Bearer")
-                .username(user.getUsername())
-                .email(user.getEmail())
-                .role(user.getRole().name())
-                .build();
+        return issueTokens(authentication, user.getUsername(), user.getEmail(), user.getRole().name());
     }
 
     /**
      * Registers a new user in the system.
      * Validates password match, username and email uniqueness.
      * Automatically authenticates the user after successful registration.
+     * The password is hashed outside any transaction and not verified again
+     * afterwards, so registration costs one hash and holds no connection meanwhile.
      *
      * @param request the registration request containing user details
      * @return authentication response with JWT token
@@ -69,7 +88,6 @@ public class AuthService {
      * @throws UsernameAlreadyExistsException if username is already taken
      * @throws EmailAlreadyExistsException if email is already registered
      */
-    @Transactional
     public AuthResponse register(RegisterRequest request) {
         log.info("Registration attempt - username: {}, email: {}", 
                 request.getUsername(), request.getEmail());
@@ -94,58 +112,165 @@ public class AuthService {
 
         // Criar novo usuário
         UserRole assignedRole = request.getRole() != null ? request.getRole() : UserRole.USER;
+        String passwordHash = passwordEncoder.encode(request.getPassword());
         User user = User.builder()
                 .username(request.getUsername())
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHash)
                 .role(assignedRole)
                 .build();
 
         user = userRepository.save(user);
+        registeredUserFilter.add(user.getUsername(), user.getEmail());
         log.info("User registered successfully - username: {}, email: {}, role: {}", 
                 user.getUsername(), user.getEmail(), user.getRole());
 
-        // Autenticar automaticamente após registro
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getUsername(),
-                        request.getPassword()
-                )
-        );
+        // Autenticar automaticamente após registro (a senha acabou de ser definida)
+        SecurityUser principal = new SecurityUser(
+                user.getUsername(),
+                user.getPassword(),
+                List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name())),
+                user.getTokenVersion());
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                principal, null, principal.getAuthorities());
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String token = tokenProvider.generateToken(authentication);
         
         log.debug("JWT token generated for user: {}", user.getUsername());
 
+        return issueTokens(authentication, user.getUsername(), user.getEmail(), user.getRole().name());
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token.
+     * Costs one signature check, one indexed lookup of the user's token version
+     * and role and one update of the token's row: no password hashing. The new
+     * tokens carry the role the user has now, not the one in the refresh token.
+     * The email is not part of the token and is therefore not returned.
+     * <p>
+     * Each refresh token is exchanged at most once. A token that was already used
+     * has leaked or been replayed, so presenting it again revokes every token of
+     * the user; the revocation commits although the request is rejected.
+     *
+     * @param request the refresh request
+     * @return authentication response with the new tokens
+     * @throws UnauthorizedException if the refresh token is invalid, expired, revoked or already used
+     */
+    @Transactional(noRollbackFor = UnauthorizedException.class)
+    public AuthResponse refresh(RefreshTokenRequest request) {
+        JwtPrincipal principal = tokenProvider.parseRefreshToken(request.getRefreshToken())
+                .orElseThrow(() -> new UnauthorizedException("Invalid or expired refresh token"));
+        UserTokenState state = tokenVersionCache.currentState(principal.username(), principal.tokenVersion())
+                .orElseThrow(() -> new UnauthorizedException("Invalid or expired refresh token"));
+        spendRefreshToken(principal);
+
+        SecurityUser user = new SecurityUser(
+                principal.username(),
+                "",
+                List.of(new SimpleGrantedAuthority("ROLE_" + state.role().name())),
+                state.tokenVersion());
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                user, null, user.getAuthorities());
+
+        log.debug("Tokens refreshed for user: {}", principal.username());
+
+        return issueTokens(authentication, principal.username(), null, state.role().name());
+    }
+
+    /**
+     * Revokes every access and refresh token issued to the user so far, on all devices.
+     *
+     * @param username the authenticated user
+     */
+    @Transactional
+    public void logout(String username) {
+        userRepository.incrementTokenVersion(username);
+        tokenVersionCache.evict(username);
+        log.info("User {} logged out, tokens revoked", username);
+    }
+
+    /**
+     * Revokes every token of the user a refresh token was issued to, for clients
+     * whose access token has already expired. The refresh token must still be current.
+     *
+     * @param request the refresh token
+     * @throws UnauthorizedException if the refresh token is invalid, expired or revoked
+     */
+    @Transactional
+    public void logout(RefreshTokenRequest request) {
+        JwtPrincipal principal = tokenProvider.parseRefreshToken(request.getRefreshToken())
+                .filter(verified -> tokenVersionCache.isCurrent(verified.username(), verified.tokenVersion()))
+                .orElseThrow(() -> new UnauthorizedException("Invalid or expired refresh token"));
+        logout(principal.username());
+    }
+
+    /**
+     * Deletes the records of refresh tokens that have expired, used or not:
+     * they are rejected by their signature from then on.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-cleanup-interval:PT1H}")
+    public void purgeExpiredRefreshTokens() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Purged {} expired refresh tokens", deleted);
+        }
+    }
+
+    private void spendRefreshToken(JwtPrincipal principal) {
+        String tokenId = principal.tokenId();
+        if (tokenId == null) {
+            throw new UnauthorizedException("Invalid or expired refresh token");
+        }
+        if (refreshTokenRepository.markUsed(tokenId, LocalDateTime.now()) == 1) {
+            return;
+        }
+        if (refreshTokenRepository.existsById(tokenId)) {
+            log.warn("Refresh token reused for user {}, revoking all tokens", principal.username());
+            logout(principal.username());
+            throw new UnauthorizedException("Refresh token already used");
+        }
+        throw new UnauthorizedException("Invalid or expired refresh token");
+    }
+
+    private AuthResponse issueTokens(Authentication authentication, String username, String email, String role) {
+        String refreshTokenId = UUID.randomUUID().toString();
+        refreshTokenRepository.save(RefreshToken.builder()
+                .id(refreshTokenId)
+                .username(username)
+                .expiresAt(LocalDateTime.now().plus(Duration.ofMillis(tokenProvider.getRefreshExpiration())))
+                .build());
         return AuthResponse.builder()
-                .token(token)
+                .token(tokenProvider.generateToken(authentication))
+                .refreshToken(tokenProvider.generateRefreshToken(authentication, refreshTokenId))
                 .type("Bearer")
-                .username(user.getUsername())
-                .email(user.getEmail())
-                .role(user.getRole().name())
+                .expiresIn(tokenProvider.getExpiration() / 1000)
+                .username(username)
+                .email(email)
+                .role(role)
                 .build();
     }
 
     /**
      * Checks if a username is available for registration.
+     * Usernames absent from the in-memory filter are reported available without a query.
      *
      * @param username the username to check
      * @return true if available, false if already taken
      */
-    @Transactional(readOnly = true)
     public boolean isUsernameAvailable(String username) {
-        return !userRepository.existsByUsername(username);
+        return registeredUserFilter.isAvailable(RegisteredUserFilter.Field.USERNAME, username,
+                userRepository::existsByUsername);
     }
 
     /**
      * Checks if an email is available for registration.
+     * Emails absent from the in-memory filter are reported available without a query.
      *
      * @param email the email to check
      * @return true if available, false if already registered
      */
-    @Transactional(readOnly = true)
     public boolean isEmailAvailable(String email) {
-        return !userRepository.existsByEmail(email);
+        return registeredUserFilter.isAvailable(RegisteredUserFilter.Field.EMAIL, email,
+                userRepository::existsByEmail);
     }
 }
@@ -0,0 +1,179 @@
+package com.uds.ged.application.service;
+
+import com.uds.ged.application.dto.request.DocumentBatchStatusRequest;
+import com.uds.ged.application.dto.request.DocumentCreateRequest;
+import com.uds.ged.application.dto.response.BatchItemResponse;
+import com.uds.ged.application.dto.response.BatchResponse;
+import com.uds.ged.domain.model.Document;
+import com.uds.ged.domain.model.User;
+import com.uds.ged.domain.repository.DocumentRepository;
+import com.uds.ged.domain.repository.UserRepository;
+import com.uds.ged.infrastructure.exception.ResourceNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates documents and changes their status in bulk.
+ * <p>
+ * Items are validated individually and reported per item. The owner is resolved
+ * once per batch; inserts are flushed in chunks of the JDBC batch size, so they
+ * reach the database as JDBC batches, and the persistence context is cleared
+ * after each chunk to keep flushes cheap. Status changes are set-based updates.
+ */
+@Service
+@Slf4j
+public class DocumentBatchService {
+
+    /**
+     * IDs per IN list, well below the bind parameter limits of PostgreSQL and H2.
+     */
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    private final DocumentRepository documentRepository;
+    private final UserRepository userRepository;
+    private final Validator validator;
+    private final DocumentCache documentCache;
+    private final int flushSize;
+
+    public DocumentBatchService(DocumentRepository documentRepository,
+                                UserRepository userRepository,
+                                Validator validator,
+                                DocumentCache documentCache,
+                                @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int flushSize) {
+        this.documentRepository = documentRepository;
+        this.userRepository = userRepository;
+        this.validator = validator;
+        this.documentCache = documentCache;
+        this.flushSize = flushSize;
+    }
+
+    /**
+     * Creates the valid documents of a batch in one transaction.
+     * Invalid items are skipped and reported with their validation errors.
+     *
+     * @param requests documents to create
+     * @param username the owner of the new documents
+     * @return one result per request item, in request order
+     * @throws ResourceNotFoundException if the user does not exist
+     */
+    @Transactional
+    public BatchResponse createDocuments(List<DocumentCreateRequest> requests, String username) {
+        log.debug("Creating batch of {} documents", requests.size());
+
+        User owner = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+
+        BatchItemResponse[] results = new BatchItemResponse[requests.size()];
+        List<Document> chunk = new ArrayList<>(flushSize);
+        List<Integer> chunkIndexes = new ArrayList<>(flushSize);
+
+        for (int index = 0; index < requests.size(); index++) {
+            DocumentCreateRequest request = requests.get(index);
+            String error = validate(request);
+            if (error != null) {
+                results[index] = BatchItemResponse.failed(index, null, error);
+                continue;
+            }
+
+            chunk.add(Document.builder()
+                    .title(request.getTitle())
+                    .description(request.getDescription())
+                    .tags(request.getTags())
+                    .owner(owner)
+                    .tenantId(request.getTenantId())
+                    .status(request.getStatus())
+                    .build());
+            chunkIndexes.add(index);
+
+            if (chunk.size() == flushSize) {
+                saveChunk(chunk, chunkIndexes, results);
+            }
+        }
+        saveChunk(chunk, chunkIndexes, results);
+
+        BatchResponse response = BatchResponse.of(List.of(results));
+        log.info("Batch created {} documents, {} rejected", response.getSucceeded(), response.getFailed());
+        return response;
+    }
+
+    /**
+     * Sets the status of many documents with set-based updates.
+     * Unknown IDs are reported as failed; repeated IDs share one result.
+     *
+     * @param request document IDs and the new status
+     * @return one result per requested ID, in request order
+     */
+    @Transactional
+    public BatchResponse updateStatus(DocumentBatchStatusRequest request) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(request.getIds()));
+        log.debug("Updating status of {} documents to {}", ids.size(), request.getStatus());
+
+        Set<Long> updated = new HashSet<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size()));
+            List<Long> existing = documentRepository.findExistingIds(chunk);
+            if (!existing.isEmpty()) {
+                documentRepository.updateStatus(existing, request.getStatus(), now);
+                documentCache.evict(existing);
+                updated.addAll(existing);
+            }
+        }
+
+        List<Long> requested = request.getIds();
+        List<BatchItemResponse> results = new ArrayList<>(requested.size());
+        for (int index = 0; index < requested.size(); index++) {
+            Long id = requested.get(index);
+            results.add(updated.contains(id)
+                    ? BatchItemResponse.succeeded(index, id)
+                    : BatchItemResponse.failed(index, id, "Document not found"));
+        }
+
+        BatchResponse response = BatchResponse.of(results);
+        log.info("Batch status change to {}: {} updated, {} not found",
+                request.getStatus(), response.getSucceeded(), response.getFailed());
+        return response;
+    }
+
+    private void saveChunk(List<Document> chunk, List<Integer> chunkIndexes, BatchItemResponse[] results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        documentRepository.saveAll(chunk);
+        documentRepository.flushAndClear();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            int index = chunkIndexes.get(i);
+            results[index] = BatchItemResponse.succeeded(index, chunk.get(i).getId());
+        }
+        chunk.clear();
+        chunkIndexes.clear();
+    }
+
+    private String validate(DocumentCreateRequest request) {
+        if (request == null) {
+            return "Document is required";
+        }
+        Set<ConstraintViolation<DocumentCreateRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+}
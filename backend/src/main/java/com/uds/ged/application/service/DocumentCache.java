@@ -0,0 +1,134 @@
+package com.uds.ged.application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.uds.ged.application.dto.response.DocumentResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of document metadata as returned by the API: fields, tags and owner name.
+ * <p>
+ * Serves single-document reads and the second phase of ID-first listings, so the
+ * hot set of documents is read from memory while the database only pages IDs.
+ * Writers evict after commit. Readers take a {@link #stamp()} before loading and
+ * hand it to {@link #put}: a value loaded while an eviction happened is dropped
+ * instead of caching a pre-commit row. Other nodes see changes once their entry
+ * expires, after at most {@code ttl}.
+ */
+@Component
+public class DocumentCache {
+
+    private final boolean enabled;
+    private final Cache<Long, DocumentResponse> documents;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public DocumentCache(@Value("${app.cache.documents.enabled:true}") boolean enabled,
+                         @Value("${app.cache.documents.maximum-size:10000}") long maximumSize,
+                         @Value("${app.cache.documents.ttl:60s}") Duration ttl,
+                         MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.documents = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, documents, "documents");
+    }
+
+    public Optional<DocumentResponse> get(Long id) {
+        return Optional.ofNullable(documents.getIfPresent(id)).map(DocumentCache::copy);
+    }
+
+    /**
+     * Returns the cached documents among the given IDs; missing IDs are absent from the map.
+     */
+    public Map<Long, DocumentResponse> getAll(Collection<Long> ids) {
+        Map<Long, DocumentResponse> cached = new HashMap<>();
+        documents.getAllPresent(ids).forEach((id, document) -> cached.put(id, copy(document)));
+        return cached;
+    }
+
+    /**
+     * Marks the start of a database read whose results will be cached.
+     */
+    public long stamp() {
+        return evictions.get();
+    }
+
+    /**
+     * Caches documents read after {@code stamp} was taken, unless an eviction
+     * happened since, in which case they may predate the evicting commit.
+     */
+    public void put(Collection<DocumentResponse> loaded, long stamp) {
+        if (!enabled || loaded.isEmpty()) {
+            return;
+        }
+        Map<Long, DocumentResponse> snapshots = new HashMap<>();
+        loaded.forEach(document -> snapshots.put(document.getId(), snapshot(document)));
+        documents.putAll(snapshots);
+        if (evictions.get() != stamp) {
+            documents.invalidateAll(snapshots.keySet());
+        }
+    }
+
+    public void put(DocumentResponse loaded, long stamp) {
+        put(List.of(loaded), stamp);
+    }
+
+    /**
+     * Evicts documents changed by the current transaction, now and again after
+     * commit so that reads racing with the commit cannot re-cache the old state.
+     */
+    public void evict(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Long> evicted = List.copyOf(ids);
+        evictNow(evicted);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(evicted);
+                }
+            });
+        }
+    }
+
+    public void evict(Long id) {
+        evict(List.of(id));
+    }
+
+    private void evictNow(Collection<Long> ids) {
+        evictions.incrementAndGet();
+        documents.invalidateAll(ids);
+    }
+
+    /**
+     * Cached values are never handed out: search results decorate their copy.
+     */
+    private static DocumentResponse snapshot(DocumentResponse document) {
+        return document.toBuilder()
+                .tags(document.getTags() != null ? List.copyOf(document.getTags()) : null)
+                .relevance(null)
+                .highlight(null)
+                .build();
+    }
+
+    private static DocumentResponse copy(DocumentResponse document) {
+        return document.toBuilder().build();
+    }
+}
@@ -0,0 +1,170 @@
+package com.uds.ged.application.service;
+
+import com.uds.ged.domain.model.Document;
+import com.uds.ged.domain.model.enums.DocumentStatus;
+import com.uds.ged.domain.repository.CurrentVersionFile;
+import com.uds.ged.domain.repository.DocumentRepository;
+import com.uds.ged.domain.repository.DocumentVersionRepository;
+import com.uds.ged.domain.specification.DocumentSpecification;
+import com.uds.ged.infrastructure.codec.StorageCodec;
+import com.uds.ged.infrastructure.exception.FileStorageException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams the current version files of a filtered document set as a ZIP archive.
+ * <p>
+ * Matching documents are walked in ID order one keyset page at a time, each page
+ * in its own short read, so no connection is held while files are written. File
+ * contents are copied straight from storage into the archive; only the ZIP central
+ * directory (one small record per entry, written at the end) grows with the export.
+ * Formats that are already compressed are written without compression.
+ */
+@Service
+@Slf4j
+public class DocumentExportService {
+
+    static final String ERRORS_ENTRY = "export-errors.txt";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final DocumentRepository documentRepository;
+    private final DocumentVersionRepository versionRepository;
+    private final FileStorageService fileStorageService;
+    private final StorageCodec storageCodec;
+    private final int pageSize;
+
+    public DocumentExportService(DocumentRepository documentRepository,
+                                 DocumentVersionRepository versionRepository,
+                                 FileStorageService fileStorageService,
+                                 StorageCodec storageCodec,
+                                 @Value("${app.export.page-size:500}") int pageSize) {
+        this.documentRepository = documentRepository;
+        this.versionRepository = versionRepository;
+        this.fileStorageService = fileStorageService;
+        this.storageCodec = storageCodec;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Writes the current version of every matching document to a ZIP archive.
+     * Filters are those of the document listing: with {@code query} a full-text
+     * search (PostgreSQL only) replaces the title filter. Files missing from
+     * storage are skipped and listed in an {@value #ERRORS_ENTRY} entry.
+     *
+     * @param query full-text query, may be {@code null}
+     * @param title title filter, may be {@code null}
+     * @param status status filter, may be {@code null}
+     * @param outputStream target stream; finished but not closed
+     * @return the number of files written
+     * @throws IOException if writing the archive fails
+     */
+    public int exportCurrentVersions(String query, String title, DocumentStatus status,
+                                     OutputStream outputStream) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(outputStream, BUFFER_SIZE));
+        List<String> errors = new ArrayList<>();
+        int written = 0;
+        int skipped = 0;
+
+        long afterId = 0;
+        List<Long> ids;
+        do {
+            ids = nextDocumentIds(query, title, status, afterId);
+            if (ids.isEmpty()) {
+                break;
+            }
+            for (CurrentVersionFile file : versionRepository.findCurrentVersionFiles(ids)) {
+                if (writeEntry(zip, file, errors)) {
+                    written++;
+                } else {
+                    skipped++;
+                }
+            }
+            afterId = ids.get(ids.size() - 1);
+        } while (ids.size() == pageSize);
+
+        if (!errors.isEmpty()) {
+            if (skipped > errors.size()) {
+                errors.add((skipped - errors.size()) + " more files skipped");
+            }
+            zip.setLevel(Deflater.DEFAULT_COMPRESSION);
+            zip.putNextEntry(new ZipEntry(ERRORS_ENTRY));
+            zip.write(String.join("\n", errors).getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        zip.finish();
+        zip.flush();
+
+        log.info("Exported {} files ({} skipped)", written, skipped);
+        return written;
+    }
+
+    private List<Long> nextDocumentIds(String query, String title, DocumentStatus status, long afterId) {
+        if (StringUtils.hasText(query)) {
+            return documentRepository.findFullTextIdsAfter(query, status != null ? status.name() : null,
+                    afterId, pageSize);
+        }
+        Specification<Document> specification = DocumentSpecification.withFilters(title, status)
+                .and(DocumentSpecification.idAfter(afterId));
+        return documentRepository.findIdSlice(specification, Sort.by(Sort.Direction.ASC, "id"), pageSize);
+    }
+
+    /**
+     * Copies one file into the archive. The source is opened before the entry is
+     * started, so a missing file is skipped without leaving a broken entry.
+     */
+    private boolean writeEntry(ZipOutputStream zip, CurrentVersionFile file, List<String> errors) throws IOException {
+        String entryName = entryName(file);
+        InputStream inputStream;
+        try {
+            inputStream = fileStorageService.loadFileAsResource(file.getFileKey()).getInputStream();
+        } catch (FileStorageException | IOException ex) {
+            log.warn("Skipping {} in export: {}", file.getFileKey(), ex.getMessage());
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(entryName + ": file not available");
+            }
+            return false;
+        }
+
+        try (inputStream) {
+            ZipEntry entry = new ZipEntry(entryName);
+            if (file.getUploadedAt() != null) {
+                entry.setTimeLocal(file.getUploadedAt());
+            }
+            // Deflate level 0 writes stored blocks in a single pass; a STORED entry
+            // would need size and CRC up front, i.e. reading every file twice
+            zip.setLevel(storageCodec.isCompressibleType(file.getMimeType())
+                    ? Deflater.DEFAULT_COMPRESSION
+                    : Deflater.NO_COMPRESSION);
+            zip.putNextEntry(entry);
+            inputStream.transferTo(zip);
+            zip.closeEntry();
+        }
+        return true;
+    }
+
+    /**
+     * Unique, flat entry name: the document ID followed by the uploaded file name.
+     */
+    private static String entryName(CurrentVersionFile file) {
+        String fileName = file.getFileName() != null
+                ? file.getFileName().replaceAll("[\\\\/:\\p{Cntrl}]", "_").trim()
+                : "";
+        return file.getDocumentId() + "_" + (fileName.isEmpty() ? "v" + file.getVersionNumber() : fileName);
+    }
+}
@@ -1,8 +1,10 @@
 package com.uds.ged.application.service;
 
 import com.uds.ged.application.dto.request.DocumentCreateRequest;
+import com.uds.ged.application.dto.request.DocumentCursor;
 import com.uds.ged.application.dto.request.DocumentStatusRequest;
 import com.uds.ged.application.dto.request.DocumentUpdateRequest;
+import com.uds.ged.application.dto.response.CursorPageResponse;
 import com.uds.ged.application.dto.response.DocumentResponse;
 import com.uds.ged.application.dto.response.DocumentVersionResponse;
 import com.uds.ged.application.dto.response.PageResponse;
@@ -12,18 +14,33 @@ import com.uds.ged.domain.model.DocumentVersion;
 import com.uds.ged.domain.model.User;
 import com.uds.ged.domain.model.enums.DocumentStatus;
 import com.uds.ged.domain.repository.DocumentRepository;
+import com.uds.ged.domain.repository.DocumentSearchHit;
 import com.uds.ged.domain.repository.DocumentVersionRepository;
 import com.uds.ged.domain.repository.UserRepository;
+import com.uds.ged.domain.specification.DocumentSpecification;
+import com.uds.ged.infrastructure.exception.InvalidCursorException;
 import com.uds.ged.infrastructure.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.util.HtmlUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,7 +52,9 @@ public class DocumentService {
     private final DocumentVersionRepository versionRepository;
     private final UserRepository userRepository;
     private final FileStorageService fileStorageService;
+    private final FileDeletionService fileDeletionService;
     private final DocumentMapper documentMapper;
+    private final DocumentCache documentCache;
 
     @Transactional
     public DocumentResponse createDocument(DocumentCreateRequest request, String username) {
@@ -59,29 +78,130 @@ public class DocumentService {
         return documentMapper.toResponse(savedDocument);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Returns a document from the cache, loading it on a miss. Not transactional,
+     * so a cache hit never takes a database connection.
+     */
     public DocumentResponse getDocumentById(Long id) {
-        Document document = documentRepository.findByIdWithTags(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Document", "id", id));
-        return documentMapper.toResponse(document);
+        List<DocumentResponse> documents = loadInIdOrder(List.of(id));
+        if (documents.isEmpty()) {
+            throw new ResourceNotFoundException("Document", "id", id);
+        }
+        return documents.get(0);
     }
 
     @Transactional(readOnly = true)
     public PageResponse<DocumentResponse> getAllDocuments(Pageable pageable) {
-        Page<Document> documentPage = documentRepository.findAllWithTagsAndOwner(pageable);
+        Page<DocumentResponse> documentPage = findPage(null, pageable);
         return buildPageResponse(documentPage);
     }
 
     @Transactional(readOnly = true)
     public PageResponse<DocumentResponse> searchDocuments(String title, DocumentStatus status, Pageable pageable) {
         log.debug("Searching documents with title: {} and status: {}", title, status);
-        Page<Document> documentPage = documentRepository.findAll(
-            com.uds.ged.domain.specification.DocumentSpecification.withFilters(title, status),
-            pageable
-        );
+        Page<DocumentResponse> documentPage = findPage(DocumentSpecification.withFilters(title, status), pageable);
         return buildPageResponse(documentPage);
     }
 
+    /**
+     * Full-text search over title, tags and description, ranked by relevance.
+     * Each result carries its relevance score and a highlighted snippet.
+     *
+     * @param query search terms, in web search syntax ("quoted phrase", -excluded, or)
+     * @param status optional status filter
+     * @param pageable page request, its sort is ignored in favour of relevance
+     * @return page of matching documents, most relevant first
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<DocumentResponse> fullTextSearch(String query, DocumentStatus status, Pageable pageable) {
+        log.debug("Full-text search with query: {} and status: {}", query, status);
+        String statusName = status != null ? status.name() : null;
+
+        List<DocumentSearchHit> hits = documentRepository.searchFullText(
+                query, statusName, pageable.getPageSize(), pageable.getOffset());
+        Map<Long, DocumentSearchHit> hitsById = hits.stream()
+                .collect(Collectors.toMap(DocumentSearchHit::getId, Function.identity()));
+
+        List<DocumentResponse> documents = loadInIdOrder(hits.stream()
+                .map(DocumentSearchHit::getId)
+                .collect(Collectors.toList()));
+        Page<DocumentResponse> documentPage = PageableExecutionUtils.getPage(documents, pageable,
+                () -> documentRepository.countFullText(query, statusName));
+
+        PageResponse<DocumentResponse> response = buildPageResponse(documentPage);
+        response.getContent().forEach(document -> {
+            DocumentSearchHit hit = hitsById.get(document.getId());
+            document.setRelevance(hit.getRank());
+            document.setHighlight(toHighlightHtml(hit.getHighlight()));
+        });
+        return response;
+    }
+
+    /**
+     * Turns a search snippet into HTML: the document text is escaped, so only the
+     * {@code <mark>} elements around matches are markup.
+     */
+    static String toHighlightHtml(String snippet) {
+        if (snippet == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(snippet, StandardCharsets.UTF_8.name())
+                .replace(DocumentSearchHit.MATCH_START, "<mark>")
+                .replace(DocumentSearchHit.MATCH_END, "</mark>");
+    }
+
+    /**
+     * Keyset (cursor) pagination over documents.
+     * Seeks past the (sortBy, id) tuple encoded in {@code after} instead of using
+     * OFFSET, and never runs a count query, so every page costs the same.
+     *
+     * @param title optional title filter
+     * @param status optional status filter
+     * @param sortBy sort property, one of {@link DocumentCursor#SORTABLE_PROPERTIES}
+     * @param direction sort direction
+     * @param after cursor returned by the previous page, blank for the first page
+     * @param size page size
+     * @return the page with the cursor for the next one
+     * @throws InvalidCursorException if the sort is unsupported or the cursor does not match it
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<DocumentResponse> getDocumentsByCursor(String title, DocumentStatus status,
+                                                                     String sortBy, Sort.Direction direction,
+                                                                     String after, int size) {
+        if (!DocumentCursor.SORTABLE_PROPERTIES.contains(sortBy)) {
+            throw new InvalidCursorException("Cursor pagination only supports sortBy "
+                    + String.join(" or ", DocumentCursor.SORTABLE_PROPERTIES));
+        }
+
+        Specification<Document> specification = DocumentSpecification.withFilters(title, status);
+        if (StringUtils.hasText(after)) {
+            DocumentCursor cursor = DocumentCursor.decode(after);
+            if (!cursor.sortBy().equals(sortBy) || cursor.direction() != direction) {
+                throw new InvalidCursorException("Cursor does not match the requested sort");
+            }
+            specification = specification.and(
+                    DocumentSpecification.seekAfter(sortBy, direction, cursor.value(), cursor.id()));
+        }
+
+        List<Long> ids = documentRepository.findIdSlice(specification, Sort.by(direction, sortBy), size + 1);
+        boolean hasNext = ids.size() > size;
+        List<DocumentResponse> documents = loadInIdOrder(hasNext ? ids.subList(0, size) : ids);
+
+        String nextCursor = null;
+        if (hasNext && !documents.isEmpty()) {
+            DocumentResponse last = documents.get(documents.size() - 1);
+            LocalDateTime value = "updatedAt".equals(sortBy) ? last.getUpdatedAt() : last.getCreatedAt();
+            nextCursor = new DocumentCursor(sortBy, direction, value, last.getId()).encode();
+        }
+
+        return CursorPageResponse.<DocumentResponse>builder()
+                .content(documents)
+                .pageSize(size)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
     @Transactional
     public DocumentResponse updateDocument(Long id, DocumentUpdateRequest request) {
         log.debug("Updating document ID: {}", id);
@@ -103,6 +223,7 @@ public class DocumentService {
         }
 
         Document updatedDocument = documentRepository.save(document);
+        documentCache.evict(id);
         log.info("Document updated: {}", id);
 
         return documentMapper.toResponse(updatedDocument);
@@ -117,6 +238,7 @@ public class DocumentService {
 
         document.setStatus(request.getStatus());
         Document updatedDocument = documentRepository.save(document);
+        documentCache.evict(id);
 
         log.info("Document status updated: {} to {}", id, request.getStatus());
         return documentMapper.toResponse(updatedDocument);
@@ -129,42 +251,69 @@ public class DocumentService {
         Document document = documentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Document", "id", id));
 
-        document.getVersions().forEach(version -> 
-            fileStorageService.deleteFile(version.getFileKey())
-        );
+        List<String> fileKeys = document.getVersions().stream()
+                .map(DocumentVersion::getFileKey)
+                .collect(Collectors.toList());
 
         documentRepository.delete(document);
-        log.info("Document deleted: {}", id);
+        documentCache.evict(id);
+        fileDeletionService.scheduleDeletion(fileKeys);
+        log.info("Document deleted: {}, {} files scheduled for deletion", id, fileKeys.size());
     }
 
     @Transactional
     public DocumentVersionResponse uploadVersion(Long documentId, MultipartFile file, String username) {
         log.debug("Uploading new version for document ID: {}", documentId);
 
+        return addVersion(documentId, username, file.getOriginalFilename(), file.getContentType(),
+                () -> fileStorageService.storeFile(file, documentId));
+    }
+
+    /**
+     * Creates the next version of a document.
+     * The content is stored by {@code storeContent} first; only then is the version
+     * number taken from the document's counter, whose row lock is held just for the
+     * insert and commit. Concurrent uploads therefore never collide on a number.
+     * Shared by multipart and resumable uploads.
+     *
+     * @param documentId the document ID
+     * @param username the uploading user
+     * @param fileName the original file name
+     * @param mimeType the file MIME type
+     * @param storeContent stores the file content
+     * @return the created version
+     * @throws ResourceNotFoundException if the document or user does not exist
+     */
+    @Transactional
+    public DocumentVersionResponse addVersion(Long documentId, String username, String fileName, String mimeType,
+                                              Supplier<FileStorageService.StoredFile> storeContent) {
         Document document = documentRepository.findById(documentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Document", "id", documentId));
 
         User uploadedBy = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
 
-        Integer nextVersionNumber = versionRepository.findMaxVersionNumberByDocumentId(documentId)
-                .map(max -> max + 1)
-                .orElse(1);
+        FileStorageService.StoredFile storedFile = storeContent.get();
 
-        String fileKey = fileStorageService.storeFile(file, documentId, nextVersionNumber);
+        if (documentRepository.allocateVersionNumber(documentId) == 0) {
+            throw new ResourceNotFoundException("Document", "id", documentId);
+        }
+        Integer versionNumber = documentRepository.findCurrentVersionById(documentId);
+        documentCache.evict(documentId);
 
         DocumentVersion version = DocumentVersion.builder()
                 .document(document)
-                .versionNumber(nextVersionNumber)
-                .fileKey(fileKey)
-                .fileName(file.getOriginalFilename())
-                .fileSize(file.getSize())
-                .mimeType(file.getContentType())
+                .versionNumber(versionNumber)
+                .fileKey(storedFile.fileKey())
+                .fileName(fileName)
+                .fileSize(storedFile.size())
+                .mimeType(mimeType)
+                .contentHash(storedFile.contentHash())
                 .uploadedBy(uploadedBy)
                 .build();
 
         DocumentVersion savedVersion = versionRepository.save(version);
-        log.info("Version {} uploaded for document {}", nextVersionNumber, documentId);
+        log.info("Version {} uploaded for document {}", versionNumber, documentId);
 
         return documentMapper.toVersionResponse(savedVersion);
     }
@@ -181,13 +330,48 @@ public class DocumentService {
                 .collect(Collectors.toList());
     }
 
-    private PageResponse<DocumentResponse> buildPageResponse(Page<Document> documentPage) {
-        List<DocumentResponse> content = documentPage.getContent().stream()
-                .map(documentMapper::toResponse)
+    /**
+     * Two-phase ID-first pagination.
+     * The database sorts and pages document IDs only, then tags and owners are
+     * batch-loaded for that page and the entities are put back in ID page order.
+     */
+    private Page<DocumentResponse> findPage(Specification<Document> specification, Pageable pageable) {
+        Page<Long> idPage = documentRepository.findIdPage(specification, pageable);
+        return new PageImpl<>(loadInIdOrder(idPage.getContent()), pageable, idPage.getTotalElements());
+    }
+
+    /**
+     * Returns documents in the order of the given IDs, from the cache where
+     * possible; the others are batch-loaded with tags and owner and cached.
+     * IDs deleted between the two phases are skipped.
+     */
+    private List<DocumentResponse> loadInIdOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, DocumentResponse> documentsById = documentCache.getAll(ids);
+        List<Long> missingIds = ids.stream()
+                .filter(id -> !documentsById.containsKey(id))
                 .collect(Collectors.toList());
+        if (!missingIds.isEmpty()) {
+            long stamp = documentCache.stamp();
+            List<DocumentResponse> loaded = documentRepository.findAllWithTagsAndOwnerByIdIn(missingIds).stream()
+                    .map(documentMapper::toResponse)
+                    .collect(Collectors.toList());
+            documentCache.put(loaded, stamp);
+            loaded.forEach(document -> documentsById.put(document.getId(), document));
+        }
+
+        return ids.stream()
+                .map(documentsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
 
+    private PageResponse<DocumentResponse> buildPageResponse(Page<DocumentResponse> documentPage) {
         return PageResponse.<DocumentResponse>builder()
-                .content(content)
+                .content(documentPage.getContent())
                 .pageNumber(documentPage.getNumber())
                 .pageSize(documentPage.getSize())
                 .totalElements(documentPage.getTotalElements())
@@ -0,0 +1,160 @@
+package com.uds.ged.application.service;
+
+import com.uds.ged.domain.model.FileDeletion;
+import com.uds.ged.domain.repository.FileDeletionRepository;
+import com.uds.ged.infrastructure.exception.FileStorageException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Transactional outbox for removing stored files.
+ * <p>
+ * Deleting code releases files and enqueues their keys in its own transaction, so
+ * it never waits for filesystem I/O and a rollback leaves every file in place. A
+ * scheduled worker drains the outbox after commit in batches, each locked with
+ * SKIP LOCKED so several instances can share the work. A run handles at most
+ * {@code max-batches} batches, which bounds the disk I/O it causes; failed
+ * deletions are retried with exponential backoff.
+ */
+@Service
+@Slf4j
+public class FileDeletionService {
+
+    private static final Duration MAX_RETRY_BACKOFF = Duration.ofHours(1);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final FileDeletionRepository deletionRepository;
+    private final FileStorageService fileStorageService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Duration retryBackoff;
+    private final Counter deletedCounter;
+    private final Counter keptCounter;
+    private final Counter failedCounter;
+
+    public FileDeletionService(FileDeletionRepository deletionRepository,
+                               FileStorageService fileStorageService,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.storage.deletion.batch-size:100}") int batchSize,
+                               @Value("${app.storage.deletion.max-batches:10}") int maxBatches,
+                               @Value("${app.storage.deletion.retry-backoff:PT30S}") Duration retryBackoff) {
+        this.deletionRepository = deletionRepository;
+        this.fileStorageService = fileStorageService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.retryBackoff = retryBackoff;
+        this.deletedCounter = deletionCounter(meterRegistry, "deleted");
+        this.keptCounter = deletionCounter(meterRegistry, "kept");
+        this.failedCounter = deletionCounter(meterRegistry, "failed");
+        Gauge.builder("ged.storage.deletion.pending", deletionRepository, FileDeletionRepository::count)
+                .description("File deletions waiting in the outbox")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Releases the given files and enqueues them for deletion after commit.
+     * Must join the transaction that removes their last database references.
+     *
+     * @param fileKeys keys of the released files
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void scheduleDeletion(Collection<String> fileKeys) {
+        if (fileKeys.isEmpty()) {
+            return;
+        }
+
+        fileStorageService.releaseFiles(fileKeys);
+
+        LocalDateTime now = LocalDateTime.now();
+        deletionRepository.saveAll(fileKeys.stream()
+                .distinct()
+                .map(fileKey -> FileDeletion.builder()
+                        .fileKey(fileKey)
+                        .nextAttemptAt(now)
+                        .build())
+                .toList());
+        log.debug("Scheduled deletion of {} files", fileKeys.size());
+    }
+
+    /**
+     * Drains due outbox entries, one transaction per batch.
+     */
+    @Scheduled(fixedDelayString = "${app.storage.deletion.interval:PT5S}")
+    public void processPendingDeletions() {
+        int processed = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Integer batchCount = transactionTemplate.execute(status -> processBatch());
+            processed += batchCount;
+            if (batchCount < batchSize) {
+                break;
+            }
+        }
+        if (processed > 0) {
+            log.info("Processed {} pending file deletions", processed);
+        }
+    }
+
+    private int processBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<FileDeletion> due = deletionRepository.findDueForUpdate(now, PageRequest.of(0, batchSize));
+
+        List<FileDeletion> done = new ArrayList<>(due.size());
+        for (FileDeletion deletion : due) {
+            try {
+                if (fileStorageService.deleteReleasedFile(deletion.getFileKey())) {
+                    deletedCounter.increment();
+                } else {
+                    keptCounter.increment();
+                }
+                done.add(deletion);
+            } catch (FileStorageException ex) {
+                scheduleRetry(deletion, ex, now);
+            }
+        }
+
+        deletionRepository.deleteAllInBatch(done);
+        return due.size();
+    }
+
+    private void scheduleRetry(FileDeletion deletion, FileStorageException ex, LocalDateTime now) {
+        int attempts = deletion.getAttempts() + 1;
+        Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        if (backoff.compareTo(MAX_RETRY_BACKOFF) > 0) {
+            backoff = MAX_RETRY_BACKOFF;
+        }
+
+        String error = String.valueOf(ex.getCause() != null ? ex.getCause() : ex);
+        deletion.setAttempts(attempts);
+        deletion.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        deletion.setNextAttemptAt(now.plus(backoff));
+        failedCounter.increment();
+        log.warn("Could not delete file {} (attempt {}), retrying in {}: {}",
+                deletion.getFileKey(), attempts, backoff, error);
+    }
+
+    private static Counter deletionCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("ged.storage.deletions")
+                .description("Outbox file deletions by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -1,74 +1,352 @@
 package com.uds.ged.application.service;
 
+import com.uds.ged.domain.model.FileBlob;
+import com.uds.ged.domain.repository.FileBlobRepository;
 import com.uds.ged.infrastructure.exception.FileStorageException;
+import com.uds.ged.infrastructure.exception.InvalidUploadException;
+import com.uds.ged.infrastructure.codec.StorageCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.MalformedURLException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
+/**
+ * Stores document version files on the local filesystem.
+ * <p>
+ * Uploads are streamed into a staging directory while their SHA-256 is computed,
+ * then moved into place. In content-addressed mode the file key is derived from
+ * the hash ({@code ab/cd/abcdef...}), identical uploads share one blob and
+ * {@code file_blobs.ref_count} tracks how many versions reference it.
+ * Keys identify their own layout, so both modes can read and delete each other's files.
+ * <p>
+ * Resumable uploads are assembled in a part file under {@code .uploads}: chunks are
+ * written at their offsets, in any order. The completed file is prepared (hashed,
+ * possibly compressed) outside any transaction and then committed like a staged
+ * upload. The part file itself is never moved: it stays until the version has been
+ * committed, so a completion that rolls back can be retried.
+ */
 @Service
 @Slf4j
 public class FileStorageService {
 
+    private static final String STAGING_DIRECTORY = ".staging";
+    private static final String UPLOADS_DIRECTORY = ".uploads";
+    private static final String PART_SUFFIX = ".part";
+    private static final String LEGACY_PREFIX = "doc_";
+    private static final Pattern CONTENT_ADDRESSED_KEY = Pattern.compile("^[0-9a-f]{2}/[0-9a-f]{2}/([0-9a-f]{64})(\\.gz)?$");
+    private static final int MAX_REFERENCE_ATTEMPTS = 3;
+    private static final String SOURCE_MULTIPART = "multipart";
+    private static final String SOURCE_UPLOAD = "upload";
+
     private final Path fileStorageLocation;
+    private final Path stagingLocation;
+    private final Path uploadsLocation;
+    private final boolean contentAddressed;
+    private final FileBlobRepository blobRepository;
+    private final StorageCodec storageCodec;
+    private final MeterRegistry meterRegistry;
+    private final Timer loadTimer;
+    private final Counter compressionSavedCounter;
 
-    public FileStorageService(@Value("${app.storage.location}") String storageLocation) {
+    public FileStorageService(@Value("${app.storage.location}") String storageLocation,
+                              @Value("${app.storage.content-addressed:false}") boolean contentAddressed,
+                              FileBlobRepository blobRepository,
+                              StorageCodec storageCodec,
+                              MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.loadTimer = Timer.builder("ged.storage.load")
+                .description("Time to resolve a stored file for download")
+                .register(meterRegistry);
+        this.compressionSavedCounter = Counter.builder("ged.storage.compression.saved")
+                .description("Disk bytes saved by compressing stored files")
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
         this.fileStorageLocation = Paths.get(storageLocation).toAbsolutePath().normalize();
+        this.stagingLocation = this.fileStorageLocation.resolve(STAGING_DIRECTORY);
+        this.uploadsLocation = this.fileStorageLocation.resolve(UPLOADS_DIRECTORY);
+        this.contentAddressed = contentAddressed;
+        this.blobRepository = blobRepository;
+        this.storageCodec = storageCodec;
         try {
-            Files.createDirectories(this.fileStorageLocation);
-            log.info("File storage location initialized: {}", this.fileStorageLocation);
+            Files.createDirectories(this.stagingLocation);
+            Files.createDirectories(this.uploadsLocation);
+            log.info("File storage location initialized: {} (content-addressed: {})",
+                    this.fileStorageLocation, contentAddressed);
         } catch (IOException ex) {
             throw new FileStorageException("Could not create storage directory", ex);
         }
     }
 
-    public String storeFile(MultipartFile file, Long documentId, Integer versionNumber) {
+    /**
+     * Stores an uploaded file for a new document version, compressed if its
+     * declared MIME type is compressible.
+     * Runs before the version number is allocated, so slow writes never hold
+     * the document's version counter.
+     *
+     * @param file the uploaded file
+     * @param documentId the document ID, used in legacy file names
+     * @return the stored file key, content hash and size
+     * @throws FileStorageException if the name is invalid or the file cannot be written
+     */
+    @Transactional
+    public StoredFile storeFile(MultipartFile file, Long documentId) {
+        long startNanos = System.nanoTime();
         String originalFilename = StringUtils.cleanPath(file.getOriginalFilename());
-        
+
         try {
             if (originalFilename.contains("..")) {
                 throw new FileStorageException("Invalid file path: " + originalFilename);
             }
 
-            String fileExtension = "";
-            int dotIndex = originalFilename.lastIndexOf('.');
-            if (dotIndex > 0) {
-                fileExtension = originalFilename.substring(dotIndex);
+            StagedFile staged;
+            try (InputStream inputStream = file.getInputStream()) {
+                staged = stage(inputStream, storageCodec.isCompressible(file.getContentType()));
             }
 
-            String fileName = String.format("doc_%d_v%d_%s%s",
-                    documentId,
-                    versionNumber,
-                    UUID.randomUUID().toString(),
-                    fileExtension);
+            StoredFile storedFile = commit(staged, originalFilename, documentId);
+            recordStore(SOURCE_MULTIPART, startNanos, storedFile.size());
+            return storedFile;
 
-            Path targetLocation = this.fileStorageLocation.resolve(fileName);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            throw new FileStorageException("Could not store file " + originalFilename, ex);
+        }
+    }
 
-            log.info("File stored successfully: {}", fileName);
-            return fileName;
+    /**
+     * Creates the part file of a resumable upload, sized to the whole file.
+     * On common filesystems it stays sparse until chunks are written; the full
+     * size is needed because a channel cannot transfer past its end of file.
+     *
+     * @param uploadId the upload session ID
+     * @param totalSize the size of the complete file
+     * @throws FileStorageException if the file cannot be created
+     */
+    public void createUpload(String uploadId, long totalSize) {
+        try (FileChannel channel = FileChannel.open(uploadPath(uploadId),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            if (totalSize > 0) {
+                channel.write(ByteBuffer.allocate(1), totalSize - 1);
+            }
+        } catch (IOException ex) {
+            throw new FileStorageException("Could not create upload " + uploadId, ex);
+        }
+    }
 
+    /**
+     * Writes one chunk of a resumable upload at its offset in the part file.
+     * Chunks may be written concurrently, they never overlap.
+     *
+     * @param uploadId the upload session ID
+     * @param offset the chunk offset
+     * @param inputStream the chunk content
+     * @param length the expected chunk length
+     * @return the number of bytes written, less than {@code length} if the stream ended early
+     * @throws FileStorageException if the part file cannot be written
+     */
+    public long writeUploadChunk(String uploadId, long offset, InputStream inputStream, long length) {
+        try (ReadableByteChannel source = Channels.newChannel(inputStream);
+             FileChannel channel = FileChannel.open(uploadPath(uploadId), StandardOpenOption.WRITE)) {
+            long written = 0;
+            while (written < length) {
+                long transferred = channel.transferFrom(source, offset + written, length - written);
+                if (transferred <= 0) {
+                    break;
+                }
+                written += transferred;
+            }
+            return written;
+        } catch (NoSuchFileException ex) {
+            throw new FileStorageException("Upload not found: " + uploadId, ex);
         } catch (IOException ex) {
-            throw new FileStorageException("Could not store file " + originalFilename, ex);
+            throw new FileStorageException("Could not write chunk at offset " + offset + " of upload " + uploadId, ex);
         }
     }
 
+    /**
+     * Reads a completed resumable upload and computes its SHA-256. Files of a
+     * compressible type are compressed into staging in the same pass, and so are
+     * copied in content-addressed mode, where a blob must not share its inode with
+     * a part file that could still be written to. Other uploads are left in their
+     * part file, which the commit hard-links into place.
+     * Touches no database, so hashing a large file holds no connection.
+     *
+     * @param uploadId the upload session ID
+     * @param expectedHash hex SHA-256 announced by the client, or {@code null}
+     * @param mimeType the declared MIME type, decides whether the file is compressed
+     * @return the file to pass to {@link #commitUpload} or {@link #discardUpload}
+     * @throws InvalidUploadException if the content does not match {@code expectedHash}
+     * @throws FileStorageException if the part file cannot be read
+     */
+    public StagedFile prepareUpload(String uploadId, String expectedHash, String mimeType) {
+        long startNanos = System.nanoTime();
+        Path partPath = uploadPath(uploadId);
+        try {
+            boolean compress = storageCodec.isCompressible(mimeType);
+            StagedFile staged;
+            if (compress || contentAddressed) {
+                try (InputStream inputStream = Files.newInputStream(partPath)) {
+                    staged = stage(inputStream, compress);
+                }
+            } else {
+                MessageDigest digest = newSha256();
+                long size;
+                try (InputStream inputStream = new DigestInputStream(Files.newInputStream(partPath), digest)) {
+                    size = inputStream.transferTo(OutputStream.nullOutputStream());
+                }
+                staged = new StagedFile(partPath, HexFormat.of().formatHex(digest.digest()), size, false, true);
+            }
+
+            if (expectedHash != null && !expectedHash.equalsIgnoreCase(staged.contentHash())) {
+                discardUpload(staged);
+                throw new InvalidUploadException("Uploaded content does not match hash " + expectedHash);
+            }
+
+            recordStore(SOURCE_UPLOAD, startNanos, staged.size());
+            return staged;
+
+        } catch (IOException ex) {
+            throw new FileStorageException("Could not read upload " + uploadId, ex);
+        }
+    }
+
+    /**
+     * Puts a prepared upload into storage for a document version. Only a rename or
+     * a hard link and, in content-addressed mode, the blob reference, so it fits in
+     * the short transaction that creates the version. If that transaction rolls back,
+     * a legacy file is removed again; the part file is left for a retry either way.
+     *
+     * @param staged the file returned by {@link #prepareUpload}
+     * @param originalFilename the original file name, used in legacy file names
+     * @param documentId the document ID, used in legacy file names
+     * @return the stored file key, content hash and size
+     * @throws FileStorageException if the name is invalid or the file cannot be moved
+     */
+    @Transactional
+    public StoredFile commitUpload(StagedFile staged, String originalFilename, Long documentId) {
+        String cleanFilename = StringUtils.cleanPath(originalFilename);
+        try {
+            if (cleanFilename.contains("..")) {
+                throw new FileStorageException("Invalid file path: " + cleanFilename);
+            }
+            return commit(staged, cleanFilename, documentId);
+        } catch (IOException ex) {
+            throw new FileStorageException("Could not store upload " + originalFilename, ex);
+        }
+    }
+
+    /**
+     * Drops the staged copy of a prepared upload that was not committed.
+     * An upload prepared in its part file keeps it, for a retry.
+     *
+     * @param staged the file returned by {@link #prepareUpload}
+     */
+    public void discardUpload(StagedFile staged) {
+        if (staged.partFile()) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(staged.path());
+        } catch (IOException ex) {
+            log.error("Could not delete staged upload: {}", staged.path(), ex);
+        }
+    }
+
+    /**
+     * Deletes the part file of an aborted or expired upload.
+     *
+     * @param uploadId the upload session ID
+     */
+    public void deleteUpload(String uploadId) {
+        try {
+            Files.deleteIfExists(uploadPath(uploadId));
+        } catch (IOException ex) {
+            log.error("Could not delete upload: {}", uploadId, ex);
+        }
+    }
+
+    /**
+     * Deletes part files not written to since {@code cutoff}, left behind by
+     * sessions removed without completing (e.g. together with their document).
+     *
+     * @param cutoff last modification time before which part files are deleted
+     * @return the number of deleted part files
+     */
+    public int deleteUploadsNotModifiedSince(Instant cutoff) {
+        int deleted = 0;
+        try (DirectoryStream<Path> parts = Files.newDirectoryStream(uploadsLocation, "*" + PART_SUFFIX)) {
+            for (Path part : parts) {
+                if (Files.getLastModifiedTime(part).toInstant().isBefore(cutoff) && Files.deleteIfExists(part)) {
+                    deleted++;
+                }
+            }
+        } catch (IOException ex) {
+            log.error("Could not clean up uploads directory", ex);
+        }
+        return deleted;
+    }
+
+    /**
+     * Resolves a stored file for download. Compressed files are returned as a
+     * resource that decompresses on read and exposes the stored bytes for
+     * pass-through to clients accepting gzip.
+     *
+     * @param fileName the file key
+     * @return the file resource
+     * @throws FileStorageException if the file does not exist or is not readable
+     */
     public Resource loadFileAsResource(String fileName) {
+        return loadTimer.record(() -> resolveResource(fileName));
+    }
+
+    private Resource resolveResource(String fileName) {
         try {
             Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
-            
+            Resource resource = StorageCodec.isCompressed(fileName)
+                    ? storageCodec.decode(filePath)
+                    : new UrlResource(filePath.toUri());
+
             if (resource.exists() && resource.isReadable()) {
                 return resource;
             } else {
@@ -79,13 +357,269 @@ public class FileStorageService {
         }
     }
 
-    public void deleteFile(String fileName) {
+    /**
+     * Drops the references the given files had from document versions.
+     * Only touches the database; the files stay on disk until
+     * {@link #deleteReleasedFile} runs after the releasing transaction committed.
+     *
+     * @param fileKeys keys of the released files, repeated once per released reference
+     */
+    @Transactional
+    public void releaseFiles(Collection<String> fileKeys) {
+        Map<String, Long> releasesByHash = fileKeys.stream()
+                .map(CONTENT_ADDRESSED_KEY::matcher)
+                .filter(Matcher::matches)
+                .collect(Collectors.groupingBy(matcher -> matcher.group(1), Collectors.counting()));
+
+        releasesByHash.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())))
+                .forEach((count, hashes) -> blobRepository.decrementRefCounts(hashes, count.intValue()));
+    }
+
+    /**
+     * Removes a released file from disk.
+     * A content-addressed blob is removed only while nothing references it: its row
+     * is locked first and deleted after the file, so a concurrent upload of the same
+     * content either re-referenced it in time or waits and then recreates it.
+     *
+     * @param fileKey the file key
+     * @return {@code true} if the file was deleted, {@code false} if it is referenced again
+     * @throws FileStorageException if the file cannot be deleted; the blob is kept for a retry
+     */
+    @Transactional(noRollbackFor = FileStorageException.class)
+    public boolean deleteReleasedFile(String fileKey) {
+        var matcher = CONTENT_ADDRESSED_KEY.matcher(fileKey);
+        if (matcher.matches()) {
+            Optional<FileBlob> blob = blobRepository.findUnreferencedForUpdate(matcher.group(1));
+            if (blob.isEmpty()) {
+                log.debug("Blob referenced again or already removed, keeping file: {}", fileKey);
+                return false;
+            }
+            deleteFromDisk(fileKey);
+            blobRepository.delete(blob.get());
+            return true;
+        }
+
+        deleteFromDisk(fileKey);
+        return true;
+    }
+
+    private void deleteFromDisk(String fileKey) {
         try {
-            Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
+            Path filePath = this.fileStorageLocation.resolve(fileKey).normalize();
             Files.deleteIfExists(filePath);
-            log.info("File deleted: {}", fileName);
+            log.info("File deleted: {}", fileKey);
+        } catch (IOException ex) {
+            throw new FileStorageException("Could not delete file " + fileKey, ex);
+        }
+    }
+
+    /**
+     * Streams content into the staging directory, computing its SHA-256 on the way.
+     * Staging lives under the storage root so the final move is a rename. Hash and
+     * size are those of the original content, even when it is stored compressed.
+     */
+    private StagedFile stage(InputStream inputStream, boolean compress) throws IOException {
+        MessageDigest digest = newSha256();
+        Path stagedPath = Files.createTempFile(stagingLocation, "upload-", ".tmp");
+        try (DigestInputStream digestStream = new DigestInputStream(inputStream, digest);
+             OutputStream outputStream = compress
+                     ? storageCodec.compress(Files.newOutputStream(stagedPath))
+                     : Files.newOutputStream(stagedPath)) {
+            long size = digestStream.transferTo(outputStream);
+            return new StagedFile(stagedPath, HexFormat.of().formatHex(digest.digest()), size, compress, false);
         } catch (IOException ex) {
-            log.error("Could not delete file: {}", fileName, ex);
+            Files.deleteIfExists(stagedPath);
+            throw ex;
+        }
+    }
+
+    private StoredFile commit(StagedFile staged, String originalFilename, Long documentId) throws IOException {
+        if (staged.compressed()) {
+            compressionSavedCounter.increment(Math.max(0, staged.size() - Files.size(staged.path())));
         }
+        StoredFile storedFile = contentAddressed
+                ? commitContentAddressed(staged)
+                : commitLegacy(staged, originalFilename, documentId);
+
+        log.info("File stored successfully: {}", storedFile.fileKey());
+        return storedFile;
+    }
+
+    /**
+     * Resolves the part file of an upload. IDs are UUIDs, which also keeps
+     * them from escaping the uploads directory.
+     */
+    private Path uploadPath(String uploadId) {
+        try {
+            return uploadsLocation.resolve(UUID.fromString(uploadId) + PART_SUFFIX);
+        } catch (IllegalArgumentException ex) {
+            throw new FileStorageException("Invalid upload ID: " + uploadId);
+        }
+    }
+
+    private StoredFile commitLegacy(StagedFile staged, String originalFilename, Long documentId) throws IOException {
+        String fileExtension = "";
+        int dotIndex = originalFilename.lastIndexOf('.');
+        if (dotIndex > 0) {
+            fileExtension = originalFilename.substring(dotIndex);
+        }
+
+        String fileName = String.format("%s%d_%s%s",
+                staged.compressed() ? StorageCodec.LEGACY_GZIP_PREFIX : LEGACY_PREFIX,
+                documentId,
+                UUID.randomUUID().toString(),
+                fileExtension);
+
+        Path targetLocation = this.fileStorageLocation.resolve(fileName);
+        if (staged.partFile()) {
+            linkOrCopy(staged.path(), targetLocation);
+        } else {
+            Files.move(staged.path(), targetLocation, StandardCopyOption.ATOMIC_MOVE);
+        }
+        deleteOnRollback(targetLocation);
+        return new StoredFile(fileName, staged.contentHash(), staged.size());
+    }
+
+    /**
+     * Hard-links a part file into storage, so it stays in place until the upload is
+     * deleted; copies it where the filesystem does not support links.
+     */
+    private static void linkOrCopy(Path source, Path target) throws IOException {
+        try {
+            Files.createLink(target, source);
+        } catch (FileAlreadyExistsException ex) {
+            throw ex;
+        } catch (UnsupportedOperationException | FileSystemException ex) {
+            log.debug("Could not link {}, copying it: {}", source, ex.getMessage());
+            Files.copy(source, target);
+        }
+    }
+
+    /**
+     * Removes a legacy file again if the transaction storing its version rolls back.
+     * Legacy names are unique, so nothing else can have referenced the file.
+     */
+    private static void deleteOnRollback(Path target) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                // Not on STATUS_UNKNOWN: the version may have been committed
+                if (status != STATUS_ROLLED_BACK) {
+                    return;
+                }
+                try {
+                    Files.deleteIfExists(target);
+                } catch (IOException ex) {
+                    log.error("Could not delete file of rolled back version: {}", target, ex);
+                }
+            }
+        });
+    }
+
+    /**
+     * Adds a reference to the blob for the staged content, creating it if needed.
+     * The staged file is discarded when the blob bytes are already on disk.
+     */
+    private StoredFile commitContentAddressed(StagedFile staged) throws IOException {
+        String contentHash = staged.contentHash();
+        String candidateKey = contentAddressedKey(contentHash, staged.compressed());
+
+        int attempts = 0;
+        while (blobRepository.incrementRefCount(contentHash) == 0) {
+            if (++attempts > MAX_REFERENCE_ATTEMPTS) {
+                Files.deleteIfExists(staged.path());
+                throw new FileStorageException("Could not reference blob " + contentHash);
+            }
+            blobRepository.insertIfAbsent(contentHash, candidateKey, staged.size());
+        }
+
+        String fileKey = blobRepository.findStorageKeyByContentHash(contentHash).orElse(candidateKey);
+        Path targetLocation = this.fileStorageLocation.resolve(fileKey);
+        if (Files.exists(targetLocation)) {
+            Files.delete(staged.path());
+            log.debug("Deduplicated upload against existing blob: {}", fileKey);
+        } else {
+            Files.createDirectories(targetLocation.getParent());
+            try {
+                Files.move(staged.path(), targetLocation, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException ex) {
+                Files.delete(staged.path());
+            }
+        }
+        return new StoredFile(fileKey, contentHash, staged.size());
+    }
+
+    /**
+     * Records store latency, size and throughput per upload source.
+     */
+    private void recordStore(String source, long startNanos, long bytes) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        Timer.builder("ged.storage.store")
+                .description("Time to hash and store an uploaded file")
+                .tag("source", source)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("ged.storage.store.size")
+                .baseUnit(BaseUnits.BYTES)
+                .tag("source", source)
+                .register(meterRegistry)
+                .record(bytes);
+        if (elapsedNanos > 0) {
+            DistributionSummary.builder("ged.storage.store.throughput")
+                    .description("Bytes stored per second of store time")
+                    .baseUnit("bytes.per.second")
+                    .tag("source", source)
+                    .register(meterRegistry)
+                    .record(bytes * 1_000_000_000d / elapsedNanos);
+        }
+    }
+
+    /**
+     * Returns the content hash a content-addressed file key is derived from.
+     */
+    static Optional<String> contentHashOf(String fileKey) {
+        Matcher matcher = CONTENT_ADDRESSED_KEY.matcher(fileKey);
+        return matcher.matches() ? Optional.of(matcher.group(1)) : Optional.empty();
+    }
+
+    private static String contentAddressedKey(String contentHash, boolean compressed) {
+        return contentHash.substring(0, 2) + "/" + contentHash.substring(2, 4) + "/" + contentHash
+                + (compressed ? StorageCodec.GZIP_SUFFIX : "");
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    /**
+     * Content waiting to be moved into storage.
+     *
+     * @param path the staged file, or the part file of an uncompressed upload
+     * @param contentHash hex SHA-256 of the original content
+     * @param size size of the original content in bytes
+     * @param compressed whether {@code path} holds the content gzip-compressed
+     * @param partFile whether {@code path} is the part file of a resumable upload, which is
+     *        linked rather than moved and only deleted along with the upload
+     */
+    public record StagedFile(Path path, String contentHash, long size, boolean compressed, boolean partFile) {
+    }
+
+    /**
+     * Result of storing a file.
+     *
+     * @param fileKey key to persist in {@code document_versions.file_key}
+     * @param contentHash hex SHA-256 of the file content
+     * @param size content size in bytes
+     */
+    public record StoredFile(String fileKey, String contentHash, long size) {
     }
 }
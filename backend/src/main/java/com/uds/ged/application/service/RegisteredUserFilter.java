@@ -0,0 +1,221 @@
+package com.uds.ged.application.service;
+
+import com.uds.ged.domain.repository.UserIdentity;
+import com.uds.ged.domain.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * In-memory Bloom filters over the registered usernames and emails, so that
+ * availability checks for unused values are answered without a query.
+ * <p>
+ * The filters are built once the application is ready, updated by
+ * {@link #add(String, String)} on registration and rebuilt every
+ * {@code rebuild-interval}, which resizes them and picks up users registered on
+ * other nodes. Until then another node's new user may be reported available;
+ * registration itself always checks the database. Values are normalized (trimmed,
+ * lower case), which can only add possible hits, never hide an existing value.
+ */
+@Component
+@Slf4j
+public class RegisteredUserFilter {
+
+    /**
+     * Filters are sized for twice the current number of users, so the false positive
+     * rate stays close to the target as users register between rebuilds.
+     */
+    private static final int CAPACITY_HEADROOM = 2;
+    private static final long MINIMUM_CAPACITY = 1024;
+
+    public enum Field { USERNAME, EMAIL }
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final double falsePositiveProbability;
+    private final int batchSize;
+    private final Timer rebuildTimer;
+    private final Map<Field, Map<String, Counter>> checkCounters = new EnumMap<>(Field.class);
+
+    /** Null until the first build completes: checks then go to the database. */
+    private volatile Filters current;
+    /** Set while a rebuild scans the users, so that concurrent registrations reach the new filters. */
+    private volatile Filters building;
+    /** Set while a rebuild runs; not a lock, so no thread waits for a rebuild to finish. */
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public RegisteredUserFilter(UserRepository userRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.user-availability.enabled:true}") boolean enabled,
+                                @Value("${app.user-availability.false-positive-probability:0.01}") double falsePositiveProbability,
+                                @Value("${app.user-availability.batch-size:10000}") int batchSize) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.batchSize = batchSize;
+        this.rebuildTimer = Timer.builder("ged.user.availability.rebuild")
+                .description("Time to rebuild the registered username and email filters")
+                .register(meterRegistry);
+        for (Field field : Field.values()) {
+            String tag = field.name().toLowerCase(Locale.ROOT);
+            Map<String, Counter> counters = new HashMap<>();
+            for (String result : List.of("negative", "present", "false_positive")) {
+                counters.put(result, Counter.builder("ged.user.availability.checks")
+                        .description("Availability checks by outcome: answered from the filter, or queried")
+                        .tag("field", tag)
+                        .tag("result", result)
+                        .register(meterRegistry));
+            }
+            checkCounters.put(field, counters);
+            Gauge.builder("ged.user.availability.filter.fpp", this,
+                            filter -> filter.expectedFalsePositiveProbability(field))
+                    .description("Expected false positive probability of the filter for its current entries")
+                    .tag("field", tag)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Tells whether a value is unused, querying the database only when the filter
+     * reports a possible hit.
+     *
+     * @param field which filter to check
+     * @param value the username or email
+     * @param exists the authoritative database check
+     * @return true if no user has the value
+     */
+    public boolean isAvailable(Field field, String value, Predicate<String> exists) {
+        Filters filters = current;
+        if (filters != null && !filters.get(field).mightContain(normalize(value))) {
+            checkCounters.get(field).get("negative").increment();
+            return true;
+        }
+        boolean found = exists.test(value);
+        if (filters != null) {
+            checkCounters.get(field).get(found ? "present" : "false_positive").increment();
+        }
+        return !found;
+    }
+
+    /**
+     * Records a newly registered user; call after the user has been saved.
+     */
+    public void add(String username, String email) {
+        // Read building first: once it is cleared, current already holds the new filters
+        Filters next = building;
+        Filters filters = current;
+        if (filters != null) {
+            filters.add(username, email);
+        }
+        if (next != null && next != filters) {
+            next.add(username, email);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException ex) {
+            log.warn("Could not build registered user filter, availability checks will query the database: {}",
+                    ex.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.user-availability.rebuild-interval:PT15M}",
+               initialDelayString = "${app.user-availability.rebuild-interval:PT15M}")
+    public void scheduledRebuild() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Builds new filters from all users, in keyset batches, and swaps them in.
+     * Skipped if another rebuild is already running, since both would scan the same users.
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.debug("Registered user filter rebuild already running, skipped");
+            return;
+        }
+        try {
+            doRebuild();
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private void doRebuild() {
+        long startNanos = System.nanoTime();
+        long capacity = Math.max(MINIMUM_CAPACITY, userRepository.count() * CAPACITY_HEADROOM);
+        Filters next = new Filters(
+                BloomFilter.create(capacity, falsePositiveProbability),
+                BloomFilter.create(capacity, falsePositiveProbability));
+        building = next;
+        try {
+            long afterId = 0;
+            List<UserIdentity> batch;
+            do {
+                batch = userRepository.findIdentitiesAfter(afterId, PageRequest.of(0, batchSize));
+                for (UserIdentity user : batch) {
+                    next.add(user.username(), user.email());
+                }
+                if (!batch.isEmpty()) {
+                    afterId = batch.get(batch.size() - 1).id();
+                }
+            } while (batch.size() == batchSize);
+            current = next;
+        } finally {
+            building = null;
+        }
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        rebuildTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        log.info("Registered user filter rebuilt in {} ms: {} users, {} KiB per field, expected false positive rate {}",
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), next.usernames().insertions(),
+                next.usernames().bitCount() / 8 / 1024,
+                String.format(Locale.ROOT, "%.4f", next.usernames().expectedFalsePositiveProbability()));
+    }
+
+    private double expectedFalsePositiveProbability(Field field) {
+        Filters filters = current;
+        return filters != null ? filters.get(field).expectedFalsePositiveProbability() : Double.NaN;
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Filters(BloomFilter usernames, BloomFilter emails) {
+
+        BloomFilter get(Field field) {
+            return field == Field.USERNAME ? usernames : emails;
+        }
+
+        void add(String username, String email) {
+            usernames.put(normalize(username));
+            emails.put(normalize(email));
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package com.uds.ged.application.service;
+
+import com.uds.ged.domain.repository.DocumentVersionRepository;
+import com.uds.ged.domain.repository.FileBlobRepository;
+import com.uds.ged.domain.repository.VersionFileKey;
+import com.uds.ged.infrastructure.exception.FileStorageException;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Reconciles the storage directory with the database.
+ * <p>
+ * Files that no document version or blob references are moved to a quarantine
+ * directory once they are older than the grace period, which covers files stored
+ * by uploads whose version has not committed yet. Quarantined files are deleted
+ * after the quarantine period, or restored if they became referenced again.
+ * Referenced keys without a file are reported as missing.
+ * <p>
+ * The storage tree is walked lazily and checked against the database in batches,
+ * so memory use does not grow with the number of files; a token bucket caps the
+ * files checked per second to keep the job from competing with user traffic.
+ */
+@Service
+@Slf4j
+public class StorageReconciliationService {
+
+    private static final String QUARANTINE_DIRECTORY = ".quarantine";
+    private static final int MAX_REPORTED_MISSING = 100;
+
+    private final Path storageLocation;
+    private final Path quarantineLocation;
+    private final DocumentVersionRepository versionRepository;
+    private final FileBlobRepository blobRepository;
+    private final boolean enabled;
+    private final Duration gracePeriod;
+    private final Duration quarantinePeriod;
+    private final int batchSize;
+    private final long filesPerSecond;
+    private final Counter quarantinedCounter;
+    private final Counter purgedCounter;
+    private final Counter restoredCounter;
+    private final AtomicLong missingFiles = new AtomicLong();
+
+    public StorageReconciliationService(@Value("${app.storage.location}") String storageLocation,
+                                        DocumentVersionRepository versionRepository,
+                                        FileBlobRepository blobRepository,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${app.storage.gc.enabled:true}") boolean enabled,
+                                        @Value("${app.storage.gc.grace-period:PT24H}") Duration gracePeriod,
+                                        @Value("${app.storage.gc.quarantine-period:P7D}") Duration quarantinePeriod,
+                                        @Value("${app.storage.gc.batch-size:1000}") int batchSize,
+                                        @Value("${app.storage.gc.files-per-second:2000}") long filesPerSecond) {
+        this.storageLocation = Paths.get(storageLocation).toAbsolutePath().normalize();
+        this.quarantineLocation = this.storageLocation.resolve(QUARANTINE_DIRECTORY);
+        this.versionRepository = versionRepository;
+        this.blobRepository = blobRepository;
+        this.enabled = enabled;
+        this.gracePeriod = gracePeriod;
+        this.quarantinePeriod = quarantinePeriod;
+        this.batchSize = batchSize;
+        this.filesPerSecond = filesPerSecond;
+        this.quarantinedCounter = gcCounter(meterRegistry, "quarantined");
+        this.purgedCounter = gcCounter(meterRegistry, "purged");
+        this.restoredCounter = gcCounter(meterRegistry, "restored");
+        Gauge.builder("ged.storage.gc.missing", missingFiles, AtomicLong::get)
+                .description("Referenced files missing from storage at the last reconciliation")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.storage.gc.interval:PT24H}",
+               initialDelayString = "${app.storage.gc.initial-delay:PT10M}")
+    public void scheduledReconciliation() {
+        if (enabled) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Runs a full reconciliation: purges expired quarantine, quarantines new
+     * orphans and reports missing files.
+     *
+     * @return what the run found and did
+     * @throws FileStorageException if the storage directory cannot be walked
+     */
+    public ReconciliationReport reconcile() {
+        Instant start = Instant.now();
+        Bucket bucket = Bucket.builder()
+                .addLimit(Bandwidth.classic(filesPerSecond, Refill.greedy(filesPerSecond, Duration.ofSeconds(1))))
+                .build();
+        RunCounts counts = new RunCounts();
+
+        try {
+            if (Files.isDirectory(quarantineLocation)) {
+                walk(quarantineLocation, start.minus(quarantinePeriod), bucket, counts, true,
+                        batch -> purgeQuarantined(batch, counts));
+            }
+            walk(storageLocation, start.minus(gracePeriod), bucket, counts, false,
+                    batch -> quarantineOrphans(batch, counts, start));
+        } catch (IOException ex) {
+            throw new FileStorageException("Could not walk storage directory", ex);
+        }
+        checkReferencedFiles(bucket, counts);
+
+        ReconciliationReport report = new ReconciliationReport(counts.scanned, counts.quarantined,
+                counts.purged, counts.restored, counts.missing, Duration.between(start, Instant.now()));
+        missingFiles.set(report.missing());
+        log.info("Storage reconciliation finished: {}", report);
+        return report;
+    }
+
+    /**
+     * Walks a tree without descending into hidden directories (staging, uploads,
+     * quarantine) and hands over keys of files last modified before the cutoff in
+     * batches. Every file visited takes a token from the bucket.
+     */
+    private void walk(Path root, Instant cutoff, Bucket bucket, RunCounts counts, boolean pruneEmptyDirectories,
+                      Consumer<List<String>> batchHandler) throws IOException {
+        List<String> batch = new ArrayList<>(batchSize);
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                boolean hidden = !dir.equals(root) && dir.getFileName().toString().startsWith(".");
+                return hidden ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (!acquire(bucket)) {
+                    return FileVisitResult.TERMINATE;
+                }
+                counts.scanned++;
+                if (attrs.isRegularFile() && attrs.lastModifiedTime().toInstant().isBefore(cutoff)) {
+                    batch.add(toKey(root, file));
+                    if (batch.size() >= batchSize) {
+                        batchHandler.accept(batch);
+                        batch.clear();
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException ex) {
+                // Files removed by concurrent deletions are expected
+                if (!(ex instanceof NoSuchFileException)) {
+                    log.warn("Could not read {} during reconciliation: {}", file, ex.toString());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException ex) {
+                if (pruneEmptyDirectories && !dir.equals(root)) {
+                    try {
+                        Files.delete(dir);
+                    } catch (DirectoryNotEmptyException ignored) {
+                        // still holds quarantined files
+                    } catch (IOException deleteEx) {
+                        log.debug("Could not remove quarantine directory {}: {}", dir, deleteEx.toString());
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        if (!batch.isEmpty()) {
+            batchHandler.accept(batch);
+        }
+    }
+
+    private void quarantineOrphans(List<String> keys, RunCounts counts, Instant now) {
+        Set<String> referenced = findReferenced(keys);
+        for (String key : keys) {
+            if (referenced.contains(key)) {
+                continue;
+            }
+            if (move(storageLocation.resolve(key), quarantineLocation.resolve(key))) {
+                try {
+                    Files.setLastModifiedTime(quarantineLocation.resolve(key), FileTime.from(now));
+                } catch (IOException ex) {
+                    log.warn("Could not stamp quarantined file {}: {}", key, ex.toString());
+                }
+                counts.quarantined++;
+                quarantinedCounter.increment();
+                log.debug("Quarantined orphan file: {}", key);
+            }
+        }
+    }
+
+    private void purgeQuarantined(List<String> keys, RunCounts counts) {
+        Set<String> referenced = findReferenced(keys);
+        for (String key : keys) {
+            if (referenced.contains(key)) {
+                restore(key, counts);
+                continue;
+            }
+            try {
+                if (Files.deleteIfExists(quarantineLocation.resolve(key))) {
+                    counts.purged++;
+                    purgedCounter.increment();
+                    log.debug("Deleted quarantined file: {}", key);
+                }
+            } catch (IOException ex) {
+                log.warn("Could not delete quarantined file {}: {}", key, ex.toString());
+            }
+        }
+    }
+
+    /**
+     * Pages through every version's file key and checks the file exists. A file
+     * quarantined while its reference was being created is restored instead of
+     * being reported.
+     */
+    private void checkReferencedFiles(Bucket bucket, RunCounts counts) {
+        long afterId = 0;
+        List<VersionFileKey> page;
+        do {
+            page = versionRepository.findFileKeysAfter(afterId, PageRequest.of(0, batchSize));
+            Set<String> keys = new LinkedHashSet<>();
+            page.forEach(version -> keys.add(version.getFileKey()));
+            for (String key : keys) {
+                if (!acquire(bucket)) {
+                    return;
+                }
+                if (Files.exists(storageLocation.resolve(key))) {
+                    continue;
+                }
+                if (Files.exists(quarantineLocation.resolve(key))) {
+                    restore(key, counts);
+                    continue;
+                }
+                counts.missing++;
+                if (counts.missing <= MAX_REPORTED_MISSING) {
+                    log.warn("Referenced file missing from storage: {}", key);
+                }
+            }
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == batchSize);
+
+        if (counts.missing > MAX_REPORTED_MISSING) {
+            log.warn("{} more referenced files missing from storage", counts.missing - MAX_REPORTED_MISSING);
+        }
+    }
+
+    /**
+     * Returns the keys still referenced by a document version or, for
+     * content-addressed keys, by a blob row (which may be awaiting the deletion outbox).
+     */
+    private Set<String> findReferenced(Collection<String> keys) {
+        Set<String> referenced = new HashSet<>(versionRepository.findExistingFileKeys(keys));
+
+        Map<String, String> keysByHash = new HashMap<>();
+        for (String key : keys) {
+            if (!referenced.contains(key)) {
+                FileStorageService.contentHashOf(key).ifPresent(hash -> keysByHash.put(hash, key));
+            }
+        }
+        if (!keysByHash.isEmpty()) {
+            blobRepository.findExistingContentHashes(keysByHash.keySet())
+                    .forEach(hash -> referenced.add(keysByHash.get(hash)));
+        }
+        return referenced;
+    }
+
+    private void restore(String key, RunCounts counts) {
+        Path quarantined = quarantineLocation.resolve(key);
+        Path target = storageLocation.resolve(key);
+        try {
+            if (Files.exists(target)) {
+                // re-uploaded meanwhile; the quarantined copy is redundant
+                Files.deleteIfExists(quarantined);
+                return;
+            }
+        } catch (IOException ex) {
+            log.warn("Could not remove redundant quarantined file {}: {}", key, ex.toString());
+            return;
+        }
+        if (move(quarantined, target)) {
+            counts.restored++;
+            restoredCounter.increment();
+            log.warn("Restored referenced file from quarantine: {}", key);
+        }
+    }
+
+    private boolean move(Path source, Path target) {
+        try {
+            Files.createDirectories(target.getParent());
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (NoSuchFileException ex) {
+            log.debug("File disappeared before it could be moved: {}", source);
+            return false;
+        } catch (IOException ex) {
+            log.warn("Could not move {} to {}: {}", source, target, ex.toString());
+            return false;
+        }
+    }
+
+    private static boolean acquire(Bucket bucket) {
+        try {
+            bucket.asBlocking().consume(1);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.warn("Storage reconciliation interrupted");
+            return false;
+        }
+    }
+
+    private static String toKey(Path root, Path file) {
+        return root.relativize(file).toString().replace(File.separatorChar, '/');
+    }
+
+    private static Counter gcCounter(MeterRegistry meterRegistry, String action) {
+        return Counter.builder("ged.storage.gc.files")
+                .description("Files handled by storage reconciliation by action")
+                .tag("action", action)
+                .register(meterRegistry);
+    }
+
+    private static final class RunCounts {
+        long scanned;
+        long quarantined;
+        long purged;
+        long restored;
+        long missing;
+    }
+
+    /**
+     * Outcome of a reconciliation run.
+     *
+     * @param scanned files visited in storage and quarantine
+     * @param quarantined orphans moved to quarantine
+     * @param purged quarantined files deleted
+     * @param restored quarantined files moved back because they are referenced
+     * @param missing referenced files not found in storage
+     * @param duration how long the run took
+     */
+    public record ReconciliationReport(long scanned, long quarantined, long purged,
+                                       long restored, long missing, Duration duration) {
+    }
+}
@@ -0,0 +1,291 @@
+package com.uds.ged.application.service;
+
+import com.uds.ged.application.dto.request.UploadSessionCreateRequest;
+import com.uds.ged.application.dto.response.DocumentVersionResponse;
+import com.uds.ged.application.dto.response.UploadSessionResponse;
+import com.uds.ged.application.mapper.DocumentMapper;
+import com.uds.ged.domain.model.UploadSession;
+import com.uds.ged.domain.model.User;
+import com.uds.ged.domain.repository.DocumentRepository;
+import com.uds.ged.domain.repository.UploadSessionRepository;
+import com.uds.ged.domain.repository.UserRepository;
+import com.uds.ged.infrastructure.exception.InvalidUploadException;
+import com.uds.ged.infrastructure.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Resumable, chunked uploads of document versions.
+ * <p>
+ * A session fixes the file size and chunk size. Clients PUT chunks at their
+ * offsets, in any order and in parallel, query which offsets were received after
+ * an interruption, and complete the session to create the version. Chunk writes
+ * run outside any transaction, so slow links do not hold database connections.
+ * <p>
+ * Sessions count their running chunk writes. Completion starts only when none
+ * are running and then rejects new chunks, so no write can reach the part file
+ * after it was hashed or moved into storage. The file is hashed and possibly
+ * compressed before the short transaction that creates the version. A node that
+ * stops in the middle of a write or a completion leaves the session blocked until
+ * it expires.
+ */
+@Service
+@Slf4j
+public class UploadService {
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final DocumentRepository documentRepository;
+    private final UserRepository userRepository;
+    private final DocumentService documentService;
+    private final FileStorageService fileStorageService;
+    private final DocumentMapper documentMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final long maxSize;
+    private final Duration sessionTtl;
+
+    public UploadService(UploadSessionRepository uploadSessionRepository,
+                         DocumentRepository documentRepository,
+                         UserRepository userRepository,
+                         DocumentService documentService,
+                         FileStorageService fileStorageService,
+                         DocumentMapper documentMapper,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${app.upload.chunk-size:8MB}") DataSize chunkSize,
+                         @Value("${app.upload.max-size:20GB}") DataSize maxSize,
+                         @Value("${app.upload.session-ttl:24h}") Duration sessionTtl) {
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.documentRepository = documentRepository;
+        this.userRepository = userRepository;
+        this.documentService = documentService;
+        this.fileStorageService = fileStorageService;
+        this.documentMapper = documentMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.toIntExact(chunkSize.toBytes());
+        this.maxSize = maxSize.toBytes();
+        this.sessionTtl = sessionTtl;
+    }
+
+    /**
+     * Opens an upload session and creates its empty part file.
+     *
+     * @param documentId the document receiving the new version
+     * @param request file name, MIME type, size and optional SHA-256
+     * @param username the uploading user
+     * @return the session, with the chunk size to use
+     * @throws ResourceNotFoundException if the document or user does not exist
+     * @throws InvalidUploadException if the file name or size is not acceptable
+     */
+    @Transactional
+    public UploadSessionResponse createSession(Long documentId, UploadSessionCreateRequest request, String username) {
+        if (!documentRepository.existsById(documentId)) {
+            throw new ResourceNotFoundException("Document", "id", documentId);
+        }
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+
+        String fileName = request.getFileName();
+        if (fileName.contains("..") || fileName.contains("/") || fileName.contains("\\")) {
+            throw new InvalidUploadException("Invalid file name: " + fileName);
+        }
+        if (request.getTotalSize() > maxSize) {
+            throw new InvalidUploadException("File exceeds the maximum upload size of " + maxSize + " bytes");
+        }
+
+        UploadSession session = UploadSession.builder()
+                .id(UUID.randomUUID().toString())
+                .document(documentRepository.getReferenceById(documentId))
+                .fileName(fileName)
+                .mimeType(request.getMimeType() != null ? request.getMimeType() : "application/octet-stream")
+                .totalSize(request.getTotalSize())
+                .chunkSize(chunkSize)
+                .contentHash(request.getContentHash() != null
+                        ? request.getContentHash().toLowerCase(Locale.ROOT) : null)
+                .createdBy(user)
+                .expiresAt(LocalDateTime.now().plus(sessionTtl))
+                .build();
+
+        UploadSession savedSession = uploadSessionRepository.save(session);
+        fileStorageService.createUpload(savedSession.getId(), savedSession.getTotalSize());
+        log.info("Upload session {} created for document {} ({} bytes)",
+                savedSession.getId(), documentId, savedSession.getTotalSize());
+
+        return documentMapper.toUploadResponse(savedSession, documentId, List.of());
+    }
+
+    /**
+     * Writes one chunk. A chunk is recorded only once all its bytes are on disk,
+     * so an interrupted PUT is simply retried.
+     *
+     * @param documentId the document ID
+     * @param uploadId the upload session ID
+     * @param offset the chunk offset, a multiple of the session chunk size
+     * @param contentLength the request Content-Length, or -1 if unknown
+     * @param inputStream the chunk content
+     * @param username the uploading user
+     * @throws ResourceNotFoundException if the session does not exist, has expired or belongs to another user
+     * @throws InvalidUploadException if the offset or length does not match the session, or completion has started
+     */
+    public void writeChunk(Long documentId, String uploadId, long offset, long contentLength,
+                           InputStream inputStream, String username) {
+        UploadSession session = findActiveSession(documentId, uploadId, username);
+
+        if (offset < 0 || offset >= session.getTotalSize() || offset % session.getChunkSize() != 0) {
+            throw new InvalidUploadException("Invalid chunk offset " + offset
+                    + ", expected a multiple of " + session.getChunkSize() + " below " + session.getTotalSize());
+        }
+        long expectedLength = session.getChunkLength(offset);
+        if (contentLength >= 0 && contentLength != expectedLength) {
+            throw new InvalidUploadException("Chunk at offset " + offset + " must be " + expectedLength + " bytes");
+        }
+
+        if (uploadSessionRepository.beginChunkWrite(uploadId) == 0) {
+            throw new InvalidUploadException("Upload " + uploadId + " is being completed, chunks are no longer accepted");
+        }
+        try {
+            long written = fileStorageService.writeUploadChunk(uploadId, offset, inputStream, expectedLength);
+            if (written != expectedLength) {
+                throw new InvalidUploadException("Incomplete chunk at offset " + offset
+                        + ": received " + written + " of " + expectedLength + " bytes");
+            }
+
+            try {
+                uploadSessionRepository.recordChunk(uploadId, offset);
+            } catch (DataIntegrityViolationException ex) {
+                log.debug("Chunk {} of upload {} recorded concurrently", offset, uploadId);
+            }
+        } finally {
+            uploadSessionRepository.endChunkWrite(uploadId);
+        }
+    }
+
+    /**
+     * Returns the session with the offsets received so far.
+     *
+     * @param documentId the document ID
+     * @param uploadId the upload session ID
+     * @param username the uploading user
+     * @return the session status
+     * @throws ResourceNotFoundException if the session does not exist, has expired or belongs to another user
+     */
+    @Transactional(readOnly = true)
+    public UploadSessionResponse getSession(Long documentId, String uploadId, String username) {
+        UploadSession session = findActiveSession(documentId, uploadId, username);
+        return documentMapper.toUploadResponse(session, documentId,
+                uploadSessionRepository.findReceivedOffsets(uploadId));
+    }
+
+    /**
+     * Completes an upload: the assembled part file is put into storage and
+     * becomes the next version of the document. The file is hashed outside any
+     * transaction; only placing it and the version insert share one. The part file
+     * is deleted once that transaction has committed, so a failed completion, which
+     * reopens the session, can be retried.
+     *
+     * @param documentId the document ID
+     * @param uploadId the upload session ID
+     * @param username the uploading user
+     * @return the created version
+     * @throws ResourceNotFoundException if the session does not exist, has expired or belongs to another user
+     * @throws InvalidUploadException if chunks are missing or still being written, completion has already
+     *         started, or the content does not match the announced hash
+     */
+    public DocumentVersionResponse completeUpload(Long documentId, String uploadId, String username) {
+        UploadSession session = findActiveSession(documentId, uploadId, username);
+        if (uploadSessionRepository.startCompletion(uploadId, LocalDateTime.now()) == 0) {
+            throw new InvalidUploadException("Upload " + uploadId
+                    + " has chunks being written or is already being completed");
+        }
+
+        FileStorageService.StagedFile staged = null;
+        try {
+            long received = uploadSessionRepository.countReceivedChunks(uploadId);
+            if (received < session.getChunkCount()) {
+                throw new InvalidUploadException("Upload incomplete: " + received + " of "
+                        + session.getChunkCount() + " chunks received");
+            }
+
+            FileStorageService.StagedFile prepared = fileStorageService.prepareUpload(uploadId,
+                    session.getContentHash(), session.getMimeType());
+            staged = prepared;
+
+            DocumentVersionResponse response = transactionTemplate.execute(status -> {
+                UploadSession locked = uploadSessionRepository.findOwnedForUpdate(uploadId, documentId, username)
+                        .orElseThrow(() -> new ResourceNotFoundException("UploadSession", "id", uploadId));
+                DocumentVersionResponse created = documentService.addVersion(documentId, username,
+                        session.getFileName(), session.getMimeType(),
+                        () -> fileStorageService.commitUpload(prepared, session.getFileName(), documentId));
+                uploadSessionRepository.delete(locked);
+                return created;
+            });
+
+            fileStorageService.deleteUpload(uploadId);
+            log.info("Upload session {} completed as version {} of document {}",
+                    uploadId, response.getVersionNumber(), documentId);
+            return response;
+        } catch (RuntimeException ex) {
+            if (staged != null) {
+                fileStorageService.discardUpload(staged);
+            }
+            uploadSessionRepository.cancelCompletion(uploadId);
+            throw ex;
+        }
+    }
+
+    /**
+     * Aborts an upload and deletes its part file.
+     *
+     * @param documentId the document ID
+     * @param uploadId the upload session ID
+     * @param username the uploading user
+     * @throws ResourceNotFoundException if the session does not exist or belongs to another user
+     */
+    @Transactional
+    public void abortUpload(Long documentId, String uploadId, String username) {
+        UploadSession session = uploadSessionRepository.findOwnedForUpdate(uploadId, documentId, username)
+                .orElseThrow(() -> new ResourceNotFoundException("UploadSession", "id", uploadId));
+
+        uploadSessionRepository.delete(session);
+        fileStorageService.deleteUpload(uploadId);
+        log.info("Upload session {} aborted", uploadId);
+    }
+
+    /**
+     * Removes expired sessions and part files nobody has written to for a whole
+     * session lifetime, which covers sessions deleted along with their document.
+     */
+    @Scheduled(fixedDelayString = "${app.upload.cleanup-interval:PT1H}")
+    public void purgeExpiredSessions() {
+        List<String> expiredIds = uploadSessionRepository.findExpiredIds(LocalDateTime.now());
+        for (String uploadId : expiredIds) {
+            uploadSessionRepository.deleteById(uploadId);
+            fileStorageService.deleteUpload(uploadId);
+        }
+
+        int staleParts = fileStorageService.deleteUploadsNotModifiedSince(Instant.now().minus(sessionTtl));
+        if (!expiredIds.isEmpty() || staleParts > 0) {
+            log.info("Purged {} expired upload sessions and {} stale part files", expiredIds.size(), staleParts);
+        }
+    }
+
+    private UploadSession findActiveSession(Long documentId, String uploadId, String username) {
+        return uploadSessionRepository.findOwned(uploadId, documentId, username)
+                .filter(session -> !session.isExpired(LocalDateTime.now()))
+                .orElseThrow(() -> new ResourceNotFoundException("UploadSession", "id", uploadId));
+    }
+}
@@ -0,0 +1,50 @@
+package com.uds.ged.config;
+
+import com.uds.ged.infrastructure.metrics.StatementCountFilter;
+import com.uds.ged.infrastructure.metrics.StatementCountingInspector;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Application metrics that Spring Boot does not provide out of the box.
+ * Request latency, JVM, pool and cache metrics come from Actuator; this adds
+ * the per-request SQL statement count.
+ *
+ * @author GED Team
+ * @version 1.0
+ * @since 2026-02-22
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public StatementCountingInspector statementCountingInspector() {
+        return new StatementCountingInspector();
+    }
+
+    /**
+     * Registers the counting inspector with Hibernate.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer(StatementCountingInspector inspector) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+
+    /**
+     * Runs ahead of the security chain so that statements issued during
+     * authentication are attributed to the request as well.
+     */
+    @Bean
+    public FilterRegistrationBean<StatementCountFilter> statementCountFilter(StatementCountingInspector inspector,
+                                                                           MeterRegistry meterRegistry) {
+        FilterRegistrationBean<StatementCountFilter> registration =
+                new FilterRegistrationBean<>(new StatementCountFilter(inspector, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -4,50 +4,127 @@ import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
 import io.github.bucket4j.Refill;
+import io.github.bucket4j.TimeMeter;
+import io.github.bucket4j.distributed.jdbc.BucketTableSettings;
+import io.github.bucket4j.distributed.jdbc.PrimaryKeyMapper;
+import io.github.bucket4j.distributed.jdbc.SQLProxyConfiguration;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.NopeOptimizationListener;
+import io.github.bucket4j.distributed.proxy.optimization.Optimization;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import io.github.bucket4j.distributed.proxy.optimization.skiponzero.SkipSyncOnZeroOptimization;
+import io.github.bucket4j.postgresql.PostgreSQLSelectForUpdateBasedProxyManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import javax.sql.DataSource;
 import java.time.Duration;
 
 /**
  * Configuration for rate limiting using Bucket4j with Caffeine cache.
- * Implements token bucket algorithm to prevent abuse of registration endpoint.
+ * Implements token bucket algorithm for the rules in {@link RateLimitProperties}.
  * Uses Caffeine cache with automatic expiration to prevent memory leaks.
+ * <p>
+ * With {@code app.rate-limit.store=jdbc} bucket state lives in PostgreSQL so that
+ * limits hold across nodes. Each cached bucket is then a proxy that consumes
+ * locally and writes to the database once it has used its share of the capacity
+ * or after the sync interval, so most checks cost no round trip.
  * 
  * @author GED Team
  * @version 1.0
  * @since 2026-02-22
  */
 @Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class RateLimitConfig {
 
+    static final String BUCKET_TABLE = "rate_limit_buckets";
+
+    private final RateLimitProperties properties;
+    private final ProxyManager<String> proxyManager;
+
+    public RateLimitConfig(RateLimitProperties properties, ObjectProvider<DataSource> dataSource) {
+        if (properties.getStore() == RateLimitProperties.Store.JDBC) {
+            validateRetention(properties);
+        }
+        this.properties = properties;
+        this.proxyManager = properties.getStore() == RateLimitProperties.Store.JDBC
+                ? new PostgreSQLSelectForUpdateBasedProxyManager<>(SQLProxyConfiguration.builder()
+                        .withTableSettings(BucketTableSettings.customSettings(BUCKET_TABLE, "id", "state"))
+                        .withPrimaryKeyMapper(PrimaryKeyMapper.STRING)
+                        .build(dataSource.getObject()))
+                : null;
+    }
+
+    /**
+     * A bucket deleted by the cleanup starts full again, so deleting one that is still
+     * refilling would hand out tokens early: retention must cover every rule period.
+     */
+    private static void validateRetention(RateLimitProperties properties) {
+        Duration retention = properties.getJdbc().getRetention();
+        for (RateLimitProperties.Rule rule : properties.getRules()) {
+            if (rule.getPeriod().compareTo(retention) > 0) {
+                throw new IllegalArgumentException("app.rate-limit.jdbc.retention (" + retention
+                        + ") must not be shorter than the period of rule '" + rule.getName()
+                        + "' (" + rule.getPeriod() + ")");
+            }
+        }
+    }
+
     /**
-     * Creates a Caffeine cache for storing rate limit buckets per IP address.
+     * Creates a Caffeine cache for storing rate limit buckets per rule and key.
      * Cache automatically expires entries after 2 hours of inactivity.
      * Maximum size is limited to 10,000 entries to prevent memory issues.
+     * Cache statistics are exported as the {@code rateLimitBuckets} cache metrics.
      * 
-     * @return Caffeine cache of IP addresses to their corresponding rate limit buckets
+     * @param meterRegistry registry the cache statistics are bound to
+     * @return Caffeine cache of rule keys to their corresponding rate limit buckets
      */
     @Bean
-    public Cache<String, Bucket> bucketCache() {
-        return Caffeine.newBuilder()
+    public Cache<String, Bucket> bucketCache(MeterRegistry meterRegistry) {
+        Cache<String, Bucket> cache = Caffeine.newBuilder()
                 .expireAfterAccess(Duration.ofHours(2))
                 .maximumSize(10_000)
                 .recordStats()
                 .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "rateLimitBuckets");
     }
 
     /**
-     * Creates a rate limit bucket for registration endpoint.
-     * Allows 5 registration attempts per hour per IP address.
+     * Creates a rate limit bucket for a rule.
+     * The bucket starts full and refills continuously at {@code capacity} tokens per period.
      * 
-     * @return Bucket configured with rate limit rules
+     * @param key the bucket key, unique per rule and client
+     * @param rule the rate limit rule
+     * @return Bucket configured with the rule's limit, local or backed by the database
      */
-    public Bucket createRegistrationBucket() {
-        Bandwidth limit = Bandwidth.classic(5, Refill.intervally(5, Duration.ofHours(1)));
-        return Bucket.builder()
-                .addLimit(limit)
-                .build();
+    public Bucket createBucket(String key, RateLimitProperties.Rule rule) {
+        Bandwidth limit = Bandwidth.classic(rule.getCapacity(),
+                Refill.greedy(rule.getCapacity(), rule.getPeriod()));
+        if (proxyManager == null) {
+            return Bucket.builder()
+                    .addLimit(limit)
+                    .build();
+        }
+
+        RateLimitProperties.Jdbc jdbc = properties.getJdbc();
+        long maxUnsynchronizedTokens = (long) (rule.getCapacity() * jdbc.getMaxUnsynchronizedShare());
+        // Small limits are checked against the database on every consumption; once such a
+        // bucket is empty, requests are rejected locally until it has refilled
+        Optimization optimization = maxUnsynchronizedTokens > 0
+                ? Optimizations.delaying(new DelayParameters(maxUnsynchronizedTokens, jdbc.getSyncInterval()))
+                : new SkipSyncOnZeroOptimization(NopeOptimizationListener.INSTANCE, TimeMeter.SYSTEM_MILLISECONDS);
+        return proxyManager.builder()
+                .withOptimization(optimization)
+                .build(key, () -> BucketConfiguration.builder()
+                        .addLimit(limit)
+                        .build());
     }
 }
@@ -0,0 +1,114 @@
+package com.uds.ged.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rate limit rules, bound from {@code app.rate-limit.rules}.
+ * <p>
+ * Every rule whose methods and path patterns match a request applies to it; the
+ * request is rejected if any of their buckets is empty.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    private Store store = Store.LOCAL;
+
+    private Jdbc jdbc = new Jdbc();
+
+    private List<Rule> rules = new ArrayList<>();
+
+    /**
+     * Where bucket state is kept.
+     */
+    public enum Store {
+        /** In this JVM only: every node enforces the limits on its own. */
+        LOCAL,
+        /** In the {@code rate_limit_buckets} table, shared by all nodes. */
+        JDBC
+    }
+
+    /**
+     * Settings of the {@link Store#JDBC} store.
+     */
+    @Data
+    public static class Jdbc {
+
+        /**
+         * Longest time a node consumes tokens locally before writing them to the database.
+         */
+        private Duration syncInterval = Duration.ofSeconds(1);
+
+        /**
+         * Share of a bucket's capacity a node may consume locally before writing to the
+         * database; rounded down, so small limits (e.g. registration) are always checked
+         * against the database. Across N nodes a limit can be exceeded by up to N times this.
+         */
+        private double maxUnsynchronizedShare = 0.01;
+
+        /**
+         * Buckets unused for this long are deleted; a deleted bucket starts full again,
+         * so this must be longer than the longest rule period.
+         */
+        private Duration retention = Duration.ofHours(2);
+
+        private Duration cleanupInterval = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Rule {
+
+        /**
+         * Unique name, part of the bucket key and of the rejection metric.
+         */
+        private String name;
+
+        /**
+         * HTTP methods the rule applies to; empty for all.
+         */
+        private List<String> methods = new ArrayList<>();
+
+        /**
+         * Path patterns ({@code PathPattern} syntax, e.g. {@code /api/documents/**}).
+         */
+        private List<String> paths = new ArrayList<>();
+
+        private KeyType key = KeyType.IP;
+
+        /**
+         * Tokens available per {@link #period}; also the burst size.
+         */
+        private long capacity;
+
+        private Duration period = Duration.ofMinutes(1);
+
+        private Cost cost = Cost.REQUEST;
+    }
+
+    /**
+     * What a bucket is shared by.
+     */
+    public enum KeyType {
+        /** Client address. */
+        IP,
+        /** Authenticated username; anonymous requests fall back to the client address. */
+        USER
+    }
+
+    /**
+     * What a request consumes.
+     */
+    public enum Cost {
+        /** One token per request. */
+        REQUEST,
+        /** One token per response body byte, charged while the body is written. */
+        BYTES
+    }
+}
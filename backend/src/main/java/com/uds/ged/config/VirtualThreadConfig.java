@@ -0,0 +1,57 @@
+package com.uds.ged.config;
+
+import com.uds.ged.infrastructure.jdbc.ConnectionLimitingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Virtual-thread mode, active when {@code spring.threads.virtual.enabled=true} on
+ * Java 21+. Spring Boot then runs Tomcat requests, {@code @Scheduled} tasks and
+ * therefore all storage I/O on virtual threads; this adds the database guard that
+ * mode needs.
+ * <p>
+ * Keep the Hikari pool sized for the database (a few connections per database
+ * core), not for request concurrency: callers beyond the pool size queue on a
+ * semaphore with the pool's connection timeout.
+ *
+ * @author GED Team
+ * @version 1.0
+ * @since 2026-02-22
+ */
+@Slf4j
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(hikari,
+                        hikari.getMaximumPoolSize(), Duration.ofMillis(hikari.getConnectionTimeout()));
+                meterRegistry.ifAvailable(registry -> Gauge.builder("ged.datasource.waiting",
+                                dataSource, ConnectionLimitingDataSource::getWaitingCount)
+                        .description("Threads waiting for a database connection permit")
+                        .register(registry));
+                log.info("Virtual threads enabled: limiting database access to {} concurrent connections",
+                        hikari.getMaximumPoolSize());
+                return dataSource;
+            }
+        };
+    }
+}
@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -23,8 +24,13 @@ import java.util.List;
 @EntityListeners(AuditingEntityListener.class)
 public class Document {
 
+    /**
+     * Sequence with pooled allocation (one round trip per 50 IDs), so batch
+     * inserts are sent as JDBC batches; see V11 migration.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "documents_id_seq")
+    @SequenceGenerator(name = "documents_id_seq", sequenceName = "documents_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 255)
@@ -50,6 +56,21 @@ public class Document {
     @Column(nullable = false, length = 20)
     private DocumentStatus status;
 
+    /**
+     * Highest version number, denormalized so listings need not load versions.
+     * Only written by {@code DocumentRepository.allocateVersionNumber}.
+     */
+    @Column(insertable = false, updatable = false)
+    private Integer currentVersion;
+
+    /**
+     * Number the next uploaded version will get.
+     * Only written by {@code DocumentRepository.allocateVersionNumber}.
+     */
+    @ColumnDefault("1")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Integer nextVersion;
+
     @OneToMany(mappedBy = "document", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderBy("versionNumber DESC")
     @Builder.Default
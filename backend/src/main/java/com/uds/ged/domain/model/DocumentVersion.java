@@ -42,6 +42,9 @@ public class DocumentVersion {
     @Column(nullable = false, length = 100)
     private String mimeType;
 
+    @Column(length = 64)
+    private String contentHash;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "uploaded_by", nullable = false)
     private User uploadedBy;
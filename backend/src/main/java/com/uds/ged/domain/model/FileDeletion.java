@@ -0,0 +1,49 @@
+package com.uds.ged.domain.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox entry for a stored file to remove from disk.
+ * Written in the transaction that releases the file and processed only after it
+ * committed, so a rolled back delete never loses files.
+ */
+@Entity
+@Table(name = "file_deletion_outbox")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class FileDeletion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "file_deletion_outbox_id_seq")
+    @SequenceGenerator(name = "file_deletion_outbox_id_seq", sequenceName = "file_deletion_outbox_id_seq",
+            allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 500)
+    private String fileKey;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,98 @@
+package com.uds.ged.domain.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Resumable upload of one document version.
+ * The file is split into fixed-size chunks written at their offsets into a single
+ * part file; {@code receivedOffsets} records the chunks that arrived completely.
+ */
+@Entity
+@Table(name = "upload_sessions")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class UploadSession {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "document_id", nullable = false)
+    private Document document;
+
+    @Column(nullable = false, length = 255)
+    private String fileName;
+
+    @Column(nullable = false, length = 100)
+    private String mimeType;
+
+    @Column(nullable = false)
+    private Long totalSize;
+
+    @Column(nullable = false)
+    private Integer chunkSize;
+
+    /**
+     * SHA-256 announced by the client, checked when the upload is completed.
+     */
+    @Column(length = 64)
+    private String contentHash;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "created_by", nullable = false)
+    private User createdBy;
+
+    @ElementCollection
+    @CollectionTable(name = "upload_chunks", joinColumns = @JoinColumn(name = "upload_id"))
+    @Column(name = "chunk_offset")
+    @Builder.Default
+    private Set<Long> receivedOffsets = new HashSet<>();
+
+    /**
+     * Chunk writes in progress. Completion starts only when none are left.
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer activeWrites = 0;
+
+    /**
+     * When completion started; from then on chunks are rejected.
+     */
+    private LocalDateTime completingAt;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    public long getChunkCount() {
+        return (totalSize + chunkSize - 1) / chunkSize;
+    }
+
+    /**
+     * Length of the chunk starting at {@code offset}; only the last one may be shorter.
+     */
+    public long getChunkLength(long offset) {
+        return Math.min(chunkSize, totalSize - offset);
+    }
+
+    public boolean isExpired(LocalDateTime now) {
+        return expiresAt.isBefore(now);
+    }
+}
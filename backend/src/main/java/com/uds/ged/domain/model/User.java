@@ -37,6 +37,13 @@ public class User {
     @Column(nullable = false, length = 20)
     private UserRole role;
 
+    /**
+     * Stamp embedded in issued tokens; bumping it revokes every token issued before.
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer tokenVersion = 0;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
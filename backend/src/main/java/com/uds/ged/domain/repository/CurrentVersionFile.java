@@ -0,0 +1,21 @@
+package com.uds.ged.domain.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the file of a document's current version.
+ */
+public interface CurrentVersionFile {
+
+    Long getDocumentId();
+
+    Integer getVersionNumber();
+
+    String getFileKey();
+
+    String getFileName();
+
+    String getMimeType();
+
+    LocalDateTime getUploadedAt();
+}
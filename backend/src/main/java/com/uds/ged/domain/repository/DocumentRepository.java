@@ -6,14 +6,18 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
-public interface DocumentRepository extends JpaRepository<Document, Long>, JpaSpecificationExecutor<Document> {
+public interface DocumentRepository extends JpaRepository<Document, Long>, JpaSpecificationExecutor<Document>,
+        DocumentRepositoryCustom {
     
     Page<Document> findByStatus(DocumentStatus status, Pageable pageable);
     
@@ -22,17 +26,101 @@ public interface DocumentRepository extends JpaRepository<Document, Long>, JpaSp
     Page<Document> findByTenantId(String tenantId, Pageable pageable);
     
     /**
-     * Find document by ID with tags eagerly loaded.
-     * Required when spring.jpa.open-in-view=false to avoid LazyInitializationException.
+     * Find the given documents with tags and owner eagerly loaded.
+     * Second phase of ID-first pagination: no Pageable is applied here, so the
+     * collection fetch join never forces Hibernate to page in memory.
+     * Result order is unspecified; callers reorder by the ID page.
      */
-    @Query("SELECT d FROM Document d LEFT JOIN FETCH d.tags WHERE d.id = :id")
-    Optional<Document> findByIdWithTags(@Param("id") Long id);
-    
+    @Query("SELECT DISTINCT d FROM Document d LEFT JOIN FETCH d.tags LEFT JOIN FETCH d.owner WHERE d.id IN :ids")
+    List<Document> findAllWithTagsAndOwnerByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Takes the next version number of a document and makes it the current one.
+     * Right-hand sides see the values before the update, so both columns move in one
+     * atomic statement. The row stays locked until commit: concurrent uploads to the
+     * same document queue here and each gets its own number, and a rollback
+     * returns the number. Read the allocated number back with {@link #findCurrentVersionById}.
+     *
+     * @return 1 if the document exists, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE Document d SET d.nextVersion = d.nextVersion + 1, d.currentVersion = d.nextVersion "
+            + "WHERE d.id = :id")
+    int allocateVersionNumber(@Param("id") Long id);
+
+    @Query("SELECT d.currentVersion FROM Document d WHERE d.id = :id")
+    Integer findCurrentVersionById(@Param("id") Long id);
+
+    @Query("SELECT d.id FROM Document d WHERE d.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
     /**
-     * Find all documents with tags and owner eagerly loaded.
-     * Required when spring.jpa.open-in-view=false to avoid LazyInitializationException.
+     * Set-based status change for bulk updates. Bypasses entity auditing,
+     * so {@code updatedAt} is passed in explicitly.
      */
-    @Query(value = "SELECT DISTINCT d FROM Document d LEFT JOIN FETCH d.tags LEFT JOIN FETCH d.owner",
-           countQuery = "SELECT COUNT(DISTINCT d) FROM Document d")
-    Page<Document> findAllWithTagsAndOwner(Pageable pageable);
+    @Modifying
+    @Query("UPDATE Document d SET d.status = :status, d.updatedAt = :updatedAt WHERE d.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("status") DocumentStatus status,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Full-text search over title, tags and description using the weighted
+     * search_vector column and its GIN index (PostgreSQL only).
+     * Hits are ranked by relevance; snippets are only built for the returned page.
+     * Matches in the snippet are delimited by {@link DocumentSearchHit#MATCH_START}
+     * and {@link DocumentSearchHit#MATCH_END}, removed from the text beforehand,
+     * rather than by markup that could not be told apart from the document text.
+     */
+    @Query(value = """
+            WITH hits AS (
+                SELECT d.id, CAST(ts_rank_cd(d.search_vector, query) AS DOUBLE PRECISION) AS rank
+                FROM documents d, websearch_to_tsquery('simple', :q) query
+                WHERE d.search_vector @@ query
+                  AND (CAST(:status AS VARCHAR) IS NULL OR d.status = CAST(:status AS VARCHAR))
+                ORDER BY rank DESC, d.id DESC
+                LIMIT :limit OFFSET :offset
+            )
+            SELECT h.id AS id, h.rank AS rank,
+                   ts_headline('simple',
+                               translate(concat_ws(' ', d.title,
+                                                   (SELECT string_agg(t.tag, ' ') FROM document_tags t WHERE t.document_id = d.id),
+                                                   d.description),
+                                         chr(57344) || chr(57345), ''),
+                               websearch_to_tsquery('simple', :q),
+                               'StartSel=' || chr(57344) || ', StopSel=' || chr(57345)
+                                   || ', MaxWords=35, MinWords=15, MaxFragments=2') AS highlight
+            FROM hits h JOIN documents d ON d.id = h.id
+            ORDER BY h.rank DESC, h.id DESC
+            """, nativeQuery = true)
+    List<DocumentSearchHit> searchFullText(@Param("q") String q,
+                                           @Param("status") String status,
+                                           @Param("limit") int limit,
+                                           @Param("offset") long offset);
+
+    /**
+     * Keyset page of full-text matches in ID order, for walking every match
+     * without ranking (PostgreSQL only).
+     */
+    @Query(value = """
+            SELECT d.id
+            FROM documents d
+            WHERE d.search_vector @@ websearch_to_tsquery('simple', :q)
+              AND (CAST(:status AS VARCHAR) IS NULL OR d.status = CAST(:status AS VARCHAR))
+              AND d.id > :afterId
+            ORDER BY d.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Long> findFullTextIdsAfter(@Param("q") String q,
+                                    @Param("status") String status,
+                                    @Param("afterId") long afterId,
+                                    @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT COUNT(*)
+            FROM documents d
+            WHERE d.search_vector @@ websearch_to_tsquery('simple', :q)
+              AND (CAST(:status AS VARCHAR) IS NULL OR d.status = CAST(:status AS VARCHAR))
+            """, nativeQuery = true)
+    long countFullText(@Param("q") String q, @Param("status") String status);
 }
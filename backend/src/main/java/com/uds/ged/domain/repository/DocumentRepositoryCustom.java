@@ -0,0 +1,48 @@
+package com.uds.ged.domain.repository;
+
+import com.uds.ged.domain.model.Document;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Custom query fragment for {@link DocumentRepository}.
+ * Provides the first phase of ID-first pagination: the database sorts and pages
+ * plain document IDs, and the caller batch-loads the entities for that page only.
+ * Also gives batch inserts control over flushing.
+ */
+public interface DocumentRepositoryCustom {
+
+    /**
+     * Selects one page of document IDs matching the given specification.
+     * LIMIT/OFFSET and ORDER BY are executed by the database, with {@code id}
+     * appended as a tie-breaker so that page boundaries are deterministic.
+     *
+     * @param specification filter to apply, may be {@code null} for all documents
+     * @param pageable page request including sort
+     * @return page of document IDs in the requested order
+     */
+    Page<Long> findIdPage(Specification<Document> specification, Pageable pageable);
+
+    /**
+     * Selects up to {@code limit} document IDs in the given order without running
+     * a count query. Used for keyset pagination, where the seek predicate is part
+     * of the specification.
+     *
+     * @param specification filter to apply, may be {@code null} for all documents
+     * @param sort sort order, {@code id} is appended as a tie-breaker if missing
+     * @param limit maximum number of IDs to return
+     * @return document IDs in the requested order
+     */
+    List<Long> findIdSlice(Specification<Document> specification, Sort sort, int limit);
+
+    /**
+     * Flushes pending changes and detaches all managed entities.
+     * Used between chunks of batch inserts so that the persistence context,
+     * and the cost of each flush, stays bounded by the chunk size.
+     */
+    void flushAndClear();
+}
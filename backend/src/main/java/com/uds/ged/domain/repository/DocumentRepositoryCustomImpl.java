@@ -0,0 +1,98 @@
+package com.uds.ged.domain.repository;
+
+import com.uds.ged.domain.model.Document;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+class DocumentRepositoryCustomImpl implements DocumentRepositoryCustom {
+
+    private static final String ID = "id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Long> findIdPage(Specification<Document> specification, Pageable pageable) {
+        TypedQuery<Long> typedQuery = createIdQuery(specification, pageable.getSort());
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        List<Long> ids = typedQuery.getResultList();
+        return PageableExecutionUtils.getPage(ids, pageable, () -> count(specification));
+    }
+
+    @Override
+    public List<Long> findIdSlice(Specification<Document> specification, Sort sort, int limit) {
+        return createIdQuery(specification, sort)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private TypedQuery<Long> createIdQuery(Specification<Document> specification, Sort sort) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Document> root = query.from(Document.class);
+
+        query.select(root.get(ID));
+        applySpecification(specification, root, query, criteriaBuilder);
+        query.orderBy(QueryUtils.toOrders(withIdTieBreaker(sort), root, criteriaBuilder));
+
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<Document> specification) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Document> root = query.from(Document.class);
+
+        query.select(criteriaBuilder.count(root));
+        applySpecification(specification, root, query, criteriaBuilder);
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private void applySpecification(Specification<Document> specification,
+                                    Root<Document> root,
+                                    CriteriaQuery<?> query,
+                                    CriteriaBuilder criteriaBuilder) {
+        if (specification == null) {
+            return;
+        }
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+
+    private Sort withIdTieBreaker(Sort sort) {
+        if (sort.getOrderFor(ID) != null) {
+            return sort;
+        }
+        Sort.Direction direction = sort.stream()
+                .findFirst()
+                .map(Sort.Order::getDirection)
+                .orElse(Sort.Direction.ASC);
+        return sort.and(Sort.by(direction, ID));
+    }
+}
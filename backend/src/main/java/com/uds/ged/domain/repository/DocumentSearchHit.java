@@ -0,0 +1,21 @@
+package com.uds.ged.domain.repository;
+
+/**
+ * Projection of a full-text search hit: document ID, relevance rank and a
+ * snippet of the matching text, as plain text with matches delimited by
+ * {@link #MATCH_START} and {@link #MATCH_END}.
+ */
+public interface DocumentSearchHit {
+
+    /** Marks the start of a match in {@link #getHighlight()} (U+E000, private use). */
+    String MATCH_START = "\uE000";
+
+    /** Marks the end of a match in {@link #getHighlight()} (U+E001, private use). */
+    String MATCH_END = "\uE001";
+
+    Long getId();
+
+    Double getRank();
+
+    String getHighlight();
+}
@@ -1,11 +1,13 @@
 package com.uds.ged.domain.repository;
 
 import com.uds.ged.domain.model.DocumentVersion;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,9 +16,24 @@ public interface DocumentVersionRepository extends JpaRepository<DocumentVersion
     
     List<DocumentVersion> findByDocumentIdOrderByVersionNumberDesc(Long documentId);
     
-    @Query("SELECT MAX(v.versionNumber) FROM DocumentVersion v WHERE v.document.id = :documentId")
-    Optional<Integer> findMaxVersionNumberByDocumentId(@Param("documentId") Long documentId);
-    
     @Query("SELECT v FROM DocumentVersion v WHERE v.document.id = :documentId ORDER BY v.versionNumber DESC LIMIT 1")
     Optional<DocumentVersion> findLatestVersionByDocumentId(@Param("documentId") Long documentId);
+
+    /**
+     * Current version file of each of the given documents, in document ID order.
+     */
+    @Query("SELECT d.id AS documentId, v.versionNumber AS versionNumber, v.fileKey AS fileKey, "
+            + "v.fileName AS fileName, v.mimeType AS mimeType, v.uploadedAt AS uploadedAt "
+            + "FROM DocumentVersion v JOIN v.document d "
+            + "WHERE d.id IN :documentIds AND v.versionNumber = d.currentVersion ORDER BY d.id")
+    List<CurrentVersionFile> findCurrentVersionFiles(@Param("documentIds") Collection<Long> documentIds);
+
+    @Query("SELECT DISTINCT v.fileKey FROM DocumentVersion v WHERE v.fileKey IN :fileKeys")
+    List<String> findExistingFileKeys(@Param("fileKeys") Collection<String> fileKeys);
+
+    /**
+     * Keyset page of version file keys ordered by version ID.
+     */
+    @Query("SELECT v.id AS id, v.fileKey AS fileKey FROM DocumentVersion v WHERE v.id > :afterId ORDER BY v.id")
+    List<VersionFileKey> findFileKeysAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
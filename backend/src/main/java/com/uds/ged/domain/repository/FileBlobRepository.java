@@ -0,0 +1,62 @@
+package com.uds.ged.domain.repository;
+
+import com.uds.ged.domain.model.FileBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface FileBlobRepository extends JpaRepository<FileBlob, String> {
+
+    /**
+     * Registers a blob with zero references unless it already exists.
+     * A concurrent insert of the same hash is absorbed by ON CONFLICT, so this runs
+     * in the caller's transaction: a separate one would need a second pooled
+     * connection per upload and can exhaust the pool under concurrent uploads.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO file_blobs (content_hash, storage_key, size, ref_count, created_at) "
+            + "VALUES (:hash, :storageKey, :size, 0, CURRENT_TIMESTAMP) "
+            + "ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("hash") String hash,
+                       @Param("storageKey") String storageKey,
+                       @Param("size") long size);
+
+    @Modifying
+    @Query("UPDATE FileBlob b SET b.refCount = b.refCount + 1 WHERE b.contentHash = :hash")
+    int incrementRefCount(@Param("hash") String hash);
+
+    /**
+     * Drops {@code count} references from each of the given blobs, never going below zero.
+     */
+    @Modifying
+    @Query("UPDATE FileBlob b SET b.refCount = CASE WHEN b.refCount > :count THEN b.refCount - :count ELSE 0 END "
+            + "WHERE b.contentHash IN :hashes")
+    int decrementRefCounts(@Param("hashes") Collection<String> hashes, @Param("count") int count);
+
+    /**
+     * Locks the blob if nothing references it. An upload of the same content
+     * blocks on the lock in {@link #incrementRefCount}; one that got there first
+     * has raised the count, and the blob is not returned.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM FileBlob b WHERE b.contentHash = :hash AND b.refCount <= 0")
+    Optional<FileBlob> findUnreferencedForUpdate(@Param("hash") String hash);
+
+    @Query("SELECT b.contentHash FROM FileBlob b WHERE b.contentHash IN :hashes")
+    List<String> findExistingContentHashes(@Param("hashes") Collection<String> hashes);
+
+    @Query("SELECT b.storageKey FROM FileBlob b WHERE b.contentHash = :hash")
+    Optional<String> findStorageKeyByContentHash(@Param("hash") String hash);
+}
@@ -0,0 +1,30 @@
+package com.uds.ged.domain.repository;
+
+import com.uds.ged.domain.model.FileDeletion;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.LockOptions;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface FileDeletionRepository extends JpaRepository<FileDeletion, Long> {
+
+    /**
+     * Locks a page of deletions that are due, oldest first. Rows locked by another
+     * worker are skipped (FOR UPDATE SKIP LOCKED), so several instances can drain
+     * the outbox side by side without handling an entry twice.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "" + LockOptions.SKIP_LOCKED))
+    @Query("SELECT d FROM FileDeletion d WHERE d.nextAttemptAt <= :now ORDER BY d.nextAttemptAt, d.id")
+    List<FileDeletion> findDueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+}
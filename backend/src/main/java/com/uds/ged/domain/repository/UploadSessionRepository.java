@@ -0,0 +1,94 @@
+package com.uds.ged.domain.repository;
+
+import com.uds.ged.domain.model.UploadSession;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+
+    @Query("SELECT s FROM UploadSession s "
+            + "WHERE s.id = :id AND s.document.id = :documentId AND s.createdBy.username = :username")
+    Optional<UploadSession> findOwned(@Param("id") String id,
+                                      @Param("documentId") Long documentId,
+                                      @Param("username") String username);
+
+    /**
+     * Same as {@link #findOwned} but locks the session row, so that completing
+     * or aborting an upload happens at most once.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UploadSession s "
+            + "WHERE s.id = :id AND s.document.id = :documentId AND s.createdBy.username = :username")
+    Optional<UploadSession> findOwnedForUpdate(@Param("id") String id,
+                                               @Param("documentId") Long documentId,
+                                               @Param("username") String username);
+
+    /**
+     * Records a fully written chunk. Retried chunks are ignored.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO upload_chunks (upload_id, chunk_offset) "
+            + "SELECT :uploadId, :chunkOffset "
+            + "WHERE NOT EXISTS (SELECT 1 FROM upload_chunks WHERE upload_id = :uploadId AND chunk_offset = :chunkOffset)",
+           nativeQuery = true)
+    int recordChunk(@Param("uploadId") String uploadId, @Param("chunkOffset") long chunkOffset);
+
+    /**
+     * Registers a chunk write unless completion has started. Must be followed by
+     * {@link #endChunkWrite} once the chunk is written and recorded.
+     *
+     * @return 1 if the write may proceed, 0 if the session is completing or gone
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE UploadSession s SET s.activeWrites = s.activeWrites + 1 "
+            + "WHERE s.id = :id AND s.completingAt IS NULL")
+    int beginChunkWrite(@Param("id") String id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE UploadSession s SET s.activeWrites = s.activeWrites - 1 "
+            + "WHERE s.id = :id AND s.activeWrites > 0")
+    int endChunkWrite(@Param("id") String id);
+
+    /**
+     * Marks the session as completing, unless chunks are being written or another
+     * completion has started. Afterwards {@link #beginChunkWrite} rejects chunks.
+     *
+     * @return 1 if this caller may complete the session, 0 otherwise
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE UploadSession s SET s.completingAt = :now "
+            + "WHERE s.id = :id AND s.completingAt IS NULL AND s.activeWrites = 0")
+    int startCompletion(@Param("id") String id, @Param("now") LocalDateTime now);
+
+    /**
+     * Reopens a session whose completion failed, so chunks can be resent and completion retried.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE UploadSession s SET s.completingAt = NULL WHERE s.id = :id")
+    int cancelCompletion(@Param("id") String id);
+
+    @Query("SELECT o FROM UploadSession s JOIN s.receivedOffsets o WHERE s.id = :id ORDER BY o")
+    List<Long> findReceivedOffsets(@Param("id") String id);
+
+    @Query("SELECT COUNT(o) FROM UploadSession s JOIN s.receivedOffsets o WHERE s.id = :id")
+    long countReceivedChunks(@Param("id") String id);
+
+    @Query("SELECT s.id FROM UploadSession s WHERE s.expiresAt < :now")
+    List<String> findExpiredIds(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,9 @@
+package com.uds.ged.domain.repository;
+
+/**
+ * Unique identifiers of a user. A record rather than an interface projection:
+ * it is read for every user when building in-memory indexes, and proxies are
+ * several times slower to read.
+ */
+public record UserIdentity(Long id, String username, String email) {
+}
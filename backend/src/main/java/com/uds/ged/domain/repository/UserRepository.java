@@ -1,9 +1,14 @@
 package com.uds.ged.domain.repository;
 
 import com.uds.ged.domain.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,4 +21,32 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
     
     boolean existsByEmail(String email);
+
+    /**
+     * Keyset page of usernames and emails ordered by user ID.
+     */
+    @Query("SELECT new com.uds.ged.domain.repository.UserIdentity(u.id, u.username, u.email) "
+            + "FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<UserIdentity> findIdentitiesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.username = :username")
+    Optional<Integer> findTokenVersionByUsername(@Param("username") String username);
+
+    @Query("SELECT new com.uds.ged.domain.repository.UserTokenState(u.tokenVersion, u.role) "
+            + "FROM User u WHERE u.username = :username")
+    Optional<UserTokenState> findTokenStateByUsername(@Param("username") String username);
+
+    /**
+     * Revokes all tokens issued to the user so far.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.username = :username")
+    int incrementTokenVersion(@Param("username") String username);
+
+    /**
+     * Replaces the stored password hash, e.g. when it is rehashed at a higher cost.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
 }
@@ -0,0 +1,10 @@
+package com.uds.ged.domain.repository;
+
+import com.uds.ged.domain.model.enums.UserRole;
+
+/**
+ * What a token refresh needs to know about a user: the current token version
+ * stamp and the current role, read together by username.
+ */
+public record UserTokenState(Integer tokenVersion, UserRole role) {
+}
@@ -0,0 +1,11 @@
+package com.uds.ged.domain.repository;
+
+/**
+ * Projection of the file referenced by a document version.
+ */
+public interface VersionFileKey {
+
+    Long getId();
+
+    String getFileKey();
+}
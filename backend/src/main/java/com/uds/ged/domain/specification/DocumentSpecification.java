@@ -2,9 +2,12 @@ package com.uds.ged.domain.specification;
 
 import com.uds.ged.domain.model.Document;
 import com.uds.ged.domain.model.enums.DocumentStatus;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -12,13 +15,8 @@ public class DocumentSpecification {
 
     public static Specification<Document> withFilters(String title, DocumentStatus status) {
         return (root, query, criteriaBuilder) -> {
-            // Add fetch joins to eagerly load collections (required when open-in-view=false)
-            if (query.getResultType().equals(Document.class)) {
-                root.fetch("tags", jakarta.persistence.criteria.JoinType.LEFT);
-                root.fetch("owner", jakarta.persistence.criteria.JoinType.LEFT);
-                query.distinct(true);
-            }
-            
+            // No fetch joins here: the specification is used to select ID pages,
+            // tags and owner are batch-loaded afterwards for the page only.
             List<Predicate> predicates = new ArrayList<>();
 
             if (title != null && !title.trim().isEmpty()) {
@@ -35,4 +33,38 @@ public class DocumentSpecification {
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    /**
+     * Matches documents with an ID greater than the given one, for walking all
+     * matches in ID order.
+     */
+    public static Specification<Document> idAfter(Long id) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.greaterThan(root.get("id"), id);
+    }
+
+    /**
+     * Keyset seek predicate: matches rows strictly after the (property, id) tuple
+     * in the given direction. The redundant bound on the property lets the database
+     * use the composite (property, id) index as a range scan.
+     */
+    public static Specification<Document> seekAfter(String property, Sort.Direction direction,
+                                                    LocalDateTime value, Long id) {
+        return (root, query, criteriaBuilder) -> {
+            Path<LocalDateTime> sortPath = root.get(property);
+            Path<Long> idPath = root.get("id");
+
+            if (direction.isAscending()) {
+                return criteriaBuilder.and(
+                        criteriaBuilder.greaterThanOrEqualTo(sortPath, value),
+                        criteriaBuilder.or(
+                                criteriaBuilder.greaterThan(sortPath, value),
+                                criteriaBuilder.greaterThan(idPath, id)));
+            }
+            return criteriaBuilder.and(
+                    criteriaBuilder.lessThanOrEqualTo(sortPath, value),
+                    criteriaBuilder.or(
+                            criteriaBuilder.lessThan(sortPath, value),
+                            criteriaBuilder.lessThan(idPath, id)));
+        };
+    }
 }
@@ -0,0 +1,105 @@
+package com.uds.ged.infrastructure.codec;
+
+import org.springframework.core.io.AbstractResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * A gzip-compressed stored file whose content is decompressed on the fly.
+ * <p>
+ * {@link #isFile()} is {@code false} because the file bytes are not the content;
+ * callers that can send the encoded bytes unchanged (with
+ * {@code Content-Encoding: gzip}) use {@link #getEncodedFile()} instead.
+ *
+ * @author GED Team
+ * @version 1.0
+ * @since 2026-02-22
+ */
+public class GzipFileResource extends AbstractResource {
+
+    /**
+     * Content coding of the stored bytes, as used in {@code Content-Encoding}.
+     */
+    public static final String CONTENT_ENCODING = "gzip";
+
+    private final Path encodedFile;
+    private final int bufferSize;
+
+    GzipFileResource(Path encodedFile, int bufferSize) {
+        this.encodedFile = encodedFile;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Returns the compressed file as stored.
+     */
+    public Path getEncodedFile() {
+        return encodedFile;
+    }
+
+    /**
+     * Returns the size of the compressed file.
+     *
+     * @throws IOException if the file cannot be read
+     */
+    public long encodedLength() throws IOException {
+        return Files.size(encodedFile);
+    }
+
+    @Override
+    public boolean exists() {
+        return Files.exists(encodedFile);
+    }
+
+    @Override
+    public boolean isReadable() {
+        return Files.isReadable(encodedFile);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        InputStream inputStream = Files.newInputStream(encodedFile);
+        try {
+            return new GZIPInputStream(inputStream, bufferSize);
+        } catch (IOException ex) {
+            inputStream.close();
+            throw ex;
+        }
+    }
+
+    @Override
+    public long lastModified() throws IOException {
+        return Files.getLastModifiedTime(encodedFile).toMillis();
+    }
+
+    @Override
+    public String getFilename() {
+        String name = encodedFile.getFileName().toString();
+        if (name.startsWith(StorageCodec.LEGACY_GZIP_PREFIX)) {
+            return name.substring(StorageCodec.LEGACY_GZIP_PREFIX.length());
+        }
+        return name.endsWith(StorageCodec.GZIP_SUFFIX)
+                ? name.substring(0, name.length() - StorageCodec.GZIP_SUFFIX.length())
+                : name;
+    }
+
+    @Override
+    public String getDescription() {
+        return "gzip file [" + encodedFile + "]";
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || (other instanceof GzipFileResource resource
+                && encodedFile.equals(resource.encodedFile));
+    }
+
+    @Override
+    public int hashCode() {
+        return encodedFile.hashCode();
+    }
+}
@@ -0,0 +1,128 @@
+package com.uds.ged.infrastructure.codec;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * At-rest compression of stored files.
+ * <p>
+ * Files of compressible MIME types (text, CSV, XML, legacy office formats...) are
+ * gzip-compressed while they are staged; formats that are already compressed (PDF,
+ * images, OOXML/ZIP) are stored as-is. Gzip rather than a denser codec keeps the
+ * stored bytes servable unchanged to any client that accepts
+ * {@code Content-Encoding: gzip}.
+ *
+ * @author GED Team
+ * @version 1.0
+ * @since 2026-02-22
+ */
+@Slf4j
+@Component
+public class StorageCodec {
+
+    /**
+     * Key suffix of gzip-compressed content-addressed blobs. Their keys are derived
+     * from the content hash alone, so no uploaded file name can produce it.
+     */
+    public static final String GZIP_SUFFIX = ".gz";
+
+    /**
+     * Name prefix of gzip-compressed legacy files. Legacy names end with the
+     * uploaded file's extension, which may well be {@code .gz} itself, so the
+     * marker goes at the start, which only the server writes.
+     */
+    public static final String LEGACY_GZIP_PREFIX = "docz_";
+
+    private static final Pattern COMPRESSED_BLOB_KEY = Pattern.compile("^[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}\\.gz$");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final boolean enabled;
+    private final int level;
+    private final List<MimeType> compressibleTypes;
+
+    public StorageCodec(@Value("${app.storage.compression.enabled:false}") boolean enabled,
+                        @Value("${app.storage.compression.level:6}") int level,
+                        @Value("${app.storage.compression.mime-types:text/*}") List<String> mimeTypes) {
+        if (level < 1 || level > 9) {
+            throw new IllegalArgumentException("Compression level must be between 1 and 9: " + level);
+        }
+        this.enabled = enabled;
+        this.level = level;
+        this.compressibleTypes = mimeTypes.stream().map(MimeTypeUtils::parseMimeType).toList();
+        log.info("Storage compression: {} (level {}, types {})", enabled ? "enabled" : "disabled", level, mimeTypes);
+    }
+
+    /**
+     * Tells whether files of the given MIME type are stored compressed.
+     *
+     * @param mimeType the declared MIME type, may be {@code null}
+     * @return {@code true} if the type is in the compressible list
+     */
+    public boolean isCompressible(String mimeType) {
+        return enabled && isCompressibleType(mimeType);
+    }
+
+    /**
+     * Tells whether a MIME type is on the compressible list, whether or not
+     * at-rest compression is enabled. Other types are treated as already compressed.
+     *
+     * @param mimeType the declared MIME type, may be {@code null}
+     * @return {@code true} if the type is in the compressible list
+     */
+    public boolean isCompressibleType(String mimeType) {
+        if (mimeType == null || mimeType.isBlank()) {
+            return false;
+        }
+        try {
+            MimeType type = MimeTypeUtils.parseMimeType(mimeType);
+            return compressibleTypes.stream().anyMatch(compressible -> compressible.includes(type));
+        } catch (InvalidMimeTypeException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Wraps a stream so that bytes written to it are stored compressed.
+     *
+     * @param outputStream the stream of the stored file
+     * @return a compressing stream; closing it finishes the gzip trailer and closes the target
+     * @throws IOException if the gzip header cannot be written
+     */
+    public OutputStream compress(OutputStream outputStream) throws IOException {
+        return new GZIPOutputStream(outputStream, BUFFER_SIZE) {
+            {
+                def.setLevel(level);
+            }
+        };
+    }
+
+    /**
+     * Tells whether a file key names a compressed file. Only markers the server
+     * controls count: an uploaded {@code backup.gz} is stored and served as is.
+     */
+    public static boolean isCompressed(String fileKey) {
+        return fileKey.startsWith(LEGACY_GZIP_PREFIX) || COMPRESSED_BLOB_KEY.matcher(fileKey).matches();
+    }
+
+    /**
+     * Returns a resource that decompresses the stored file as it is read.
+     *
+     * @param filePath the compressed file
+     * @return the decoding resource
+     */
+    public GzipFileResource decode(Path filePath) {
+        return new GzipFileResource(filePath, BUFFER_SIZE);
+    }
+}
@@ -1,6 +1,7 @@
 package com.uds.ged.infrastructure.exception;
 
 import com.uds.ged.application.dto.response.ApiResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -85,6 +86,49 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(ex.getMessage()));
     }
 
+    /**
+     * Handles InvalidCursorException.
+     * Returns HTTP 400 (Bad Request) when a pagination cursor is malformed or stale.
+     *
+     * @param ex the exception
+     * @return response entity with error message
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidCursor(InvalidCursorException ex) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    /**
+     * Handles InvalidUploadException.
+     * Returns HTTP 400 (Bad Request) when a chunk or completion request does not fit its upload session.
+     *
+     * @param ex the exception
+     * @return response entity with error message
+     */
+    @ExceptionHandler(InvalidUploadException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidUpload(InvalidUploadException ex) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    /**
+     * Handles PasswordHashingUnavailableException.
+     * Returns HTTP 503 (Service Unavailable) with {@code Retry-After} when password hashing is saturated.
+     *
+     * @param ex the exception
+     * @return response entity with error message
+     */
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public ResponseEntity<ApiResponse<Void>> handlePasswordHashingUnavailable(PasswordHashingUnavailableException ex) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<Map<String, String>>> handleValidationErrors(
             MethodArgumentNotValidException ex) {
@@ -0,0 +1,33 @@
+package com.uds.ged.infrastructure.exception;
+
+/**
+ * Exception thrown when a pagination cursor cannot be decoded or does not
+ * match the requested sort.
+ * 
+ * @author GED Team
+ * @version 1.0
+ * @since 2026-02-22
+ */
+public class InvalidCursorException extends RuntimeException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    /**
+     * Constructs a new InvalidCursorException with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+    
+    /**
+     * Constructs a new InvalidCursorException with a custom message.
+     *
+     * @param message the detail message
+     * @param cause the cause of the exception
+     */
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,24 @@
+package com.uds.ged.infrastructure.exception;
+
+/**
+ * Exception thrown when a resumable upload request does not fit its session:
+ * misaligned or out-of-range chunk offsets, wrong chunk lengths, or completing
+ * an upload that is missing chunks or does not match its announced hash.
+ * 
+ * @author GED Team
+ * @version 1.0
+ * @since 2026-02-22
+ */
+public class InvalidUploadException extends RuntimeException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    /**
+     * Constructs a new InvalidUploadException with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public InvalidUploadException(String message) {
+        super(message);
+    }
+}
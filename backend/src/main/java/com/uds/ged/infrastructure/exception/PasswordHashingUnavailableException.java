@@ -0,0 +1,23 @@
+package com.uds.ged.infrastructure.exception;
+
+/**
+ * Exception thrown when a password cannot be hashed or verified in time because
+ * the hashing executor is saturated. Mapped to HTTP 503 so clients retry later.
+ * 
+ * @author GED Team
+ * @version 1.0
+ * @since 2026-02-22
+ */
+public class PasswordHashingUnavailableException extends RuntimeException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    /**
+     * Constructs a new PasswordHashingUnavailableException with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public PasswordHashingUnavailableException(String message) {
+        super(message);
+    }
+}
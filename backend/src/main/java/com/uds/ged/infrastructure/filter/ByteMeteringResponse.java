@@ -0,0 +1,108 @@
+package com.uds.ged.infrastructure.filter;
+
+import io.github.bucket4j.Bucket;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Charges the bytes written to the response body to byte-cost buckets.
+ * <p>
+ * Bytes are charged in batches while the body is written, ignoring the limit, so a
+ * large download drives the bucket into debt and later requests wait until it has
+ * refilled. Whatever is left over is charged by {@link #settle()}.
+ */
+@Slf4j
+class ByteMeteringResponse extends HttpServletResponseWrapper {
+
+    static final int CHARGE_BATCH_BYTES = 1024 * 1024;
+
+    private final List<Bucket> buckets;
+    private ServletOutputStream outputStream;
+    private long pendingBytes;
+
+    ByteMeteringResponse(HttpServletResponse response, List<Bucket> buckets) {
+        super(response);
+        this.buckets = buckets;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new MeteringOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    /**
+     * Charges bytes written since the last batch.
+     */
+    void settle() {
+        if (pendingBytes > 0) {
+            long bytes = pendingBytes;
+            pendingBytes = 0;
+            try {
+                buckets.forEach(bucket -> bucket.consumeIgnoringRateLimits(bytes));
+            } catch (RuntimeException ex) {
+                log.warn("Could not charge {} response bytes to rate limits: {}", bytes, ex.getMessage());
+            }
+        }
+    }
+
+    private void written(long bytes) {
+        pendingBytes += bytes;
+        if (pendingBytes >= CHARGE_BATCH_BYTES) {
+            settle();
+        }
+    }
+
+    private class MeteringOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+
+        MeteringOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            written(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            written(len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                delegate.close();
+            } finally {
+                settle();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
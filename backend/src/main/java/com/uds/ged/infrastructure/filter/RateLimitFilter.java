@@ -4,88 +4,229 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.uds.ged.application.dto.response.ApiResponse;
 import com.uds.ged.config.RateLimitConfig;
+import com.uds.ged.config.RateLimitProperties;
 import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
- * Filter to implement rate limiting on registration endpoint.
- * Uses token bucket algorithm to limit registration attempts per IP address.
- * 
+ * Filter to implement rate limiting on API endpoints.
+ * Uses token bucket algorithm with the rules configured under {@code app.rate-limit.rules}:
+ * each rule matches requests by method and path and keeps one bucket per client IP
+ * or authenticated user. Responses carry {@code RateLimit-*} headers for the
+ * most exhausted matching bucket, and {@code Retry-After} when rejected.
+ *
  * @author GED Team
  * @version 1.0
  * @since 2026-02-22
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class RateLimitFilter extends OncePerRequestFilter {
 
+    static final int MAX_KEY_LENGTH = 255;
+
     private final Cache<String, Bucket> bucketCache;
     private final RateLimitConfig rateLimitConfig;
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final List<RateLimitRule> rules;
+
+    public RateLimitFilter(Cache<String, Bucket> bucketCache,
+                           RateLimitConfig rateLimitConfig,
+                           RateLimitProperties properties,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this.bucketCache = bucketCache;
+        this.rateLimitConfig = rateLimitConfig;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = properties.isEnabled();
+        this.rules = properties.getRules().stream()
+                .map(RateLimitRule::compile)
+                .toList();
+        log.info("Rate limiting {} with rules {}", enabled ? "enabled" : "disabled",
+                rules.stream().map(RateLimitRule::name).collect(Collectors.joining(", ")));
+    }
 
     @Override
-    protected void doFilterInternal(HttpServletRequest request, 
-                                    HttpServletResponse response, 
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
-        
-        String requestURI = request.getRequestURI();
-        
-        if (requestURI.contains("/api/auth/register") && "POST".equals(request.getMethod())) {
-            String clientIp = getClientIP(request);
-            Bucket bucket = bucketCache.get(clientIp, 
-                    k -> rateLimitConfig.createRegistrationBucket());
-            
-            if (bucket.tryConsume(1)) {
-                log.debug("Rate limit check passed for IP: {}", clientIp);
-                filterChain.doFilter(request, response);
-            } else {
-                log.warn("Rate limit exceeded for IP: {} on registration endpoint", clientIp);
-                sendRateLimitExceededResponse(response);
+
+        List<RateLimitRule> matched = enabled ? matchingRules(request) : List.of();
+        if (matched.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        List<Bucket> consumed = new ArrayList<>(matched.size());
+        List<Bucket> byteBuckets = new ArrayList<>();
+        RateLimitRule reported = null;
+        ConsumptionProbe reportedProbe = null;
+
+        for (RateLimitRule rule : matched) {
+            String key = resolveKey(rule.config().getKey(), request);
+            Bucket bucket = bucketCache.get(bucketKey(rule, key),
+                    k -> rateLimitConfig.createBucket(k, rule.config()));
+
+            // Byte-cost rules only require a non-empty bucket up front; the body is charged as it is written
+            ConsumptionProbe probe;
+            try {
+                probe = bucket.tryConsumeAndReturnRemaining(1);
+            } catch (RuntimeException ex) {
+                // Shared bucket store unavailable: let the request through rather than fail it
+                log.warn("Rate limit {} not checked for {}: {}", rule.name(), key, ex.getMessage());
+                continue;
+            }
+            if (!probe.isConsumed()) {
+                refund(consumed);
+                log.warn("Rate limit {} exceeded for {}", rule.name(), key);
+                meterRegistry.counter("ged.ratelimit.rejected", "rule", rule.name()).increment();
+                sendRateLimitExceededResponse(response, rule, probe);
+                return;
+            }
+            consumed.add(bucket);
+            if (rule.config().getCost() == RateLimitProperties.Cost.BYTES) {
+                byteBuckets.add(bucket);
             }
-        } else {
+            if (reported == null || remainingShare(rule, probe) < remainingShare(reported, reportedProbe)) {
+                reported = rule;
+                reportedProbe = probe;
+            }
+        }
+
+        if (reported != null) {
+            setRateLimitHeaders(response, reported, reportedProbe);
+        }
+        if (byteBuckets.isEmpty()) {
             filterChain.doFilter(request, response);
+            return;
+        }
+
+        ByteMeteringResponse meteredResponse = new ByteMeteringResponse(response, byteBuckets);
+        try {
+            filterChain.doFilter(request, meteredResponse);
+        } finally {
+            meteredResponse.settle();
+        }
+    }
+
+    private static String bucketKey(RateLimitRule rule, String key) {
+        String bucketKey = rule.name() + ":" + key;
+        // Bound the stored key to the size of the bucket store's id column
+        return bucketKey.length() > MAX_KEY_LENGTH ? bucketKey.substring(0, MAX_KEY_LENGTH) : bucketKey;
+    }
+
+    private void refund(List<Bucket> consumed) {
+        try {
+            consumed.forEach(bucket -> bucket.addTokens(1));
+        } catch (RuntimeException ex) {
+            log.warn("Could not return rate limit tokens: {}", ex.getMessage());
+        }
+    }
+
+    private List<RateLimitRule> matchingRules(HttpServletRequest request) {
+        String method = request.getMethod();
+        PathContainer path = PathContainer.parsePath(
+                request.getRequestURI().substring(request.getContextPath().length()));
+        List<RateLimitRule> matched = new ArrayList<>(2);
+        for (RateLimitRule rule : rules) {
+            if (rule.matches(method, path)) {
+                matched.add(rule);
+            }
         }
+        return matched;
+    }
+
+    private String resolveKey(RateLimitProperties.KeyType keyType, HttpServletRequest request) {
+        if (keyType == RateLimitProperties.KeyType.USER) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()
+                    && !(authentication instanceof AnonymousAuthenticationToken)) {
+                return "user:" + authentication.getName();
+            }
+        }
+        return "ip:" + getClientIP(request);
     }
 
     /**
-     * Extracts client IP address from request, considering proxy headers.
-     * 
+     * Returns the client address. {@code X-Forwarded-For} is not read here: Tomcat's
+     * RemoteIpValve ({@code server.forward-headers-strategy: native}) applies it only
+     * for requests from trusted proxies, so clients cannot pick their own bucket.
+     *
      * @param request the HTTP request
      * @return client IP address
      */
     private String getClientIP(HttpServletRequest request) {
-        String xfHeader = request.getHeader("X-Forwarded-For");
-        if (xfHeader == null) {
-            return request.getRemoteAddr();
-        }
-        return xfHeader.split(",")[0];
+        return request.getRemoteAddr();
+    }
+
+    private static double remainingShare(RateLimitRule rule, ConsumptionProbe probe) {
+        return (double) probe.getRemainingTokens() / rule.capacity();
+    }
+
+    /**
+     * Sets the {@code RateLimit-*} headers (IETF draft) for a rule: its policy, the
+     * tokens left and the seconds until the bucket is full again.
+     */
+    private void setRateLimitHeaders(HttpServletResponse response, RateLimitRule rule, ConsumptionProbe probe) {
+        long capacity = rule.capacity();
+        long periodNanos = rule.config().getPeriod().toNanos();
+        long remaining = Math.max(0, probe.getRemainingTokens());
+        long nanosToFull = (long) ((double) (capacity - remaining) / capacity * periodNanos);
+
+        response.setHeader("RateLimit-Policy",
+                capacity + ";w=" + rule.config().getPeriod().toSeconds());
+        response.setHeader("RateLimit-Limit", String.valueOf(capacity));
+        response.setHeader("RateLimit-Remaining", String.valueOf(remaining));
+        response.setHeader("RateLimit-Reset", String.valueOf(toSecondsCeil(nanosToFull)));
+    }
+
+    private static long toSecondsCeil(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
     }
 
     /**
      * Sends HTTP 429 (Too Many Requests) response when rate limit is exceeded.
-     * 
+     *
      * @param response the HTTP response
+     * @param rule the rule that rejected the request
+     * @param probe the rejected consumption
      * @throws IOException if writing response fails
      */
-    private void sendRateLimitExceededResponse(HttpServletResponse response) throws IOException {
+    private void sendRateLimitExceededResponse(HttpServletResponse response, RateLimitRule rule,
+                                               ConsumptionProbe probe) throws IOException {
+        setRateLimitHeaders(response, rule, probe);
+        response.setHeader(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.max(1, toSecondsCeil(probe.getNanosToWaitForRefill()))));
         response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
         response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-        
+
         ApiResponse<Void> apiResponse = ApiResponse.error(
-                "Too many registration attempts. Please try again later.");
-        
+                "Too many requests. Please try again later.");
+
         response.getWriter().write(objectMapper.writeValueAsString(apiResponse));
     }
 }
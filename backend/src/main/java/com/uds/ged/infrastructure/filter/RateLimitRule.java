@@ -0,0 +1,56 @@
+package com.uds.ged.infrastructure.filter;
+
+import com.uds.ged.config.RateLimitProperties;
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.Assert;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A rate limit rule with its path patterns parsed once at startup.
+ *
+ * @param config the configured rule, also used to build its buckets
+ * @param methods upper-case HTTP methods, empty for all
+ * @param patterns parsed path patterns
+ */
+record RateLimitRule(RateLimitProperties.Rule config, Set<String> methods, List<PathPattern> patterns) {
+
+    static RateLimitRule compile(RateLimitProperties.Rule config) {
+        Assert.hasText(config.getName(), "Rate limit rule without a name");
+        Assert.notEmpty(config.getPaths(), "Rate limit rule " + config.getName() + " has no paths");
+        Assert.isTrue(config.getCapacity() > 0, "Rate limit rule " + config.getName() + " needs a positive capacity");
+
+        Set<String> methods = config.getMethods().stream()
+                .map(method -> method.toUpperCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        List<PathPattern> patterns = config.getPaths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+        return new RateLimitRule(config, methods, patterns);
+    }
+
+    boolean matches(String method, PathContainer path) {
+        if (!methods.isEmpty() && !methods.contains(method)) {
+            return false;
+        }
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    String name() {
+        return config.getName();
+    }
+
+    long capacity() {
+        return config.getCapacity();
+    }
+}
@@ -0,0 +1,43 @@
+package com.uds.ged.infrastructure.jdbc;
+
+import com.uds.ged.config.RateLimitProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes rate limit buckets that have not been used for the retention period.
+ * An idle bucket has refilled completely, so deleting it changes nothing: it is
+ * created again, full, on the next request.
+ *
+ * @author GED Team
+ * @version 1.0
+ * @since 2026-02-22
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "jdbc")
+public class RateLimitBucketCleaner {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RateLimitProperties properties;
+
+    public RateLimitBucketCleaner(JdbcTemplate jdbcTemplate, RateLimitProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.jdbc.cleanup-interval:PT10M}")
+    public int deleteIdleBuckets() {
+        // Database clock, the one that stamps updated_at on every node
+        int deleted = jdbcTemplate.update(
+                "DELETE FROM rate_limit_buckets WHERE updated_at < CURRENT_TIMESTAMP - ? * INTERVAL '1 second'",
+                properties.getJdbc().getRetention().toSeconds());
+        if (deleted > 0) {
+            log.debug("Deleted {} idle rate limit buckets", deleted);
+        }
+        return deleted;
+    }
+}
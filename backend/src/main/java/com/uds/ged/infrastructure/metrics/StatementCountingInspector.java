@@ -0,0 +1,45 @@
+package com.uds.ged.infrastructure.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate statement inspector counting the SQL statements prepared on the current
+ * thread between {@link #begin()} and {@link #end()}.
+ * <p>
+ * Statements are passed through unchanged; outside a counting scope it is a no-op.
+ *
+ * @author GED Team
+ * @version 1.0
+ * @since 2026-02-22
+ */
+public class StatementCountingInspector implements StatementInspector {
+
+    private final ThreadLocal<int[]> counter = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = counter.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    /**
+     * Starts counting statements on the current thread.
+     */
+    public void begin() {
+        counter.set(new int[1]);
+    }
+
+    /**
+     * Stops counting on the current thread.
+     *
+     * @return statements prepared since {@link #begin()}, or -1 if counting was not started
+     */
+    public int end() {
+        int[] count = counter.get();
+        counter.remove();
+        return count != null ? count[0] : -1;
+    }
+}
@@ -6,6 +6,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -15,6 +16,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
@@ -22,7 +24,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionCache tokenVersionCache;
 
+    /**
+     * Authenticates the request from the token claims alone; the user table is
+     * only read for tokens issued before authorities were embedded.
+     */
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -30,10 +37,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Optional<JwtPrincipal> principal = StringUtils.hasText(jwt)
+                    ? tokenProvider.parseToken(jwt)
+                    : Optional.empty();
 
+            UserDetails userDetails = principal.map(this::toUserDetails).orElse(null);
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails,
@@ -51,6 +60,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails toUserDetails(JwtPrincipal principal) {
+        if (principal.authorities() == null) {
+            return userDetailsService.loadUserByUsername(principal.username());
+        }
+        if (!tokenVersionCache.isCurrent(principal.username(), principal.tokenVersion())) {
+            logger.debug("Rejected revoked token for user " + principal.username());
+            return null;
+        }
+        return new SecurityUser(
+                principal.username(),
+                "",
+                principal.authorities().stream()
+                        .map(SimpleGrantedAuthority::new)
+                        .toList(),
+                principal.tokenVersion());
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -0,0 +1,22 @@
+package com.uds.ged.infrastructure.security;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Verified claims of an access token, extracted once per token.
+ *
+ * @param username the token subject
+ * @param authorities granted authorities, {@code null} for tokens issued before they were embedded
+ * @param tokenVersion the user's token version stamp when the token was issued
+ * @param issuedAt when the token was issued
+ * @param expiresAt when the token expires
+ * @param tokenId the {@code jti} claim, set on refresh tokens only
+ */
+public record JwtPrincipal(String username, List<String> authorities, int tokenVersion,
+                           Instant issuedAt, Instant expiresAt, String tokenId) {
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
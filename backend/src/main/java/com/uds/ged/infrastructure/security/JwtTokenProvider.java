@@ -1,62 +1,252 @@
 package com.uds.ged.infrastructure.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Issues and verifies access tokens.
+ * <p>
+ * The signing key and parser are built once. Verified tokens are cached by their
+ * SHA-256 until they expire, so repeated requests with the same token skip
+ * signature verification and claim parsing; raw tokens are never kept in memory.
+ * <p>
+ * Tokens carry the user's authorities and token version stamp, so requests
+ * can be authenticated without loading the user.
+ * <p>
+ * Refresh tokens are signed with the same key but marked with a {@code token_type}
+ * claim, so neither kind is accepted in place of the other. They carry the same
+ * claims, so an access token can be re-issued from one without loading the user,
+ * plus a {@code jti} under which the caller records the token to make it single-use.
+ */
 @Component
 public class JwtTokenProvider {
 
-    @Value("${app.jwt.secret}")
-    private String jwtSecret;
+    static final String AUTHORITIES_CLAIM = "roles";
+    static final String TOKEN_VERSION_CLAIM = "ver";
+    static final String TOKEN_TYPE_CLAIM = "token_type";
+    static final String REFRESH_TOKEN_TYPE = "refresh";
 
-    @Value("${app.jwt.expiration}")
-    private long jwtExpiration;
+    private final long jwtExpiration;
+    private final long refreshExpiration;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final Cache<String, JwtPrincipal> principalCache;
+    private final Timer cachedTimer;
+    private final Timer verifiedTimer;
+    private final Timer rejectedTimer;
+
+    public JwtTokenProvider(@Value("${app.jwt.secret}") String jwtSecret,
+                            @Value("${app.jwt.expiration}") long jwtExpiration,
+                            @Value("${app.jwt.refresh-expiration:604800000}") long refreshExpiration,
+                            @Value("${app.jwt.cache-size:10000}") long cacheSize,
+                            MeterRegistry meterRegistry) {
+        this.jwtExpiration = jwtExpiration;
+        this.refreshExpiration = refreshExpiration;
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        this.principalCache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, principalCache, "jwtPrincipals");
+        this.cachedTimer = validationTimer(meterRegistry, "cached");
+        this.verifiedTimer = validationTimer(meterRegistry, "verified");
+        this.rejectedTimer = validationTimer(meterRegistry, "rejected");
+    }
+
+    private static Timer validationTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("ged.jwt.validation")
+                .description("Time to validate an access token")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
 
     public String generateToken(Authentication authentication) {
+        return buildToken(authentication, jwtExpiration, null, null);
+    }
+
+    /**
+     * Issues a refresh token, valid for {@code app.jwt.refresh-expiration}, that can
+     * only be exchanged through {@link #parseRefreshToken(String)}.
+     *
+     * @param tokenId the {@code jti} claim, returned as {@link JwtPrincipal#tokenId()} on parse
+     */
+    public String generateRefreshToken(Authentication authentication, String tokenId) {
+        return buildToken(authentication, refreshExpiration, REFRESH_TOKEN_TYPE, tokenId);
+    }
+
+    /**
+     * @return access token lifetime in milliseconds
+     */
+    public long getExpiration() {
+        return jwtExpiration;
+    }
+
+    /**
+     * @return refresh token lifetime in milliseconds
+     */
+    public long getRefreshExpiration() {
+        return refreshExpiration;
+    }
+
+    private String buildToken(Authentication authentication, long expiration, String tokenType, String tokenId) {
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
         Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtExpiration);
+        Date expiryDate = new Date(now.getTime() + expiration);
+        List<String> authorities = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        int tokenVersion = userDetails instanceof SecurityUser securityUser ? securityUser.getTokenVersion() : 0;
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
+                .id(tokenId)
                 .subject(userDetails.getUsername())
+                .claim(AUTHORITIES_CLAIM, authorities)
+                .claim(TOKEN_VERSION_CLAIM, tokenVersion);
+        if (tokenType != null) {
+            builder.claim(TOKEN_TYPE_CLAIM, tokenType);
+        }
+        return builder
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Verifies a token and returns its claims, parsing and checking the signature
+     * at most once per token lifetime.
+     *
+     * @param token the compact JWT
+     * @return the verified principal, or empty if the token is invalid or expired
+     */
+    public Optional<JwtPrincipal> parseToken(String token) {
+        long startNanos = System.nanoTime();
+        String cacheKey = cacheKey(token);
+        JwtPrincipal cached = principalCache.getIfPresent(cacheKey);
+        if (cached != null && !cached.isExpired(Instant.now())) {
+            cachedTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            return Optional.of(cached);
+        }
 
-        return claims.getSubject();
+        Optional<JwtPrincipal> principal = verify(token, cacheKey);
+        (principal.isPresent() ? verifiedTimer : rejectedTimer)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        return principal;
     }
 
-    public boolean validateToken(String token) {
+    private Optional<JwtPrincipal> verify(String token, String cacheKey) {
+        Optional<JwtPrincipal> principal = verifyClaims(token, null);
+        principal.ifPresent(verified -> principalCache.put(cacheKey, verified));
+        return principal;
+    }
+
+    /**
+     * Verifies a refresh token: one signature check, never cached, as each refresh
+     * token is normally presented once.
+     *
+     * @param token the compact JWT
+     * @return the verified principal, or empty if the token is invalid, expired or not a refresh token
+     */
+    public Optional<JwtPrincipal> parseRefreshToken(String token) {
+        return verifyClaims(token, REFRESH_TOKEN_TYPE);
+    }
+
+    private Optional<JwtPrincipal> verifyClaims(String token, String tokenType) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            if (claims.getExpiration() == null
+                    || !Objects.equals(tokenType, claims.get(TOKEN_TYPE_CLAIM, String.class))) {
+                return Optional.empty();
+            }
+            Integer tokenVersion = claims.get(TOKEN_VERSION_CLAIM, Integer.class);
+            return Optional.of(new JwtPrincipal(
+                    claims.getSubject(),
+                    authorities(claims),
+                    tokenVersion != null ? tokenVersion : 0,
+                    claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                    claims.getExpiration().toInstant(),
+                    claims.getId()));
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return Optional.empty();
+        }
+    }
+
+    private static List<String> authorities(Claims claims) {
+        Object value = claims.get(AUTHORITIES_CLAIM);
+        if (!(value instanceof List<?> list)) {
+            return null;
+        }
+        return list.stream()
+                .map(String::valueOf)
+                .toList();
+    }
+
+    public String getUsernameFromToken(String token) {
+        return parseToken(token)
+                .map(JwtPrincipal::username)
+                .orElseThrow(() -> new JwtException("Invalid token"));
+    }
+
+    public boolean validateToken(String token) {
+        return parseToken(token).isPresent();
+    }
+
+    private static String cacheKey(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
         }
     }
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Keeps each cached principal exactly until its token expires.
+     */
+    private static final class UntilTokenExpiry implements Expiry<String, JwtPrincipal> {
+
+        @Override
+        public long expireAfterCreate(String key, JwtPrincipal principal, long currentTime) {
+            return Duration.between(Instant.now(), principal.expiresAt()).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, principal, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -0,0 +1,27 @@
+package com.uds.ged.infrastructure.security;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Authenticated user carrying the token version stamp that is embedded in
+ * the tokens issued to it.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class SecurityUser extends User {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int tokenVersion;
+
+    public SecurityUser(String username, String password,
+                        Collection<? extends GrantedAuthority> authorities, int tokenVersion) {
+        super(username, password, authorities);
+        this.tokenVersion = tokenVersion;
+    }
+}
@@ -0,0 +1,95 @@
+package com.uds.ged.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.uds.ged.domain.repository.UserRepository;
+import com.uds.ged.domain.repository.UserTokenState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Current token version stamp per user, used to reject revoked tokens.
+ * <p>
+ * Entries are refreshed in the background once older than {@code refresh-after},
+ * so authenticated requests only query the database the first time a user is
+ * seen; a revocation takes effect on this node within that interval, or at once
+ * through {@link #evict(String)}.
+ */
+@Component
+public class TokenVersionCache {
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final LoadingCache<String, Optional<Integer>> tokenVersions;
+
+    public TokenVersionCache(UserRepository userRepository,
+                             @Value("${app.jwt.revocation.enabled:true}") boolean enabled,
+                             @Value("${app.jwt.revocation.refresh-after:30s}") Duration refreshAfter,
+                             @Value("${app.jwt.revocation.cache-size:10000}") long cacheSize) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.tokenVersions = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .refreshAfterWrite(refreshAfter)
+                .expireAfterWrite(refreshAfter.multipliedBy(10))
+                .build(userRepository::findTokenVersionByUsername);
+    }
+
+    /**
+     * Checks that a token version is still the user's current one.
+     * Always true when revocation checks are disabled.
+     *
+     * @param username the token subject
+     * @param tokenVersion the version stamp embedded in the token
+     * @return whether the token has not been revoked and the user still exists
+     */
+    public boolean isCurrent(String username, int tokenVersion) {
+        if (!enabled) {
+            return true;
+        }
+        // Not tokenVersions.get(): its loader would run the query inside the cache's
+        // compute lock, pinning the carrier thread when running on virtual threads.
+        Optional<Integer> current = tokenVersions.getIfPresent(username);
+        if (current == null) {
+            current = userRepository.findTokenVersionByUsername(username);
+            tokenVersions.put(username, current);
+        }
+        return current.map(version -> version == tokenVersion).orElse(false);
+    }
+
+    /**
+     * Reads the user's token version and role from the database, bypassing the cache,
+     * and checks the token version like {@link #isCurrent(String, int)}. Used when
+     * issuing new tokens, so they carry the role the user has now.
+     *
+     * @param username the token subject
+     * @param tokenVersion the version stamp embedded in the token
+     * @return the user's current state, or empty if the token was revoked or the user no longer exists
+     */
+    public Optional<UserTokenState> currentState(String username, int tokenVersion) {
+        Optional<UserTokenState> state = userRepository.findTokenStateByUsername(username);
+        tokenVersions.put(username, state.map(UserTokenState::tokenVersion));
+        return state.filter(current -> !enabled || current.tokenVersion() == tokenVersion);
+    }
+
+    /**
+     * Drops the cached version of a user, now and again when the surrounding
+     * transaction completes, so a version read before the commit is not kept.
+     */
+    public void evict(String username) {
+        tokenVersions.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    tokenVersions.invalidate(username);
+                }
+            });
+        }
+    }
+}
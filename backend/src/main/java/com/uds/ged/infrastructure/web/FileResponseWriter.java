@@ -0,0 +1,399 @@
+package com.uds.ged.infrastructure.web;
+
+import com.uds.ged.infrastructure.codec.GzipFileResource;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes stored files to HTTP responses.
+ * <p>
+ * Supports conditional requests (ETag/If-None-Match, Last-Modified/If-Modified-Since),
+ * single and multipart byte ranges with If-Range, and serves file bytes without
+ * copying them through heap buffers: via Tomcat sendfile when the connector supports
+ * it, otherwise via {@link FileChannel#transferTo}. Files stored gzip-compressed are
+ * sent as stored with {@code Content-Encoding: gzip} to clients that accept it, and
+ * decompressed on the fly for the others.
+ * <p>
+ * Sent body bytes are recorded as {@code ged.storage.download.size}, and the time
+ * and throughput of sending them as {@code ged.storage.download} and
+ * {@code ged.storage.download.throughput}, tagged by how the bytes were sent.
+ * Sendfile transfers only count bytes: Tomcat sends them after the request returns.
+ *
+ * @author GED Team
+ * @version 1.0
+ * @since 2026-02-22
+ */
+@Slf4j
+@Component
+public class FileResponseWriter {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * Below this size a plain channel transfer is cheaper than setting up sendfile.
+     * Same threshold as Tomcat's DefaultServlet.
+     */
+    private static final long SENDFILE_THRESHOLD = 48 * 1024;
+
+    private static final String CRLF = "\r\n";
+
+    private static final String MODE_SENDFILE = "sendfile";
+    private static final String MODE_CHANNEL = "channel";
+    private static final String MODE_STREAM = "stream";
+
+    private final MeterRegistry meterRegistry;
+
+    public FileResponseWriter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Writes a stored file, honouring conditional and range headers.
+     *
+     * @param request the HTTP request
+     * @param response the HTTP response
+     * @param resource the stored file
+     * @param contentType the MIME type to send
+     * @param fileName the download file name
+     * @param contentHash hex content hash used as strong ETag, may be {@code null}
+     * @throws IOException if writing the response fails
+     */
+    public void write(HttpServletRequest request, HttpServletResponse response, Resource resource,
+                      String contentType, String fileName, String contentHash) throws IOException {
+        String etag = contentHash != null ? "\"" + contentHash + "\"" : null;
+
+        if (resource instanceof GzipFileResource encoded) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (acceptsGzip(request)) {
+                String encodedEtag = contentHash != null ? "\"" + contentHash + "-gzip\"" : null;
+                writeEncoded(request, response, encoded, contentType, fileName, encodedEtag);
+                return;
+            }
+        }
+
+        if (!resource.isFile()) {
+            writeStream(request, response, resource, contentType, fileName, etag);
+            return;
+        }
+
+        Path file = resource.getFile().toPath();
+        long length = resource.contentLength();
+        long lastModified = resource.lastModified();
+
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        if (webRequest.checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition(fileName));
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null || !ifRangeMatches(request, etag, lastModified)) {
+            response.setContentType(contentType);
+            response.setContentLengthLong(length);
+            transfer(request, response, file, 0, length);
+            return;
+        }
+
+        List<long[]> ranges = resolveRanges(rangeHeader, length);
+        if (ranges == null) {
+            response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            return;
+        }
+
+        response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+        if (ranges.size() == 1) {
+            long start = ranges.get(0)[0];
+            long end = ranges.get(0)[1];
+            response.setContentType(contentType);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, contentRange(start, end, length));
+            response.setContentLengthLong(end - start + 1);
+            transfer(request, response, file, start, end - start + 1);
+        } else {
+            writeMultipart(request, response, file, ranges, contentType, length);
+        }
+    }
+
+    /**
+     * Parses the Range header into inclusive [start, end] pairs.
+     * Returns {@code null} when the ranges are unsatisfiable or, like Spring's own
+     * resource handling, when they add up to more than the file (overlap abuse).
+     */
+    private List<long[]> resolveRanges(String rangeHeader, long length) {
+        try {
+            List<long[]> ranges = new ArrayList<>();
+            long total = 0;
+            for (HttpRange range : HttpRange.parseRanges(rangeHeader)) {
+                long start = range.getRangeStart(length);
+                long end = range.getRangeEnd(length);
+                if (start >= length || end < start) {
+                    return null;
+                }
+                total += end - start + 1;
+                ranges.add(new long[]{start, end});
+            }
+            return ranges.isEmpty() || total > length ? null : ranges;
+        } catch (IllegalArgumentException ex) {
+            log.debug("Unsatisfiable range '{}' for length {}", rangeHeader, length);
+            return null;
+        }
+    }
+
+    /**
+     * If-Range: serve the range only if the validator still matches,
+     * otherwise the whole file is sent.
+     */
+    private boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            long since = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return lastModified / 1000 == since / 1000;
+        } catch (DateTimeParseException ex) {
+            return false;
+        }
+    }
+
+    private void writeMultipart(HttpServletRequest request, HttpServletResponse response, Path file,
+                                List<long[]> ranges, String contentType, long length) throws IOException {
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        byte[] closing = (CRLF + "--" + boundary + "--" + CRLF).getBytes(StandardCharsets.US_ASCII);
+
+        long contentLength = closing.length;
+        for (long[] range : ranges) {
+            byte[] header = (CRLF + "--" + boundary + CRLF
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + CRLF
+                    + HttpHeaders.CONTENT_RANGE + ": " + contentRange(range[0], range[1], length) + CRLF
+                    + CRLF).getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(header);
+            contentLength += header.length + range[1] - range[0] + 1;
+        }
+
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+        if (isHead(request)) {
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        OutputStream outputStream = response.getOutputStream();
+        WritableByteChannel target = Channels.newChannel(outputStream);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (int i = 0; i < ranges.size(); i++) {
+                long[] range = ranges.get(i);
+                outputStream.write(partHeaders.get(i));
+                transferTo(channel, range[0], range[1] - range[0] + 1, target);
+            }
+        }
+        outputStream.write(closing);
+        recordDownload(MODE_CHANNEL, startNanos, contentLength);
+    }
+
+    /**
+     * Sends a file region without copying it through the heap.
+     */
+    private void transfer(HttpServletRequest request, HttpServletResponse response,
+                          Path file, long start, long count) throws IOException {
+        if (isHead(request) || count == 0) {
+            return;
+        }
+
+        if (count >= SENDFILE_THRESHOLD && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            recordDownload(MODE_SENDFILE, 0, count);
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            transferTo(channel, start, count, Channels.newChannel(response.getOutputStream()));
+        }
+        recordDownload(MODE_CHANNEL, startNanos, count);
+    }
+
+    private void transferTo(FileChannel channel, long position, long count,
+                            WritableByteChannel target) throws IOException {
+        long remaining = count;
+        while (remaining > 0) {
+            long transferred = channel.transferTo(position, remaining, target);
+            if (transferred <= 0) {
+                throw new IOException("File truncated while sending");
+            }
+            position += transferred;
+            remaining -= transferred;
+        }
+    }
+
+    /**
+     * Sends a compressed file as stored. The gzip representation has its own ETag
+     * and is sent whole: byte ranges would address compressed bytes.
+     */
+    private void writeEncoded(HttpServletRequest request, HttpServletResponse response, GzipFileResource resource,
+                              String contentType, String fileName, String etag) throws IOException {
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        if (webRequest.checkNotModified(etag, resource.lastModified())) {
+            return;
+        }
+
+        long length = resource.encodedLength();
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "none");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition(fileName));
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, GzipFileResource.CONTENT_ENCODING);
+        response.setContentType(contentType);
+        response.setContentLengthLong(length);
+        transfer(request, response, resource.getEncodedFile(), 0, length);
+    }
+
+    /**
+     * Whether Accept-Encoding allows gzip with a non-zero quality, explicitly or,
+     * when gzip is not listed, through {@code *}.
+     */
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase(GzipFileResource.CONTENT_ENCODING)) {
+                return quality(parts) > 0;
+            }
+            if (name.equals("*")) {
+                wildcard = quality(parts) > 0;
+            }
+        }
+        return wildcard;
+    }
+
+    private static double quality(String[] codingParts) {
+        for (int i = 1; i < codingParts.length; i++) {
+            String param = codingParts[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2));
+                } catch (NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Resources that are not plain files (e.g. decoded streams) are sent whole,
+     * without range support.
+     */
+    private void writeStream(HttpServletRequest request, HttpServletResponse response, Resource resource,
+                             String contentType, String fileName, String etag) throws IOException {
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        if (webRequest.checkNotModified(etag)) {
+            return;
+        }
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "none");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition(fileName));
+        response.setContentType(contentType);
+        if (isHead(request)) {
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        long bytes;
+        try (InputStream inputStream = resource.getInputStream()) {
+            bytes = inputStream.transferTo(response.getOutputStream());
+        }
+        recordDownload(MODE_STREAM, startNanos, bytes);
+    }
+
+    /**
+     * Records a sent body. Sendfile transfers happen after the request returns,
+     * so only their size is known here.
+     */
+    private void recordDownload(String mode, long startNanos, long bytes) {
+        DistributionSummary.builder("ged.storage.download.size")
+                .description("Body bytes sent per file download")
+                .baseUnit(BaseUnits.BYTES)
+                .tag("mode", mode)
+                .register(meterRegistry)
+                .record(bytes);
+        if (MODE_SENDFILE.equals(mode)) {
+            return;
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        Timer.builder("ged.storage.download")
+                .description("Time to send a file body to the client")
+                .tag("mode", mode)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (elapsedNanos > 0) {
+            DistributionSummary.builder("ged.storage.download.throughput")
+                    .description("Bytes sent per second of send time")
+                    .baseUnit("bytes.per.second")
+                    .tag("mode", mode)
+                    .register(meterRegistry)
+                    .record(bytes * 1_000_000_000d / elapsedNanos);
+        }
+    }
+
+    private static String contentRange(long start, long end, long length) {
+        return "bytes " + start + "-" + end + "/" + length;
+    }
+
+    private static String contentDisposition(String fileName) {
+        return ContentDisposition.attachment()
+                .filename(fileName, StandardCharsets.UTF_8)
+                .build()
+                .toString();
+    }
+
+    private static boolean isHead(HttpServletRequest request) {
+        return "HEAD".equals(request.getMethod());
+    }
+}
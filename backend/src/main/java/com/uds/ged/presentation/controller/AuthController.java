@@ -1,14 +1,18 @@
 package com.uds.ged.presentation.controller;
 
 import com.uds.ged.application.dto.request.LoginRequest;
+import com.uds.ged.application.dto.request.RefreshTokenRequest;
 import com.uds.ged.application.dto.request.RegisterRequest;
 import com.uds.ged.application.dto.response.ApiResponse;
 import com.uds.ged.application.dto.response.AuthResponse;
 import com.uds.ged.application.service.AuthService;
+import com.uds.ged.infrastructure.exception.UnauthorizedException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -31,6 +35,39 @@ public class AuthController {
                 .body(ApiResponse.success(response, "User registered successfully"));
     }
 
+    /**
+     * Issues new tokens for a valid refresh token; the old refresh token should be discarded.
+     *
+     * @param request the refresh token
+     * @return new access and refresh tokens
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse<AuthResponse>> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        AuthResponse response = authService.refresh(request);
+        return ResponseEntity.ok(ApiResponse.success(response, "Token refreshed"));
+    }
+
+    /**
+     * Revokes all tokens of the user, identified by the access token or, once that
+     * has expired, by the refresh token in the body.
+     *
+     * @param authentication the authenticated user, null without a valid access token
+     * @param request the refresh token, optional when the access token is valid
+     * @return empty success response
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<Void>> logout(Authentication authentication,
+                                                    @RequestBody(required = false) RefreshTokenRequest request) {
+        if (authentication != null) {
+            authService.logout(authentication.getName());
+        } else if (request != null && StringUtils.hasText(request.getRefreshToken())) {
+            authService.logout(request);
+        } else {
+            throw new UnauthorizedException("Authentication required");
+        }
+        return ResponseEntity.ok(ApiResponse.success(null, "Logout successful"));
+    }
+
     /**
      * Checks if a username is available for registration.
      *
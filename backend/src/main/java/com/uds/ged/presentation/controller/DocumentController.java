@@ -1,26 +1,39 @@
 package com.uds.ged.presentation.controller;
 
+import com.uds.ged.application.dto.request.DocumentBatchCreateRequest;
+import com.uds.ged.application.dto.request.DocumentBatchStatusRequest;
 import com.uds.ged.application.dto.request.DocumentCreateRequest;
 import com.uds.ged.application.dto.request.DocumentStatusRequest;
 import com.uds.ged.application.dto.request.DocumentUpdateRequest;
 import com.uds.ged.application.dto.response.ApiResponse;
+import com.uds.ged.application.dto.response.BatchResponse;
+import com.uds.ged.application.dto.response.CursorPageResponse;
 import com.uds.ged.application.dto.response.DocumentResponse;
 import com.uds.ged.application.dto.response.DocumentVersionResponse;
 import com.uds.ged.application.dto.response.PageResponse;
+import com.uds.ged.application.service.DocumentBatchService;
+import com.uds.ged.application.service.DocumentExportService;
 import com.uds.ged.application.service.DocumentService;
 import com.uds.ged.domain.model.enums.DocumentStatus;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 @RestController
@@ -28,7 +41,11 @@ import java.util.List;
 @RequiredArgsConstructor
 public class DocumentController {
 
+    private static final DateTimeFormatter EXPORT_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
     private final DocumentService documentService;
+    private final DocumentBatchService documentBatchService;
+    private final DocumentExportService documentExportService;
 
     @PostMapping
     public ResponseEntity<ApiResponse<DocumentResponse>> createDocument(
@@ -39,14 +56,33 @@ public class DocumentController {
                 .body(ApiResponse.success(response, "Document created successfully"));
     }
 
+    /**
+     * Creates up to {@link DocumentBatchCreateRequest#MAX_ITEMS} documents owned by the caller.
+     * Invalid items are reported per item and do not prevent the others from being created.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<BatchResponse>> createDocuments(
+            @Valid @RequestBody DocumentBatchCreateRequest request,
+            Authentication authentication) {
+        BatchResponse response = documentBatchService.createDocuments(request.getDocuments(), authentication.getName());
+        return ResponseEntity.ok(ApiResponse.success(response,
+                response.getSucceeded() + " documents created, " + response.getFailed() + " failed"));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<DocumentResponse>> getDocument(@PathVariable Long id) {
         DocumentResponse response = documentService.getDocumentById(id);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    /**
+     * Lists documents with offset pagination.
+     * When {@code q} is given, runs a full-text search over title, tags and description
+     * instead: results are ordered by relevance and {@code title}/{@code sortBy} are ignored.
+     */
     @GetMapping
     public ResponseEntity<ApiResponse<PageResponse<DocumentResponse>>> getAllDocuments(
+            @RequestParam(required = false) String q,
             @RequestParam(required = false) String title,
             @RequestParam(required = false) DocumentStatus status,
             @RequestParam(defaultValue = "0") int page,
@@ -54,6 +90,12 @@ public class DocumentController {
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "DESC") String sortDirection) {
 
+        if (StringUtils.hasText(q)) {
+            PageResponse<DocumentResponse> response =
+                    documentService.fullTextSearch(q, status, PageRequest.of(page, size));
+            return ResponseEntity.ok(ApiResponse.success(response));
+        }
+
         Sort.Direction direction = Sort.Direction.fromString(sortDirection);
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
 
@@ -64,6 +106,44 @@ public class DocumentController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    /**
+     * Keyset (cursor) pagination mode, selected by the presence of {@code after}.
+     * Send an empty {@code after} for the first page and then the returned
+     * {@code nextCursor}. No total count is computed.
+     */
+    @GetMapping(params = "after")
+    public ResponseEntity<ApiResponse<CursorPageResponse<DocumentResponse>>> getDocumentsByCursor(
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) DocumentStatus status,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDirection) {
+
+        Sort.Direction direction = Sort.Direction.fromString(sortDirection);
+        CursorPageResponse<DocumentResponse> response =
+                documentService.getDocumentsByCursor(title, status, sortBy, direction, after, size);
+
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    /**
+     * Streams the current version file of every matching document as a ZIP archive.
+     * Takes the listing filters ({@code q}, {@code title}, {@code status}); paging
+     * and sorting do not apply.
+     */
+    @GetMapping("/export.zip")
+    public void exportDocuments(@RequestParam(required = false) String q,
+                                @RequestParam(required = false) String title,
+                                @RequestParam(required = false) DocumentStatus status,
+                                HttpServletResponse response) throws IOException {
+        String fileName = "documents-" + LocalDateTime.now().format(EXPORT_TIMESTAMP) + ".zip";
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(fileName).build().toString());
+        documentExportService.exportCurrentVersions(q, title, status, response.getOutputStream());
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<DocumentResponse>> updateDocument(
             @PathVariable Long id,
@@ -80,6 +160,17 @@ public class DocumentController {
         return ResponseEntity.ok(ApiResponse.success(response, "Document status updated successfully"));
     }
 
+    /**
+     * Sets the same status on many documents; unknown IDs are reported per item.
+     */
+    @PatchMapping("/batch/status")
+    public ResponseEntity<ApiResponse<BatchResponse>> updateDocumentsStatus(
+            @Valid @RequestBody DocumentBatchStatusRequest request) {
+        BatchResponse response = documentBatchService.updateStatus(request);
+        return ResponseEntity.ok(ApiResponse.success(response,
+                response.getSucceeded() + " documents updated, " + response.getFailed() + " failed"));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<Void>> deleteDocument(@PathVariable Long id) {
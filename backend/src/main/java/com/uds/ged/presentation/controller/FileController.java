@@ -4,13 +4,15 @@ import com.uds.ged.application.service.FileStorageService;
 import com.uds.ged.domain.model.DocumentVersion;
 import com.uds.ged.domain.repository.DocumentVersionRepository;
 import com.uds.ged.infrastructure.exception.ResourceNotFoundException;
+import com.uds.ged.infrastructure.web.FileResponseWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+
 @RestController
 @RequestMapping("/api/files")
 @RequiredArgsConstructor
@@ -18,9 +20,17 @@ public class FileController {
 
     private final FileStorageService fileStorageService;
     private final DocumentVersionRepository versionRepository;
+    private final FileResponseWriter fileResponseWriter;
 
+    /**
+     * Downloads a version file.
+     * Supports byte ranges (Range/If-Range) and conditional GET (ETag/Last-Modified),
+     * the ETag being the stored content hash.
+     */
     @GetMapping("/{versionId}")
-    public ResponseEntity<Resource> downloadFile(@PathVariable Long versionId) {
+    public void downloadFile(@PathVariable Long versionId,
+                             HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
         DocumentVersion version = versionRepository.findById(versionId)
                 .orElseThrow(() -> new ResourceNotFoundException("DocumentVersion", "id", versionId));
 
@@ -31,10 +41,7 @@ public class FileController {
             contentType = "application/octet-stream";
         }
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "attachment; filename=\"" + version.getFileName() + "\"")
-                .body(resource);
+        fileResponseWriter.write(request, response, resource, contentType,
+                version.getFileName(), version.getContentHash());
     }
 }
@@ -0,0 +1,78 @@
+package com.uds.ged.presentation.controller;
+
+import com.uds.ged.application.dto.request.UploadSessionCreateRequest;
+import com.uds.ged.application.dto.response.ApiResponse;
+import com.uds.ged.application.dto.response.DocumentVersionResponse;
+import com.uds.ged.application.dto.response.UploadSessionResponse;
+import com.uds.ged.application.service.UploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * Resumable chunked uploads of document versions.
+ * Chunk bodies are raw bytes, streamed straight into the upload's part file.
+ */
+@RestController
+@RequestMapping("/api/documents/{documentId}/uploads")
+@RequiredArgsConstructor
+public class UploadController {
+
+    private final UploadService uploadService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<UploadSessionResponse>> createUpload(
+            @PathVariable Long documentId,
+            @Valid @RequestBody UploadSessionCreateRequest request,
+            Authentication authentication) {
+        UploadSessionResponse response = uploadService.createSession(documentId, request, authentication.getName());
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success(response, "Upload session created successfully"));
+    }
+
+    @PutMapping("/{uploadId}/chunks/{offset}")
+    public ResponseEntity<ApiResponse<Void>> uploadChunk(
+            @PathVariable Long documentId,
+            @PathVariable String uploadId,
+            @PathVariable long offset,
+            HttpServletRequest request,
+            Authentication authentication) throws IOException {
+        uploadService.writeChunk(documentId, uploadId, offset, request.getContentLengthLong(),
+                request.getInputStream(), authentication.getName());
+        return ResponseEntity.ok(ApiResponse.success(null, "Chunk received"));
+    }
+
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<ApiResponse<UploadSessionResponse>> getUpload(
+            @PathVariable Long documentId,
+            @PathVariable String uploadId,
+            Authentication authentication) {
+        UploadSessionResponse response = uploadService.getSession(documentId, uploadId, authentication.getName());
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<ApiResponse<DocumentVersionResponse>> completeUpload(
+            @PathVariable Long documentId,
+            @PathVariable String uploadId,
+            Authentication authentication) {
+        DocumentVersionResponse response = uploadService.completeUpload(documentId, uploadId, authentication.getName());
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success(response, "Version uploaded successfully"));
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<ApiResponse<Void>> abortUpload(
+            @PathVariable Long documentId,
+            @PathVariable String uploadId,
+            Authentication authentication) {
+        uploadService.abortUpload(documentId, uploadId, authentication.getName());
+        return ResponseEntity.ok(ApiResponse.success(null, "Upload aborted"));
+    }
+}
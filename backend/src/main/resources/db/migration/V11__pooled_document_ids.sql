@@ -0,0 +1,4 @@
+-- Pooled ID allocation for documents: Hibernate reserves 50 IDs per nextval
+-- instead of relying on IDENTITY, which rules out JDBC insert batching.
+-- The column default keeps working; it simply advances in steps of 50.
+ALTER SEQUENCE documents_id_seq INCREMENT BY 50;
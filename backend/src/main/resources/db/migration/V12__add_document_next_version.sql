@@ -0,0 +1,6 @@
+-- Per-document version counter: uploads allocate their number with one UPDATE
+-- on the document row instead of MAX(version_number) + 1.
+ALTER TABLE documents ADD COLUMN next_version INTEGER NOT NULL DEFAULT 1;
+
+UPDATE documents d
+SET next_version = COALESCE((SELECT MAX(v.version_number) FROM document_versions v WHERE v.document_id = d.id), 0) + 1;
@@ -0,0 +1,15 @@
+-- Stored files released by committed transactions (e.g. document deletion),
+-- removed from disk afterwards by a background worker with retry and backoff
+CREATE TABLE file_deletion_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    file_key VARCHAR(500) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000),
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Pooled allocation so a document's keys are enqueued as one JDBC batch
+ALTER SEQUENCE file_deletion_outbox_id_seq INCREMENT BY 50;
+
+CREATE INDEX idx_file_deletion_outbox_next_attempt ON file_deletion_outbox(next_attempt_at);
@@ -0,0 +1,3 @@
+-- Lets storage reconciliation check scanned file keys against the versions
+-- that reference them in large IN batches instead of sequential scans.
+CREATE INDEX idx_document_versions_file_key ON document_versions(file_key);
@@ -0,0 +1,20 @@
+-- Rate limit buckets shared by all nodes (Bucket4j serialized state, keyed by rule and client).
+-- UNLOGGED: no WAL for these frequent small updates; after a crash buckets start full again
+CREATE UNLOGGED TABLE rate_limit_buckets (
+    id VARCHAR(255) PRIMARY KEY,
+    state BYTEA,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Bucket4j only writes the state column; keep updated_at current for the cleanup of idle buckets.
+-- Not indexed, so that updates stay HOT; the periodic cleanup scans the table
+CREATE OR REPLACE FUNCTION rate_limit_buckets_touch() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.updated_at := CURRENT_TIMESTAMP;
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_rate_limit_buckets_touch
+    BEFORE UPDATE OF state ON rate_limit_buckets
+    FOR EACH ROW EXECUTE FUNCTION rate_limit_buckets_touch();
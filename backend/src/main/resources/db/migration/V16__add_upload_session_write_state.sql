@@ -0,0 +1,4 @@
+-- Chunk writes in progress and completion start: completion waits for running
+-- writes, and chunks are rejected once completion has started
+ALTER TABLE upload_sessions ADD COLUMN active_writes INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE upload_sessions ADD COLUMN completing_at TIMESTAMP;
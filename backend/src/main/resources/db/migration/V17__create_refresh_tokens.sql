@@ -0,0 +1,10 @@
+-- Issued refresh tokens, by their jti: each may be exchanged once. Presenting
+-- one that was already used revokes all tokens of its user.
+CREATE TABLE refresh_tokens (
+    id VARCHAR(36) PRIMARY KEY,
+    username VARCHAR(50) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    used_at TIMESTAMP
+);
+
+CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens(expires_at);
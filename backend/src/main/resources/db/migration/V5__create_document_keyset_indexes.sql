@@ -0,0 +1,2 @@
+CREATE INDEX idx_documents_created_at_id ON documents(created_at, id);
+CREATE INDEX idx_documents_updated_at_id ON documents(updated_at, id);
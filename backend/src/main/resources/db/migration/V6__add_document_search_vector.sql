@@ -0,0 +1,40 @@
+ALTER TABLE documents ADD COLUMN search_vector TSVECTOR;
+
+-- Weighted document vector: title (A), tags (B), description (C)
+CREATE OR REPLACE FUNCTION documents_search_vector(doc_id BIGINT, doc_title TEXT, doc_description TEXT)
+RETURNS TSVECTOR AS $$
+    SELECT setweight(to_tsvector('simple', coalesce(doc_title, '')), 'A')
+        || setweight(to_tsvector('simple', coalesce(
+               (SELECT string_agg(tag, ' ') FROM document_tags WHERE document_id = doc_id), '')), 'B')
+        || setweight(to_tsvector('simple', coalesce(doc_description, '')), 'C');
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION documents_search_vector_update() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.search_vector := documents_search_vector(NEW.id, NEW.title, NEW.description);
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_documents_search_vector
+    BEFORE INSERT OR UPDATE OF title, description ON documents
+    FOR EACH ROW EXECUTE FUNCTION documents_search_vector_update();
+
+CREATE OR REPLACE FUNCTION document_tags_search_vector_update() RETURNS TRIGGER AS $$
+DECLARE
+    target_id BIGINT := CASE WHEN TG_OP = 'DELETE' THEN OLD.document_id ELSE NEW.document_id END;
+BEGIN
+    UPDATE documents
+    SET search_vector = documents_search_vector(id, title, description)
+    WHERE id = target_id;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_document_tags_search_vector
+    AFTER INSERT OR UPDATE OR DELETE ON document_tags
+    FOR EACH ROW EXECUTE FUNCTION document_tags_search_vector_update();
+
+UPDATE documents SET search_vector = documents_search_vector(id, title, description);
+
+CREATE INDEX idx_documents_search_vector ON documents USING GIN (search_vector);
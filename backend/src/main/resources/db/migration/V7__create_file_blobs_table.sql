@@ -0,0 +1,9 @@
+CREATE TABLE file_blobs (
+    content_hash VARCHAR(64) PRIMARY KEY,
+    storage_key VARCHAR(500) NOT NULL,
+    size BIGINT NOT NULL,
+    ref_count INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+ALTER TABLE document_versions ADD COLUMN content_hash VARCHAR(64);
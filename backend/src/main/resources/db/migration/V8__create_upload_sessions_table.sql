@@ -0,0 +1,23 @@
+CREATE TABLE upload_sessions (
+    id VARCHAR(36) PRIMARY KEY,
+    document_id BIGINT NOT NULL,
+    file_name VARCHAR(255) NOT NULL,
+    mime_type VARCHAR(100) NOT NULL,
+    total_size BIGINT NOT NULL,
+    chunk_size INTEGER NOT NULL,
+    content_hash VARCHAR(64),
+    created_by BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_upload_sessions_document FOREIGN KEY (document_id) REFERENCES documents(id) ON DELETE CASCADE,
+    CONSTRAINT fk_upload_sessions_user FOREIGN KEY (created_by) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_upload_sessions_expires_at ON upload_sessions(expires_at);
+
+CREATE TABLE upload_chunks (
+    upload_id VARCHAR(36) NOT NULL,
+    chunk_offset BIGINT NOT NULL,
+    CONSTRAINT pk_upload_chunks PRIMARY KEY (upload_id, chunk_offset),
+    CONSTRAINT fk_upload_chunks_session FOREIGN KEY (upload_id) REFERENCES upload_sessions(id) ON DELETE CASCADE
+);
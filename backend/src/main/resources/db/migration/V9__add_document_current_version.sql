@@ -0,0 +1,4 @@
+ALTER TABLE documents ADD COLUMN current_version INTEGER;
+
+UPDATE documents d
+SET current_version = (SELECT MAX(v.version_number) FROM document_versions v WHERE v.document_id = d.id);
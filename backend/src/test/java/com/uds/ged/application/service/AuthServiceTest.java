@@ -1,33 +1,45 @@
 package com.uds.ged.application.service;
 
 import com.uds.ged.application.dto.request.LoginRequest;
+import com.uds.ged.application.dto.request.RefreshTokenRequest;
 import com.uds.ged.application.dto.request.RegisterRequest;
 import com.uds.ged.application.dto.response.AuthResponse;
 import com.uds.ged.infrastructure.exception.EmailAlreadyExistsException;
 import com.uds.ged.infrastructure.exception.PasswordMismatchException;
+import com.uds.ged.infrastructure.exception.UnauthorizedException;
 import com.uds.ged.infrastructure.exception.UsernameAlreadyExistsException;
+import com.uds.ged.domain.model.RefreshToken;
 import com.uds.ged.domain.model.User;
 import com.uds.ged.domain.model.enums.UserRole;
+import com.uds.ged.domain.repository.RefreshTokenRepository;
 import com.uds.ged.domain.repository.UserRepository;
+import com.uds.ged.domain.repository.UserTokenState;
+import com.uds.ged.infrastructure.security.JwtPrincipal;
 import com.uds.ged.infrastructure.security.JwtTokenProvider;
+import com.uds.ged.infrastructure.security.TokenVersionCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -45,6 +57,15 @@ class AuthServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private TokenVersionCache tokenVersionCache;
+
+    @Mock
+    private RegisteredUserFilter registeredUserFilter;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
     @InjectMocks
     private AuthService authService;
 
@@ -81,12 +102,17 @@ class AuthServiceTest {
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(authentication);
         when(tokenProvider.generateToken(authentication)).thenReturn(expectedToken);
+        when(tokenProvider.generateRefreshToken(eq(authentication), anyString())).thenReturn("refresh.token.here");
+        when(tokenProvider.getExpiration()).thenReturn(900_000L);
+        when(tokenProvider.getRefreshExpiration()).thenReturn(604_800_000L);
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
 
         AuthResponse response = authService.login(loginRequest);
 
         assertThat(response).isNotNull();
         assertThat(response.getToken()).isEqualTo(expectedToken);
+        assertThat(response.getRefreshToken()).isEqualTo("refresh.token.here");
+        assertThat(response.getExpiresIn()).isEqualTo(900);
         assertThat(response.getType()).isEqualTo("Bearer");
         assertThat(response.getUsername()).isEqualTo("testuser");
         assertThat(response.getEmail()).isEqualTo("test@example.com");
@@ -95,6 +121,11 @@ class AuthServiceTest {
         verify(authenticationManager, times(1)).authenticate(any(UsernamePasswordAuthenticationToken.class));
         verify(tokenProvider, times(1)).generateToken(authentication);
         verify(userRepository, times(1)).findByUsername("testuser");
+        ArgumentCaptor<RefreshToken> stored = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(stored.capture());
+        verify(tokenProvider).generateRefreshToken(authentication, stored.getValue().getId());
+        assertThat(stored.getValue().getUsername()).isEqualTo("testuser");
+        assertThat(stored.getValue().getUsedAt()).isNull();
     }
 
     @Test
@@ -117,7 +148,6 @@ class AuthServiceTest {
     @Test
     @DisplayName("Should successfully register new user")
     void shouldRegisterUserSuccessfully() {
-        Authentication authentication = mock(Authentication.class);
         String expectedToken = "jwt.token.here";
         User savedUser = User.builder()
                 .id(1L)
@@ -131,9 +161,7 @@ class AuthServiceTest {
         when(userRepository.existsByEmail("newuser@example.com")).thenReturn(false);
         when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
         when(userRepository.save(any(User.class))).thenReturn(savedUser);
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenReturn(authentication);
-        when(tokenProvider.generateToken(authentication)).thenReturn(expectedToken);
+        when(tokenProvider.generateToken(any(Authentication.class))).thenReturn(expectedToken);
 
         AuthResponse response = authService.register(registerRequest);
 
@@ -148,6 +176,9 @@ class AuthServiceTest {
         verify(userRepository, times(1)).existsByEmail("newuser@example.com");
         verify(passwordEncoder, times(1)).encode("password123");
         verify(userRepository, times(1)).save(any(User.class));
+        verify(authenticationManager, never()).authenticate(any());
+        verify(passwordEncoder, never()).matches(anyString(), anyString());
+        verify(registeredUserFilter).add("newuser", "newuser@example.com");
     }
 
     @Test
@@ -194,7 +225,6 @@ class AuthServiceTest {
     @DisplayName("Should register user with ADMIN role when specified")
     void shouldRegisterUserWithAdminRole() {
         registerRequest.setRole(UserRole.ADMIN);
-        Authentication authentication = mock(Authentication.class);
         String expectedToken = "jwt.token.here";
         User savedUser = User.builder()
                 .id(1L)
@@ -208,9 +238,7 @@ class AuthServiceTest {
         when(userRepository.existsByEmail("newuser@example.com")).thenReturn(false);
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
         when(userRepository.save(any(User.class))).thenReturn(savedUser);
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenReturn(authentication);
-        when(tokenProvider.generateToken(authentication)).thenReturn(expectedToken);
+        when(tokenProvider.generateToken(any(Authentication.class))).thenReturn(expectedToken);
 
         AuthResponse response = authService.register(registerRequest);
 
@@ -220,17 +248,137 @@ class AuthServiceTest {
     @Test
     @DisplayName("Should encode password before saving")
     void shouldEncodePasswordBeforeSaving() {
-        Authentication authentication = mock(Authentication.class);
         when(userRepository.existsByUsername(anyString())).thenReturn(false);
         when(userRepository.existsByEmail(anyString())).thenReturn(false);
         when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
         when(userRepository.save(any(User.class))).thenReturn(testUser);
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenReturn(authentication);
-        when(tokenProvider.generateToken(authentication)).thenReturn("token");
+        when(tokenProvider.generateToken(any(Authentication.class))).thenReturn("token");
 
         authService.register(registerRequest);
 
         verify(passwordEncoder, times(1)).encode("password123");
     }
+
+    @Test
+    @DisplayName("Should issue new tokens with the current role without checking the password")
+    void shouldRefreshTokens() {
+        JwtPrincipal principal = new JwtPrincipal("testuser", List.of("ROLE_ADMIN"), 2,
+                Instant.now(), Instant.now().plusSeconds(60), "token-1");
+        when(tokenProvider.parseRefreshToken("refresh.token")).thenReturn(Optional.of(principal));
+        when(tokenVersionCache.currentState("testuser", 2))
+                .thenReturn(Optional.of(new UserTokenState(2, UserRole.USER)));
+        when(refreshTokenRepository.markUsed(eq("token-1"), any())).thenReturn(1);
+        when(tokenProvider.generateToken(any(Authentication.class))).thenReturn("new.access");
+        when(tokenProvider.generateRefreshToken(any(Authentication.class), anyString())).thenReturn("new.refresh");
+
+        AuthResponse response = authService.refresh(new RefreshTokenRequest("refresh.token"));
+
+        assertThat(response.getToken()).isEqualTo("new.access");
+        assertThat(response.getRefreshToken()).isEqualTo("new.refresh");
+        assertThat(response.getUsername()).isEqualTo("testuser");
+        // Demoted since the refresh token was issued
+        assertThat(response.getRole()).isEqualTo("USER");
+        ArgumentCaptor<Authentication> authentication = ArgumentCaptor.forClass(Authentication.class);
+        verify(tokenProvider).generateToken(authentication.capture());
+        assertThat(authentication.getValue().getAuthorities())
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_USER");
+        verify(refreshTokenRepository).save(any(RefreshToken.class));
+        verifyNoInteractions(authenticationManager, passwordEncoder, userRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject a second use of a refresh token and revoke all tokens of the user")
+    void shouldRevokeTokensOnRefreshTokenReuse() {
+        JwtPrincipal principal = new JwtPrincipal("testuser", List.of("ROLE_USER"), 2,
+                Instant.now(), Instant.now().plusSeconds(60), "token-1");
+        when(tokenProvider.parseRefreshToken("refresh.token")).thenReturn(Optional.of(principal));
+        when(tokenVersionCache.currentState("testuser", 2))
+                .thenReturn(Optional.of(new UserTokenState(2, UserRole.USER)));
+        when(refreshTokenRepository.markUsed(eq("token-1"), any())).thenReturn(1, 0);
+        when(refreshTokenRepository.existsById("token-1")).thenReturn(true);
+        when(tokenProvider.generateRefreshToken(any(Authentication.class), anyString())).thenReturn("new.refresh");
+
+        authService.refresh(new RefreshTokenRequest("refresh.token"));
+
+        assertThatThrownBy(() -> authService.refresh(new RefreshTokenRequest("refresh.token")))
+                .isInstanceOf(UnauthorizedException.class)
+                .hasMessageContaining("already used");
+        verify(tokenProvider, times(1)).generateRefreshToken(any(Authentication.class), anyString());
+        verify(userRepository).incrementTokenVersion("testuser");
+        verify(tokenVersionCache).evict("testuser");
+    }
+
+    @Test
+    @DisplayName("Should reject refresh tokens without a recorded ID without revoking")
+    void shouldRejectUnknownRefreshToken() {
+        JwtPrincipal unknown = new JwtPrincipal("testuser", List.of("ROLE_USER"), 2,
+                Instant.now(), Instant.now().plusSeconds(60), "unknown");
+        JwtPrincipal legacy = new JwtPrincipal("testuser", List.of("ROLE_USER"), 2,
+                Instant.now(), Instant.now().plusSeconds(60), null);
+        when(tokenProvider.parseRefreshToken("unknown")).thenReturn(Optional.of(unknown));
+        when(tokenProvider.parseRefreshToken("legacy")).thenReturn(Optional.of(legacy));
+        when(tokenVersionCache.currentState("testuser", 2))
+                .thenReturn(Optional.of(new UserTokenState(2, UserRole.USER)));
+        when(refreshTokenRepository.markUsed(eq("unknown"), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> authService.refresh(new RefreshTokenRequest("unknown")))
+                .isInstanceOf(UnauthorizedException.class);
+        assertThatThrownBy(() -> authService.refresh(new RefreshTokenRequest("legacy")))
+                .isInstanceOf(UnauthorizedException.class);
+        verify(userRepository, never()).incrementTokenVersion(anyString());
+        verify(tokenProvider, never()).generateToken(any());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid and revoked refresh tokens")
+    void shouldRejectRevokedRefreshToken() {
+        JwtPrincipal principal = new JwtPrincipal("testuser", List.of("ROLE_USER"), 2,
+                Instant.now(), Instant.now().plusSeconds(60), "token-1");
+        when(tokenProvider.parseRefreshToken("revoked")).thenReturn(Optional.of(principal));
+        when(tokenProvider.parseRefreshToken("invalid")).thenReturn(Optional.empty());
+        when(tokenVersionCache.currentState("testuser", 2)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> authService.refresh(new RefreshTokenRequest("revoked")))
+                .isInstanceOf(UnauthorizedException.class);
+        assertThatThrownBy(() -> authService.refresh(new RefreshTokenRequest("invalid")))
+                .isInstanceOf(UnauthorizedException.class);
+        verify(tokenProvider, never()).generateToken(any());
+    }
+
+    @Test
+    @DisplayName("Should revoke all tokens on logout")
+    void shouldRevokeTokensOnLogout() {
+        authService.logout("testuser");
+
+        verify(userRepository).incrementTokenVersion("testuser");
+        verify(tokenVersionCache).evict("testuser");
+    }
+
+    @Test
+    @DisplayName("Should revoke all tokens on logout with a current refresh token")
+    void shouldRevokeTokensOnLogoutWithRefreshToken() {
+        JwtPrincipal principal = new JwtPrincipal("testuser", List.of("ROLE_USER"), 2,
+                Instant.now(), Instant.now().plusSeconds(60), "token-1");
+        when(tokenProvider.parseRefreshToken("refresh.token")).thenReturn(Optional.of(principal));
+        when(tokenVersionCache.isCurrent("testuser", 2)).thenReturn(true);
+
+        authService.logout(new RefreshTokenRequest("refresh.token"));
+
+        verify(userRepository).incrementTokenVersion("testuser");
+        verify(tokenVersionCache).evict("testuser");
+    }
+
+    @Test
+    @DisplayName("Should not revoke tokens on logout with a revoked refresh token")
+    void shouldRejectLogoutWithRevokedRefreshToken() {
+        JwtPrincipal principal = new JwtPrincipal("testuser", List.of("ROLE_USER"), 1,
+                Instant.now(), Instant.now().plusSeconds(60), "token-1");
+        when(tokenProvider.parseRefreshToken("revoked")).thenReturn(Optional.of(principal));
+        when(tokenVersionCache.isCurrent("testuser", 1)).thenReturn(false);
+
+        assertThatThrownBy(() -> authService.logout(new RefreshTokenRequest("revoked")))
+                .isInstanceOf(UnauthorizedException.class);
+        verify(userRepository, never()).incrementTokenVersion(anyString());
+    }
 }
@@ -0,0 +1,109 @@
+package com.uds.ged.application.service;
+
+import com.uds.ged.application.dto.request.DocumentBatchStatusRequest;
+import com.uds.ged.application.dto.request.DocumentCreateRequest;
+import com.uds.ged.application.dto.response.BatchItemResponse;
+import com.uds.ged.application.dto.response.BatchResponse;
+import com.uds.ged.domain.model.Document;
+import com.uds.ged.domain.model.User;
+import com.uds.ged.domain.model.enums.DocumentStatus;
+import com.uds.ged.domain.model.enums.UserRole;
+import com.uds.ged.domain.repository.DocumentRepository;
+import com.uds.ged.domain.repository.UserRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentBatchServiceTest {
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private DocumentCache documentCache;
+
+    private DocumentBatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        batchService = new DocumentBatchService(documentRepository, userRepository,
+                Validation.buildDefaultValidatorFactory().getValidator(), documentCache, 2);
+    }
+
+    @Test
+    @DisplayName("Should resolve the owner once, save valid items in chunks and report invalid ones")
+    void createDocuments_MixedItems_ReportsPerItem() {
+        User owner = User.builder().id(1L).username("testuser").role(UserRole.USER).build();
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(owner));
+        AtomicLong ids = new AtomicLong(100);
+        List<Integer> chunkSizes = new ArrayList<>();
+        when(documentRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Document> documents = invocation.getArgument(0);
+            chunkSizes.add(documents.size());
+            documents.forEach(document -> document.setId(ids.incrementAndGet()));
+            return documents;
+        });
+
+        List<DocumentCreateRequest> requests = List.of(
+                request("First"),
+                request(""),
+                request("Second"),
+                request("Third"),
+                request("Fourth"),
+                request("Fifth"));
+
+        BatchResponse response = batchService.createDocuments(requests, "testuser");
+
+        assertThat(response.getTotal()).isEqualTo(6);
+        assertThat(response.getSucceeded()).isEqualTo(5);
+        assertThat(response.getFailed()).isEqualTo(1);
+        assertThat(response.getItems()).extracting(BatchItemResponse::getIndex)
+                .containsExactly(0, 1, 2, 3, 4, 5);
+        assertThat(response.getItems()).extracting(BatchItemResponse::getId)
+                .containsExactly(101L, null, 102L, 103L, 104L, 105L);
+        assertThat(response.getItems().get(1).getError()).isEqualTo("title: Title is required");
+        assertThat(chunkSizes).containsExactly(2, 2, 1);
+        verify(userRepository, times(1)).findByUsername("testuser");
+        verify(documentRepository, times(3)).flushAndClear();
+    }
+
+    @Test
+    @DisplayName("Should update existing documents in one statement and report unknown IDs")
+    void updateStatus_UnknownIds_ReportedAsFailed() {
+        when(documentRepository.findExistingIds(List.of(1L, 2L, 3L))).thenReturn(List.of(1L, 3L));
+
+        BatchResponse response = batchService.updateStatus(
+                new DocumentBatchStatusRequest(List.of(1L, 2L, 3L, 1L), DocumentStatus.ARCHIVED));
+
+        assertThat(response.getSucceeded()).isEqualTo(3);
+        assertThat(response.getFailed()).isEqualTo(1);
+        assertThat(response.getItems().get(1).getError()).isEqualTo("Document not found");
+        verify(documentRepository).updateStatus(eq(List.of(1L, 3L)), eq(DocumentStatus.ARCHIVED),
+                any(LocalDateTime.class));
+        verify(documentCache).evict(List.of(1L, 3L));
+    }
+
+    private static DocumentCreateRequest request(String title) {
+        return new DocumentCreateRequest(title, null, List.of("tag"), null, DocumentStatus.DRAFT);
+    }
+}
@@ -0,0 +1,72 @@
+package com.uds.ged.application.service;
+
+import com.uds.ged.application.dto.response.DocumentResponse;
+import com.uds.ged.domain.model.enums.DocumentStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DocumentCacheTest {
+
+    private DocumentCache documentCache;
+
+    @BeforeEach
+    void setUp() {
+        documentCache = new DocumentCache(true, 100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should hand out copies so callers cannot change cached documents")
+    void get_ReturnsCopyOfSnapshot() {
+        List<String> tags = new ArrayList<>(List.of("tag1"));
+        DocumentResponse loaded = document(1L, "Contrato", tags);
+        loaded.setRelevance(0.5);
+        documentCache.put(loaded, documentCache.stamp());
+        tags.add("tag2");
+
+        DocumentResponse cached = documentCache.get(1L).orElseThrow();
+        cached.setTitle("Changed");
+
+        assertThat(cached.getTags()).containsExactly("tag1");
+        assertThat(cached.getRelevance()).isNull();
+        assertThat(documentCache.get(1L)).get().extracting(DocumentResponse::getTitle).isEqualTo("Contrato");
+    }
+
+    @Test
+    @DisplayName("Should return only cached documents and forget evicted ones")
+    void getAll_SkipsMissingAndEvicted() {
+        long stamp = documentCache.stamp();
+        documentCache.put(List.of(document(1L, "A", List.of()), document(2L, "B", List.of())), stamp);
+
+        documentCache.evict(2L);
+
+        assertThat(documentCache.getAll(List.of(1L, 2L, 3L))).containsOnlyKeys(1L);
+    }
+
+    @Test
+    @DisplayName("Should drop documents loaded before a concurrent eviction")
+    void put_AfterEviction_IsDiscarded() {
+        long stamp = documentCache.stamp();
+        documentCache.evict(1L);
+
+        documentCache.put(document(1L, "Stale", List.of()), stamp);
+
+        assertThat(documentCache.get(1L)).isEmpty();
+    }
+
+    private static DocumentResponse document(Long id, String title, List<String> tags) {
+        return DocumentResponse.builder()
+                .id(id)
+                .title(title)
+                .tags(tags)
+                .status(DocumentStatus.DRAFT)
+                .build();
+    }
+}
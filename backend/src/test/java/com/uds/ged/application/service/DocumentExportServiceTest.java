@@ -0,0 +1,138 @@
+package com.uds.ged.application.service;
+
+import com.uds.ged.domain.model.enums.DocumentStatus;
+import com.uds.ged.domain.repository.CurrentVersionFile;
+import com.uds.ged.domain.repository.DocumentRepository;
+import com.uds.ged.domain.repository.DocumentVersionRepository;
+import com.uds.ged.infrastructure.codec.StorageCodec;
+import com.uds.ged.infrastructure.exception.FileStorageException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentExportServiceTest {
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private DocumentVersionRepository versionRepository;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    private DocumentExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new DocumentExportService(documentRepository, versionRepository, fileStorageService,
+                new StorageCodec(false, 6, List.of("text/*")), 2);
+    }
+
+    @Test
+    @DisplayName("Should stream current versions of all matching documents page by page")
+    void exportCurrentVersions_WritesEveryPage() throws IOException {
+        when(documentRepository.findIdSlice(any(), eq(Sort.by(Sort.Direction.ASC, "id")), eq(2)))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+        when(versionRepository.findCurrentVersionFiles(List.of(1L, 2L))).thenReturn(List.of(
+                versionFile(1L, "docz_1_a.csv", "report.csv", "text/csv"),
+                versionFile(2L, "doc_2_b.pdf", "scan.pdf", "application/pdf")));
+        when(versionRepository.findCurrentVersionFiles(List.of(3L))).thenReturn(List.of(
+                versionFile(3L, "doc_3_c.txt", "../notes.txt", "text/plain")));
+        when(fileStorageService.loadFileAsResource("docz_1_a.csv")).thenReturn(new ByteArrayResource("a;b".getBytes()));
+        when(fileStorageService.loadFileAsResource("doc_2_b.pdf")).thenReturn(new ByteArrayResource("%PDF".getBytes()));
+        when(fileStorageService.loadFileAsResource("doc_3_c.txt")).thenReturn(new ByteArrayResource("notes".getBytes()));
+
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        int written = exportService.exportCurrentVersions(null, null, DocumentStatus.PUBLISHED, archive);
+
+        assertThat(written).isEqualTo(3);
+        assertThat(readEntries(archive.toByteArray())).containsExactly(
+                Map.entry("1_report.csv", "a;b"),
+                Map.entry("2_scan.pdf", "%PDF"),
+                Map.entry("3_.._notes.txt", "notes"));
+    }
+
+    @Test
+    @DisplayName("Should skip files missing from storage and list them in the archive")
+    void exportCurrentVersions_ReportsMissingFiles() throws IOException {
+        when(documentRepository.findFullTextIdsAfter("contrato", "PUBLISHED", 0L, 2)).thenReturn(List.of(5L));
+        when(versionRepository.findCurrentVersionFiles(List.of(5L))).thenReturn(List.of(
+                versionFile(5L, "doc_5_gone.pdf", "contrato.pdf", "application/pdf")));
+        when(fileStorageService.loadFileAsResource("doc_5_gone.pdf"))
+                .thenThrow(new FileStorageException("File not found: doc_5_gone.pdf"));
+
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        int written = exportService.exportCurrentVersions("contrato", null, DocumentStatus.PUBLISHED, archive);
+
+        assertThat(written).isZero();
+        assertThat(readEntries(archive.toByteArray())).containsExactly(
+                Map.entry(DocumentExportService.ERRORS_ENTRY, "5_contrato.pdf: file not available"));
+    }
+
+    private static Map<String, String> readEntries(byte[] archive) throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(archive))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries.put(entry.getName(), new String(zip.readAllBytes()));
+            }
+        }
+        return entries;
+    }
+
+    private static CurrentVersionFile versionFile(Long documentId, String fileKey, String fileName, String mimeType) {
+        return new CurrentVersionFile() {
+            @Override
+            public Long getDocumentId() {
+                return documentId;
+            }
+
+            @Override
+            public Integer getVersionNumber() {
+                return 1;
+            }
+
+            @Override
+            public String getFileKey() {
+                return fileKey;
+            }
+
+            @Override
+            public String getFileName() {
+                return fileName;
+            }
+
+            @Override
+            public String getMimeType() {
+                return mimeType;
+            }
+
+            @Override
+            public LocalDateTime getUploadedAt() {
+                return LocalDateTime.of(2026, 3, 1, 10, 0);
+            }
+        };
+    }
+}
@@ -0,0 +1,174 @@
+package com.uds.ged.application.service;
+
+import com.uds.ged.domain.model.Document;
+import com.uds.ged.domain.model.User;
+import com.uds.ged.domain.model.enums.DocumentStatus;
+import com.uds.ged.domain.model.enums.UserRole;
+import com.uds.ged.domain.repository.DocumentRepository;
+import com.uds.ged.domain.repository.DocumentSearchHit;
+import com.uds.ged.domain.repository.UserRepository;
+import com.uds.ged.support.PostgresTestDatabase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Full-text search over the V6 search vector and its triggers, against the Flyway
+ * schema in PostgreSQL: ranking, snippets as rendered by
+ * {@link DocumentService#toHighlightHtml(String)}, filtering and keyset paging.
+ */
+@Tag("postgres")
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "spring.jpa.hibernate.ddl-auto=validate"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class DocumentSearchPostgresTest {
+
+    private static DataSource dataSource;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User owner;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        dataSource = PostgresTestDatabase.create("document_search_test");
+    }
+
+    @AfterAll
+    static void closeDatabase() {
+        PostgresTestDatabase.close(dataSource);
+    }
+
+    @TestConfiguration
+    static class PostgresDataSource {
+
+        @Bean
+        DataSource dataSource() {
+            return dataSource;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.saveAndFlush(User.builder()
+                .username("owner")
+                .email("owner@ged.com")
+                .password("$2a$10$hash")
+                .role(UserRole.USER)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Should rank title matches above tag matches above description matches")
+    void shouldRankByWeightedField() {
+        Document inDescription = save("Quarterly report", "Contains the contract terms", List.of(),
+                DocumentStatus.PUBLISHED);
+        Document inTitle = save("Contract renewal", "Signed copy", List.of(), DocumentStatus.PUBLISHED);
+        Document inTags = save("Supplier agreement", "Signed copy", List.of("contract"), DocumentStatus.PUBLISHED);
+        save("Unrelated memo", "Nothing to see", List.of("memo"), DocumentStatus.PUBLISHED);
+
+        List<DocumentSearchHit> hits = documentRepository.searchFullText("contract", null, 10, 0);
+
+        assertThat(hits).extracting(DocumentSearchHit::getId)
+                .containsExactly(inTitle.getId(), inTags.getId(), inDescription.getId());
+        assertThat(hits.get(0).getRank()).isGreaterThan(hits.get(1).getRank());
+        assertThat(hits.get(1).getRank()).isGreaterThan(hits.get(2).getRank());
+        assertThat(documentRepository.searchFullText("contract", null, 2, 1))
+                .extracting(DocumentSearchHit::getId)
+                .containsExactly(inTags.getId(), inDescription.getId());
+        assertThat(documentRepository.countFullText("contract", null)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should mark matches in an HTML-escaped snippet")
+    void shouldHighlightEscapedSnippet() {
+        // The markers in the text must not turn "spoofed" into a match
+        save("Invoice for R&D", "Paid if 3 < total > 1, \"see\" <script>alert(1)</script> "
+                        + DocumentSearchHit.MATCH_START + "spoofed" + DocumentSearchHit.MATCH_END + " invoice",
+                List.of(), DocumentStatus.PUBLISHED);
+
+        List<DocumentSearchHit> hits = documentRepository.searchFullText("invoice", null, 10, 0);
+
+        assertThat(hits).hasSize(1);
+        String html = DocumentService.toHighlightHtml(hits.get(0).getHighlight());
+        assertThat(html)
+                .contains("<mark>Invoice</mark> for R&amp;D")
+                .contains("3 &lt; total &gt; 1, &quot;see&quot;")
+                .contains(" spoofed <mark>invoice</mark>")
+                .doesNotContain("<mark>spoofed");
+        // The parser drops tag-like tokens; whatever is left of the text is escaped
+        assertThat(html.replace("<mark>", "").replace("</mark>", "")).doesNotContain("<", ">");
+    }
+
+    @Test
+    @DisplayName("Should filter by status and page matching IDs by keyset")
+    void shouldFilterAndPageByKeyset() {
+        Document first = save("Budget 2024", null, List.of(), DocumentStatus.PUBLISHED);
+        save("Budget draft", null, List.of(), DocumentStatus.DRAFT);
+        Document second = save("Budget 2025", null, List.of(), DocumentStatus.PUBLISHED);
+        Document third = save("Budget 2026", null, List.of(), DocumentStatus.PUBLISHED);
+
+        List<Long> page = documentRepository.findFullTextIdsAfter("budget", "PUBLISHED", 0L, 2);
+        List<Long> next = documentRepository.findFullTextIdsAfter("budget", "PUBLISHED", page.get(1), 2);
+
+        assertThat(page).containsExactly(first.getId(), second.getId());
+        assertThat(next).containsExactly(third.getId());
+        assertThat(documentRepository.findFullTextIdsAfter("budget", null, 0L, 10)).hasSize(4);
+        assertThat(documentRepository.countFullText("budget", "PUBLISHED")).isEqualTo(3);
+        assertThat(documentRepository.countFullText("budget", "DRAFT")).isEqualTo(1);
+        assertThat(documentRepository.searchFullText("budget", "DRAFT", 10, 0)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should update the search vector when only the tags change")
+    void shouldReindexOnTagChange() {
+        Document document = save("Meeting notes", "Weekly sync", List.of("internal"), DocumentStatus.PUBLISHED);
+        assertThat(documentRepository.countFullText("confidential", null)).isZero();
+
+        document.getTags().add("confidential");
+        documentRepository.saveAndFlush(document);
+
+        assertThat(documentRepository.findFullTextIdsAfter("confidential", null, 0L, 10))
+                .containsExactly(document.getId());
+
+        document.getTags().clear();
+        documentRepository.saveAndFlush(document);
+
+        assertThat(documentRepository.countFullText("confidential", null)).isZero();
+        assertThat(documentRepository.countFullText("internal", null)).isZero();
+        assertThat(documentRepository.countFullText("meeting", null)).isEqualTo(1);
+    }
+
+    private Document save(String title, String description, List<String> tags, DocumentStatus status) {
+        Document document = documentRepository.saveAndFlush(Document.builder()
+                .title(title)
+                .description(description)
+                .tags(new ArrayList<>(tags))
+                .owner(owner)
+                .status(status)
+                .build());
+        entityManager.clear();
+        return documentRepository.findById(document.getId()).orElseThrow();
+    }
+}
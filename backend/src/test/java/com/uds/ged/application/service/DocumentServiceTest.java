@@ -1,15 +1,22 @@
 package com.uds.ged.application.service;
 
 import com.uds.ged.application.dto.request.DocumentCreateRequest;
+import com.uds.ged.application.dto.request.DocumentCursor;
 import com.uds.ged.application.dto.request.DocumentStatusRequest;
+import com.uds.ged.application.dto.response.CursorPageResponse;
 import com.uds.ged.application.dto.response.DocumentResponse;
+import com.uds.ged.application.dto.response.PageResponse;
 import com.uds.ged.application.mapper.DocumentMapper;
 import com.uds.ged.domain.model.Document;
+import com.uds.ged.domain.model.DocumentVersion;
 import com.uds.ged.domain.model.User;
 import com.uds.ged.domain.model.enums.DocumentStatus;
 import com.uds.ged.domain.model.enums.UserRole;
 import com.uds.ged.domain.repository.DocumentRepository;
+import com.uds.ged.domain.repository.DocumentSearchHit;
+import com.uds.ged.domain.repository.DocumentVersionRepository;
 import com.uds.ged.domain.repository.UserRepository;
+import com.uds.ged.infrastructure.exception.InvalidCursorException;
 import com.uds.ged.infrastructure.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -18,13 +25,25 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,9 +55,21 @@ class DocumentServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private DocumentVersionRepository versionRepository;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private FileDeletionService fileDeletionService;
+
     @Mock
     private DocumentMapper documentMapper;
 
+    @Mock
+    private DocumentCache documentCache;
+
     @InjectMocks
     private DocumentService documentService;
 
@@ -137,19 +168,19 @@ class DocumentServiceTest {
     @Test
     @DisplayName("Should throw exception when document not found")
     void shouldThrowExceptionWhenDocumentNotFound() {
-        when(documentRepository.findByIdWithTags(999L)).thenReturn(Optional.empty());
+        when(documentRepository.findAllWithTagsAndOwnerByIdIn(List.of(999L))).thenReturn(List.of());
 
         assertThatThrownBy(() -> documentService.getDocumentById(999L))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Document not found");
 
-        verify(documentRepository, times(1)).findByIdWithTags(999L);
+        verify(documentRepository, times(1)).findAllWithTagsAndOwnerByIdIn(List.of(999L));
     }
 
     @Test
     @DisplayName("Should get document by id successfully")
     void shouldGetDocumentByIdSuccessfully() {
-        when(documentRepository.findByIdWithTags(1L)).thenReturn(Optional.of(testDocument));
+        when(documentRepository.findAllWithTagsAndOwnerByIdIn(List.of(1L))).thenReturn(List.of(testDocument));
         when(documentMapper.toResponse(testDocument)).thenReturn(
                 DocumentResponse.builder()
                         .id(1L)
@@ -166,13 +197,118 @@ class DocumentServiceTest {
         assertThat(response.getTitle()).isEqualTo("Test Document");
         assertThat(response.getDescription()).isEqualTo("Test Description");
 
-        verify(documentRepository, times(1)).findByIdWithTags(1L);
+        verify(documentRepository, times(1)).findAllWithTagsAndOwnerByIdIn(List.of(1L));
         verify(documentMapper, times(1)).toResponse(testDocument);
+        verify(documentCache).put(anyList(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should keep ID page order when batch-loading page documents")
+    void shouldKeepIdPageOrderWhenLoadingPage() {
+        Document secondDocument = Document.builder()
+                .id(2L)
+                .title("Second Document")
+                .owner(testUser)
+                .status(DocumentStatus.PUBLISHED)
+                .build();
+        Pageable pageable = PageRequest.of(0, 2);
+
+        when(documentRepository.findIdPage(any(), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(2L, 1L), pageable, 5));
+        when(documentRepository.findAllWithTagsAndOwnerByIdIn(List.of(2L, 1L)))
+                .thenReturn(List.of(testDocument, secondDocument));
+        when(documentMapper.toResponse(any(Document.class))).thenAnswer(invocation -> {
+            Document document = invocation.getArgument(0);
+            return DocumentResponse.builder().id(document.getId()).build();
+        });
+
+        PageResponse<DocumentResponse> response = documentService.searchDocuments("doc", null, pageable);
+
+        assertThat(response.getContent()).extracting(DocumentResponse::getId).containsExactly(2L, 1L);
+        assertThat(response.getTotalElements()).isEqualTo(5);
+        assertThat(response.getTotalPages()).isEqualTo(3);
+        verify(documentRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should skip entity loading when ID page is empty")
+    void shouldSkipEntityLoadingWhenIdPageIsEmpty() {
+        Pageable pageable = PageRequest.of(3, 10);
+
+        when(documentRepository.findIdPage(any(), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(), pageable, 12));
+
+        PageResponse<DocumentResponse> response = documentService.getAllDocuments(pageable);
+
+        assertThat(response.getContent()).isEmpty();
+        assertThat(response.getTotalElements()).isEqualTo(12);
+        verify(documentRepository, never()).findAllWithTagsAndOwnerByIdIn(any());
+    }
+
+    @Test
+    @DisplayName("Should attach relevance and escaped highlight to full-text search results")
+    void shouldAttachRelevanceAndHighlightToFullTextResults() {
+        Pageable pageable = PageRequest.of(0, 10);
+        DocumentSearchHit hit = mock(DocumentSearchHit.class);
+        when(hit.getId()).thenReturn(1L);
+        when(hit.getRank()).thenReturn(0.4);
+        when(hit.getHighlight()).thenReturn("\uE000Test\uE001 Document <script>alert(1)</script>");
+
+        when(documentRepository.searchFullText("test", "DRAFT", 10, 0L)).thenReturn(List.of(hit));
+        when(documentRepository.findAllWithTagsAndOwnerByIdIn(List.of(1L))).thenReturn(List.of(testDocument));
+        when(documentMapper.toResponse(testDocument)).thenReturn(DocumentResponse.builder().id(1L).build());
+
+        PageResponse<DocumentResponse> response =
+                documentService.fullTextSearch("test", DocumentStatus.DRAFT, pageable);
+
+        assertThat(response.getContent()).hasSize(1);
+        assertThat(response.getContent().get(0).getRelevance()).isEqualTo(0.4);
+        assertThat(response.getContent().get(0).getHighlight())
+                .isEqualTo("<mark>Test</mark> Document &lt;script&gt;alert(1)&lt;/script&gt;");
+        assertThat(response.getTotalElements()).isEqualTo(1);
+        verify(documentRepository, never()).countFullText(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should return next cursor pointing at last row of keyset page")
+    void shouldReturnNextCursorForKeysetPage() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 3, 1, 10, 15, 30, 123456000);
+        testDocument.setCreatedAt(createdAt);
+
+        when(documentRepository.findIdSlice(any(), eq(Sort.by(Sort.Direction.DESC, "createdAt")), eq(2)))
+                .thenReturn(List.of(1L, 7L));
+        when(documentRepository.findAllWithTagsAndOwnerByIdIn(List.of(1L)))
+                .thenReturn(List.of(testDocument));
+        when(documentMapper.toResponse(testDocument))
+                .thenReturn(DocumentResponse.builder().id(1L).createdAt(createdAt).build());
+
+        CursorPageResponse<DocumentResponse> response = documentService.getDocumentsByCursor(
+                null, null, "createdAt", Sort.Direction.DESC, "", 1);
+
+        assertThat(response.isHasNext()).isTrue();
+        assertThat(response.getContent()).extracting(DocumentResponse::getId).containsExactly(1L);
+        assertThat(DocumentCursor.decode(response.getNextCursor()))
+                .isEqualTo(new DocumentCursor("createdAt", Sort.Direction.DESC, createdAt, 1L));
+        verify(documentRepository, never()).count();
+    }
+
+    @Test
+    @DisplayName("Should reject cursor issued for a different sort")
+    void shouldRejectCursorForDifferentSort() {
+        String cursor = new DocumentCursor("updatedAt", Sort.Direction.DESC, LocalDateTime.now(), 5L).encode();
+
+        assertThatThrownBy(() -> documentService.getDocumentsByCursor(
+                null, null, "createdAt", Sort.Direction.DESC, cursor, 10))
+                .isInstanceOf(InvalidCursorException.class);
+
+        verify(documentRepository, never()).findIdSlice(any(), any(), anyInt());
     }
 
     @Test
-    @DisplayName("Should delete document successfully")
+    @DisplayName("Should delete document and defer its files to the deletion outbox")
     void shouldDeleteDocumentSuccessfully() {
+        testDocument.addVersion(DocumentVersion.builder().versionNumber(1).fileKey("doc_1_a.pdf").build());
+        testDocument.addVersion(DocumentVersion.builder().versionNumber(2).fileKey("doc_1_b.pdf").build());
         when(documentRepository.findById(1L)).thenReturn(Optional.of(testDocument));
         doNothing().when(documentRepository).delete(testDocument);
 
@@ -180,6 +316,8 @@ class DocumentServiceTest {
 
         verify(documentRepository, times(1)).findById(1L);
         verify(documentRepository, times(1)).delete(testDocument);
+        verify(fileDeletionService).scheduleDeletion(List.of("doc_1_a.pdf", "doc_1_b.pdf"));
+        verifyNoInteractions(fileStorageService);
     }
 
     @Test
@@ -194,4 +332,26 @@ class DocumentServiceTest {
         verify(documentRepository, times(1)).findById(999L);
         verify(documentRepository, never()).delete(any(Document.class));
     }
+
+    @Test
+    @DisplayName("Should store the file before allocating the version number from the document counter")
+    void shouldUploadVersionWithAllocatedNumber() {
+        MockMultipartFile file = new MockMultipartFile("file", "scan.pdf", "application/pdf", "content".getBytes());
+        when(documentRepository.findById(1L)).thenReturn(Optional.of(testDocument));
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(fileStorageService.storeFile(file, 1L))
+                .thenReturn(new FileStorageService.StoredFile("doc_1_key.pdf", "hash", 7L));
+        when(documentRepository.allocateVersionNumber(1L)).thenReturn(1);
+        when(documentRepository.findCurrentVersionById(1L)).thenReturn(3);
+        when(versionRepository.save(any(DocumentVersion.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        documentService.uploadVersion(1L, file, "testuser");
+
+        var inOrder = inOrder(fileStorageService, documentRepository);
+        inOrder.verify(fileStorageService).storeFile(file, 1L);
+        inOrder.verify(documentRepository).allocateVersionNumber(1L);
+        verify(versionRepository).save(argThat(version -> version.getVersionNumber() == 3
+                && version.getFileKey().equals("doc_1_key.pdf")
+                && version.getContentHash().equals("hash")));
+    }
 }
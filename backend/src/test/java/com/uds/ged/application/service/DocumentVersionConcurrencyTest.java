@@ -0,0 +1,81 @@
+package com.uds.ged.application.service;
+
+import com.uds.ged.application.dto.request.DocumentCreateRequest;
+import com.uds.ged.application.dto.response.DocumentResponse;
+import com.uds.ged.application.dto.response.DocumentVersionResponse;
+import com.uds.ged.domain.model.enums.DocumentStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.com.uds.ged=WARN",
+        "logging.level.org.springframework.security=WARN"
+})
+class DocumentVersionConcurrencyTest {
+
+    private static final int UPLOADS = 200;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @DynamicPropertySource
+    static void storageProperties(DynamicPropertyRegistry registry) throws IOException {
+        String storage = Files.createTempDirectory("ged-version-test").toString();
+        registry.add("app.storage.location", () -> storage);
+    }
+
+    @Test
+    @DisplayName("Parallel uploads to one document should all succeed with distinct, gapless version numbers")
+    void parallelUploads_AllocateDistinctVersionNumbers() throws Exception {
+        DocumentResponse document = documentService.createDocument(
+                new DocumentCreateRequest("Concurrent", null, new ArrayList<>(), null, DocumentStatus.DRAFT), "admin");
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<DocumentVersionResponse>> futures = new ArrayList<>(UPLOADS);
+        try {
+            for (int i = 0; i < UPLOADS; i++) {
+                MockMultipartFile file = new MockMultipartFile("file", "file-" + i + ".txt", "text/plain",
+                        ("content " + i).getBytes(StandardCharsets.UTF_8));
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return documentService.uploadVersion(document.getId(), file, "admin");
+                }));
+            }
+            start.countDown();
+
+            List<Integer> versionNumbers = new ArrayList<>(UPLOADS);
+            for (Future<DocumentVersionResponse> future : futures) {
+                versionNumbers.add(future.get().getVersionNumber());
+            }
+
+            assertThat(versionNumbers).containsExactlyInAnyOrderElementsOf(
+                    IntStream.rangeClosed(1, UPLOADS).boxed().toList());
+            assertThat(documentService.getDocumentById(document.getId()).getCurrentVersion()).isEqualTo(UPLOADS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.uds.ged.application.service;
+
+import com.uds.ged.domain.model.FileDeletion;
+import com.uds.ged.domain.repository.FileDeletionRepository;
+import com.uds.ged.infrastructure.exception.FileStorageException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FileDeletionServiceTest {
+
+    @Mock
+    private FileDeletionRepository deletionRepository;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private FileDeletionService deletionService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        deletionService = new FileDeletionService(deletionRepository, fileStorageService, transactionManager,
+                meterRegistry, 2, 3, Duration.ofSeconds(30));
+    }
+
+    @Test
+    @DisplayName("Should release files and enqueue each key once")
+    void scheduleDeletion_EnqueuesDistinctKeys() {
+        deletionService.scheduleDeletion(List.of("ab/cd/hash", "ab/cd/hash", "doc_1_a.pdf"));
+
+        verify(fileStorageService).releaseFiles(List.of("ab/cd/hash", "ab/cd/hash", "doc_1_a.pdf"));
+        verify(deletionRepository).saveAll(argThat((List<FileDeletion> deletions) -> deletions.size() == 2
+                && deletions.get(0).getFileKey().equals("ab/cd/hash")
+                && deletions.get(1).getFileKey().equals("doc_1_a.pdf")));
+    }
+
+    @Test
+    @DisplayName("Should remove processed entries and back off failed ones")
+    void processPendingDeletions_FailedDeletion_IsRetriedLater() {
+        FileDeletion deleted = FileDeletion.builder().id(1L).fileKey("doc_1_a.pdf").build();
+        FileDeletion failing = FileDeletion.builder().id(2L).fileKey("doc_1_b.pdf").attempts(2).build();
+        when(deletionRepository.findDueForUpdate(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(deleted, failing), List.of());
+        when(fileStorageService.deleteReleasedFile("doc_1_a.pdf")).thenReturn(true);
+        when(fileStorageService.deleteReleasedFile("doc_1_b.pdf"))
+                .thenThrow(new FileStorageException("Could not delete file doc_1_b.pdf", new IOException("busy")));
+
+        LocalDateTime before = LocalDateTime.now();
+        deletionService.processPendingDeletions();
+
+        verify(deletionRepository).deleteAllInBatch(List.of(deleted));
+        verify(deletionRepository, times(2)).findDueForUpdate(any(LocalDateTime.class), any(Pageable.class));
+        assertThat(failing.getAttempts()).isEqualTo(3);
+        assertThat(failing.getLastError()).contains("busy");
+        assertThat(failing.getNextAttemptAt()).isAfterOrEqualTo(before.plusMinutes(2));
+        assertThat(meterRegistry.get("ged.storage.deletions").tag("result", "failed").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should stop after the configured number of batches per run")
+    void processPendingDeletions_FullBatches_BoundedPerRun() {
+        when(deletionRepository.findDueForUpdate(any(LocalDateTime.class), any(Pageable.class)))
+                .thenAnswer(invocation -> List.of(
+                        FileDeletion.builder().fileKey("doc_1_a.pdf").build(),
+                        FileDeletion.builder().fileKey("doc_1_b.pdf").build()));
+        when(fileStorageService.deleteReleasedFile(any())).thenReturn(true);
+
+        deletionService.processPendingDeletions();
+
+        verify(deletionRepository, times(3)).findDueForUpdate(any(LocalDateTime.class), any(Pageable.class));
+        verify(deletionRepository, times(3)).deleteAllInBatch(anyList());
+    }
+}
@@ -1,30 +1,55 @@
 package com.uds.ged.application.service;
 
+import com.uds.ged.domain.model.FileBlob;
+import com.uds.ged.domain.repository.FileBlobRepository;
 import com.uds.ged.infrastructure.exception.FileStorageException;
+import com.uds.ged.infrastructure.exception.InvalidUploadException;
+import com.uds.ged.infrastructure.codec.GzipFileResource;
+import com.uds.ged.infrastructure.codec.StorageCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.io.Resource;
 import org.springframework.mock.web.MockMultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+@ExtendWith(MockitoExtension.class)
 class FileStorageServiceTest {
 
     @TempDir
     Path tempDir;
 
+    @Mock
+    private FileBlobRepository blobRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StorageCodec codec = new StorageCodec(true, 6, List.of("text/*", "application/xml"));
+
     private FileStorageService fileStorageService;
 
     @BeforeEach
     void setUp() {
-        fileStorageService = new FileStorageService(tempDir.toString());
+        fileStorageService = new FileStorageService(tempDir.toString(), false, blobRepository, codec, meterRegistry);
     }
 
     @Test
@@ -37,15 +62,17 @@ class FileStorageServiceTest {
                 "Test content".getBytes()
         );
 
-        String fileKey = fileStorageService.storeFile(file, 1L, 1);
+        String fileKey = fileStorageService.storeFile(file, 1L).fileKey();
 
         assertThat(fileKey).isNotNull();
-        assertThat(fileKey).contains("doc_1_v1");
+        assertThat(fileKey).startsWith("doc_1_");
         assertThat(fileKey).endsWith(".pdf");
 
         Path storedFile = tempDir.resolve(fileKey);
         assertThat(Files.exists(storedFile)).isTrue();
         assertThat(Files.readString(storedFile)).isEqualTo("Test content");
+        assertThat(meterRegistry.get("ged.storage.store").tag("source", "multipart").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("ged.storage.store.size").summary().totalAmount()).isEqualTo(12);
     }
 
     @Test
@@ -58,7 +85,7 @@ class FileStorageServiceTest {
                 "Test content".getBytes()
         );
 
-        String fileKey = fileStorageService.storeFile(file, 1L, 1);
+        String fileKey = fileStorageService.storeFile(file, 1L).fileKey();
         Resource resource = fileStorageService.loadFileAsResource(fileKey);
 
         assertThat(resource).isNotNull();
@@ -66,6 +93,52 @@ class FileStorageServiceTest {
         assertThat(resource.isReadable()).isTrue();
     }
 
+    @Test
+    @DisplayName("Should store compressible files gzipped and decompress them on load")
+    void shouldCompressTextFilesAtRest() throws IOException {
+        String content = "id;title;status\n".repeat(500);
+        MockMultipartFile file = new MockMultipartFile("file", "export.csv", "text/csv", content.getBytes());
+
+        FileStorageService.StoredFile storedFile = fileStorageService.storeFile(file, 1L);
+        Resource resource = fileStorageService.loadFileAsResource(storedFile.fileKey());
+
+        assertThat(storedFile.fileKey()).startsWith("docz_1_").endsWith(".csv");
+        assertThat(storedFile.size()).isEqualTo(content.length());
+        assertThat(Files.size(tempDir.resolve(storedFile.fileKey()))).isLessThan(content.length() / 10);
+        assertThat(resource).isInstanceOf(GzipFileResource.class);
+        try (InputStream inputStream = resource.getInputStream()) {
+            assertThat(new String(inputStream.readAllBytes())).isEqualTo(content);
+        }
+        assertThat(meterRegistry.get("ged.storage.compression.saved").counter().count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should serve an uploaded .gz file as stored, without decompressing it")
+    void shouldNotTreatUploadedGzipExtensionAsCompressed() throws IOException {
+        byte[] archive = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, 0};
+        MockMultipartFile file = new MockMultipartFile("file", "backup.tar.gz", "application/gzip", archive);
+
+        String fileKey = fileStorageService.storeFile(file, 1L).fileKey();
+        Resource resource = fileStorageService.loadFileAsResource(fileKey);
+
+        assertThat(fileKey).startsWith("doc_1_").endsWith(".gz");
+        assertThat(resource).isNotInstanceOf(GzipFileResource.class);
+        try (InputStream inputStream = resource.getInputStream()) {
+            assertThat(inputStream.readAllBytes()).isEqualTo(archive);
+        }
+    }
+
+    @Test
+    @DisplayName("Should recognize compressed files only by markers the server writes")
+    void shouldDetectCompressionFromServerMarkersOnly() {
+        String hash = "9d9595c5d94fb65b824f56e9999527dba9542481580d69feb89056aabaa0aa87";
+
+        assertThat(StorageCodec.isCompressed("docz_1_4f1c2a9e-8d0b-4c57-9f8e-2b1d6a3c7e10.csv")).isTrue();
+        assertThat(StorageCodec.isCompressed("9d/95/" + hash + ".gz")).isTrue();
+        assertThat(StorageCodec.isCompressed("doc_1_4f1c2a9e-8d0b-4c57-9f8e-2b1d6a3c7e10.gz")).isFalse();
+        assertThat(StorageCodec.isCompressed("9d/95/" + hash)).isFalse();
+    }
+
     @Test
     @DisplayName("Should throw exception when loading non-existent file")
     void shouldThrowExceptionWhenLoadingNonExistentFile() {
@@ -84,7 +157,7 @@ class FileStorageServiceTest {
                 "malicious content".getBytes()
         );
 
-        assertThatThrownBy(() -> fileStorageService.storeFile(file, 1L, 1))
+        assertThatThrownBy(() -> fileStorageService.storeFile(file, 1L))
                 .isInstanceOf(FileStorageException.class)
                 .hasMessageContaining("Invalid file path");
     }
@@ -99,13 +172,166 @@ class FileStorageServiceTest {
                 "Test content".getBytes()
         );
 
-        String fileKey = fileStorageService.storeFile(file, 1L, 1);
+        String fileKey = fileStorageService.storeFile(file, 1L).fileKey();
         Path storedFile = tempDir.resolve(fileKey);
         
         assertThat(Files.exists(storedFile)).isTrue();
 
-        fileStorageService.deleteFile(fileKey);
+        fileStorageService.releaseFiles(List.of(fileKey));
+        assertThat(Files.exists(storedFile)).isTrue();
 
+        assertThat(fileStorageService.deleteReleasedFile(fileKey)).isTrue();
         assertThat(Files.exists(storedFile)).isFalse();
     }
+
+    @Test
+    @DisplayName("Should record SHA-256 content hash and size of stored file")
+    void shouldRecordContentHashAndSize() {
+        MockMultipartFile file = new MockMultipartFile(
+                "file",
+                "test.txt",
+                "text/plain",
+                "Test content".getBytes()
+        );
+
+        FileStorageService.StoredFile storedFile = fileStorageService.storeFile(file, 1L);
+
+        assertThat(storedFile.contentHash())
+                .isEqualTo("9d9595c5d94fb65b824f56e9999527dba9542481580d69feb89056aabaa0aa87");
+        assertThat(storedFile.size()).isEqualTo(12);
+    }
+
+    @Test
+    @DisplayName("Should store identical uploads once in content-addressed mode")
+    void shouldDeduplicateIdenticalUploads() throws IOException {
+        fileStorageService = new FileStorageService(tempDir.toString(), true, blobRepository, codec, meterRegistry);
+        String hash = "9d9595c5d94fb65b824f56e9999527dba9542481580d69feb89056aabaa0aa87";
+        String expectedKey = "9d/95/" + hash;
+
+        when(blobRepository.incrementRefCount(hash)).thenReturn(0, 1, 1);
+        when(blobRepository.findStorageKeyByContentHash(hash)).thenReturn(Optional.of(expectedKey));
+
+        FileStorageService.StoredFile first = fileStorageService.storeFile(
+                new MockMultipartFile("file", "a.pdf", "application/pdf", "Test content".getBytes()), 1L);
+        FileStorageService.StoredFile second = fileStorageService.storeFile(
+                new MockMultipartFile("file", "b.pdf", "application/pdf", "Test content".getBytes()), 2L);
+
+        assertThat(first.fileKey()).isEqualTo(expectedKey);
+        assertThat(second.fileKey()).isEqualTo(expectedKey);
+        assertThat(Files.readString(tempDir.resolve(expectedKey))).isEqualTo("Test content");
+        try (Stream<Path> staged = Files.list(tempDir.resolve(".staging"))) {
+            assertThat(staged).isEmpty();
+        }
+        verify(blobRepository, times(1)).insertIfAbsent(hash, expectedKey, 12L);
+        verify(blobRepository, times(3)).incrementRefCount(hash);
+    }
+
+    @Test
+    @DisplayName("Should keep content-addressed blob while other versions reference it")
+    void shouldKeepReferencedBlobOnDelete() throws IOException {
+        String hash = "9d9595c5d94fb65b824f56e9999527dba9542481580d69feb89056aabaa0aa87";
+        String fileKey = "9d/95/" + hash;
+        Path blob = tempDir.resolve(fileKey);
+        Files.createDirectories(blob.getParent());
+        Files.writeString(blob, "Test content");
+        FileBlob unreferenced = FileBlob.builder().contentHash(hash).storageKey(fileKey).refCount(0).build();
+
+        when(blobRepository.findUnreferencedForUpdate(hash)).thenReturn(Optional.empty(), Optional.of(unreferenced));
+
+        fileStorageService.releaseFiles(List.of(fileKey, fileKey, "doc_1_legacy.pdf"));
+        verify(blobRepository).decrementRefCounts(List.of(hash), 2);
+
+        assertThat(fileStorageService.deleteReleasedFile(fileKey)).isFalse();
+        assertThat(Files.exists(blob)).isTrue();
+
+        assertThat(fileStorageService.deleteReleasedFile(fileKey)).isTrue();
+        assertThat(Files.exists(blob)).isFalse();
+        verify(blobRepository).delete(unreferenced);
+    }
+
+    @Test
+    @DisplayName("Should assemble out-of-order chunks and link the upload into storage, keeping its part file until deleted")
+    void shouldAssembleChunkedUpload() throws IOException {
+        String uploadId = "4f1c2a9e-8d0b-4c57-9f8e-2b1d6a3c7e10";
+        fileStorageService.createUpload(uploadId, 12);
+
+        fileStorageService.writeUploadChunk(uploadId, 8, new ByteArrayInputStream("tent".getBytes()), 4);
+        fileStorageService.writeUploadChunk(uploadId, 0, new ByteArrayInputStream("Test con".getBytes()), 8);
+
+        FileStorageService.StagedFile staged = fileStorageService.prepareUpload(uploadId,
+                "9d9595c5d94fb65b824f56e9999527dba9542481580d69feb89056aabaa0aa87", "application/pdf");
+        FileStorageService.StoredFile storedFile = fileStorageService.commitUpload(staged, "scan.pdf", 1L);
+        assertThat(staged.partFile()).isTrue();
+        assertThat(tempDir.resolve(".uploads").resolve(uploadId + ".part")).exists();
+        fileStorageService.deleteUpload(uploadId);
+
+        assertThat(storedFile.fileKey()).startsWith("doc_1_").endsWith(".pdf");
+        assertThat(storedFile.size()).isEqualTo(12);
+        assertThat(Files.readString(tempDir.resolve(storedFile.fileKey()))).isEqualTo("Test content");
+        try (Stream<Path> parts = Files.list(tempDir.resolve(".uploads"))) {
+            assertThat(parts).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("Should compress a completed upload of a compressible type, keeping its part file until deleted")
+    void shouldCompressChunkedUpload() throws IOException {
+        String uploadId = "4f1c2a9e-8d0b-4c57-9f8e-2b1d6a3c7e10";
+        fileStorageService.createUpload(uploadId, 12);
+        fileStorageService.writeUploadChunk(uploadId, 0, new ByteArrayInputStream("Test content".getBytes()), 12);
+
+        FileStorageService.StagedFile staged = fileStorageService.prepareUpload(uploadId,
+                "9d9595c5d94fb65b824f56e9999527dba9542481580d69feb89056aabaa0aa87", "text/plain");
+        FileStorageService.StoredFile storedFile = fileStorageService.commitUpload(staged, "notes.txt", 1L);
+        assertThat(tempDir.resolve(".uploads").resolve(uploadId + ".part")).exists();
+        fileStorageService.deleteUpload(uploadId);
+
+        assertThat(storedFile.fileKey()).startsWith("docz_1_").endsWith(".txt");
+        assertThat(storedFile.contentHash()).isEqualTo("9d9595c5d94fb65b824f56e9999527dba9542481580d69feb89056aabaa0aa87");
+        try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(tempDir.resolve(storedFile.fileKey())))) {
+            assertThat(new String(inputStream.readAllBytes())).isEqualTo("Test content");
+        }
+        try (Stream<Path> parts = Files.list(tempDir.resolve(".uploads"))) {
+            assertThat(parts).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("Should stage a copy of a completed upload in content-addressed mode, never its part file")
+    void shouldCopyChunkedUploadIntoBlob() throws IOException {
+        FileStorageService contentAddressed = new FileStorageService(tempDir.toString(), true, blobRepository,
+                codec, meterRegistry);
+        String uploadId = "4f1c2a9e-8d0b-4c57-9f8e-2b1d6a3c7e10";
+        String hash = "9d9595c5d94fb65b824f56e9999527dba9542481580d69feb89056aabaa0aa87";
+        contentAddressed.createUpload(uploadId, 12);
+        contentAddressed.writeUploadChunk(uploadId, 0, new ByteArrayInputStream("Test content".getBytes()), 12);
+        when(blobRepository.incrementRefCount(hash)).thenReturn(1);
+        when(blobRepository.findStorageKeyByContentHash(hash)).thenReturn(Optional.empty());
+
+        FileStorageService.StagedFile staged = contentAddressed.prepareUpload(uploadId, hash, "application/pdf");
+        FileStorageService.StoredFile storedFile = contentAddressed.commitUpload(staged, "scan.pdf", 1L);
+
+        assertThat(staged.partFile()).isFalse();
+        assertThat(staged.path().getParent()).isEqualTo(tempDir.resolve(".staging"));
+        // Writing the part file again, as a reopened session could, leaves the blob intact
+        contentAddressed.writeUploadChunk(uploadId, 0, new ByteArrayInputStream("Other bytes!".getBytes()), 12);
+        assertThat(Files.readString(tempDir.resolve(storedFile.fileKey()))).isEqualTo("Test content");
+    }
+
+    @Test
+    @DisplayName("Should reject a completed upload that does not match its announced hash")
+    void shouldRejectUploadWithWrongHash() throws IOException {
+        String uploadId = "4f1c2a9e-8d0b-4c57-9f8e-2b1d6a3c7e10";
+        fileStorageService.createUpload(uploadId, 8);
+        fileStorageService.writeUploadChunk(uploadId, 0, new ByteArrayInputStream("Tampered".getBytes()), 8);
+
+        assertThatThrownBy(() -> fileStorageService.prepareUpload(uploadId,
+                "9d9595c5d94fb65b824f56e9999527dba9542481580d69feb89056aabaa0aa87", "text/plain"))
+                .isInstanceOf(InvalidUploadException.class);
+
+        assertThat(tempDir.resolve(".uploads").resolve(uploadId + ".part")).exists();
+        try (Stream<Path> staged = Files.list(tempDir.resolve(".staging"))) {
+            assertThat(staged).isEmpty();
+        }
+    }
 }
@@ -0,0 +1,128 @@
+package com.uds.ged.application.service;
+
+import com.uds.ged.domain.repository.UserIdentity;
+import com.uds.ged.domain.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RegisteredUserFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private Predicate<String> exists;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RegisteredUserFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RegisteredUserFilter(userRepository, meterRegistry, true, 0.01, 2);
+    }
+
+    @Test
+    @DisplayName("Should query the database until the filter is built")
+    void shouldQueryBeforeBuild() {
+        when(exists.test("admin")).thenReturn(true);
+
+        assertThat(filter.isAvailable(RegisteredUserFilter.Field.USERNAME, "admin", exists)).isFalse();
+        verify(exists).test("admin");
+    }
+
+    @Test
+    @DisplayName("Should rebuild in keyset batches and answer unused values without a query")
+    void shouldAnswerNegativesFromFilter() {
+        when(userRepository.count()).thenReturn(3L);
+        when(userRepository.findIdentitiesAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(
+                        new UserIdentity(1L, "admin", "admin@ged.com"),
+                        new UserIdentity(2L, "user", "user@ged.com")));
+        when(userRepository.findIdentitiesAfter(eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(new UserIdentity(5L, "Maria", "maria@ged.com")));
+        filter.rebuild();
+        when(exists.test("maria")).thenReturn(false);
+
+        assertThat(filter.isAvailable(RegisteredUserFilter.Field.USERNAME, "newcomer", exists)).isTrue();
+        assertThat(filter.isAvailable(RegisteredUserFilter.Field.EMAIL, "newcomer@ged.com", exists)).isTrue();
+        verify(exists, never()).test(anyString());
+
+        // Normalized in the filter, exact in the database
+        assertThat(filter.isAvailable(RegisteredUserFilter.Field.USERNAME, "maria", exists)).isTrue();
+        verify(exists).test("maria");
+        assertThat(meterRegistry.get("ged.user.availability.checks")
+                .tags("field", "username", "result", "negative").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("ged.user.availability.checks")
+                .tags("field", "username", "result", "false_positive").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("ged.user.availability.rebuild").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("ged.user.availability.filter.fpp")
+                .tag("field", "email").gauge().value()).isBetween(0.0, 0.01);
+    }
+
+    @Test
+    @DisplayName("Should include users registered after the build")
+    void shouldAddRegisteredUsers() {
+        when(userRepository.count()).thenReturn(0L);
+        when(userRepository.findIdentitiesAfter(eq(0L), any(Pageable.class))).thenReturn(List.of());
+        filter.rebuild();
+
+        filter.add("newuser", "newuser@example.com");
+        when(exists.test("newuser@example.com")).thenReturn(true);
+
+        assertThat(filter.isAvailable(RegisteredUserFilter.Field.EMAIL, "newuser@example.com", exists)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should skip a rebuild requested while another one is running")
+    void shouldSkipOverlappingRebuild() {
+        when(userRepository.count()).thenAnswer(invocation -> {
+            filter.rebuild();
+            return 0L;
+        });
+        when(userRepository.findIdentitiesAfter(eq(0L), any(Pageable.class))).thenReturn(List.of());
+
+        filter.rebuild();
+
+        verify(userRepository, times(1)).count();
+        assertThat(meterRegistry.get("ged.user.availability.rebuild").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should never report a put value as absent and keep false positives near the target rate")
+    void bloomFilterShouldHaveNoFalseNegatives() {
+        BloomFilter bloomFilter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bloomFilter.put("user" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(bloomFilter.mightContain("user" + i)).isTrue();
+            if (bloomFilter.mightContain("other" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(200);
+        assertThat(bloomFilter.expectedFalsePositiveProbability()).isBetween(0.005, 0.015);
+    }
+}
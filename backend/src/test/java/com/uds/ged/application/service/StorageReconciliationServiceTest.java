@@ -0,0 +1,122 @@
+package com.uds.ged.application.service;
+
+import com.uds.ged.application.service.StorageReconciliationService.ReconciliationReport;
+import com.uds.ged.domain.repository.DocumentVersionRepository;
+import com.uds.ged.domain.repository.FileBlobRepository;
+import com.uds.ged.domain.repository.VersionFileKey;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StorageReconciliationServiceTest {
+
+    private static final String HASH = "9d9595c5d94fb65b824f56e9999527dba9542481580d69feb89056aabaa0aa87";
+    private static final String BLOB_KEY = "9d/95/" + HASH;
+
+    @TempDir
+    Path storageDir;
+
+    @Mock
+    private DocumentVersionRepository versionRepository;
+
+    @Mock
+    private FileBlobRepository blobRepository;
+
+    private StorageReconciliationService reconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        reconciliationService = new StorageReconciliationService(storageDir.toString(), versionRepository,
+                blobRepository, new SimpleMeterRegistry(), true, Duration.ofHours(1), Duration.ofDays(7), 2, 10_000);
+    }
+
+    @Test
+    @DisplayName("Should quarantine old orphans and keep referenced and recent files")
+    void reconcile_QuarantinesOldOrphans() throws Exception {
+        Instant old = Instant.now().minus(Duration.ofDays(1));
+        createFile("doc_1_referenced.pdf", old);
+        createFile("doc_2_orphan.pdf", old);
+        createFile("doc_3_recent.pdf", Instant.now());
+        createFile(BLOB_KEY, old);
+        createFile(".staging/upload.tmp", old);
+
+        when(versionRepository.findExistingFileKeys(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<String>>getArgument(0).stream()
+                        .filter("doc_1_referenced.pdf"::equals)
+                        .toList());
+        when(blobRepository.findExistingContentHashes(anyCollection())).thenReturn(List.of(HASH));
+        when(versionRepository.findFileKeysAfter(anyLong(), any())).thenReturn(List.of());
+
+        ReconciliationReport report = reconciliationService.reconcile();
+
+        assertThat(report.quarantined()).isEqualTo(1);
+        assertThat(storageDir.resolve(".quarantine/doc_2_orphan.pdf")).exists();
+        assertThat(storageDir.resolve("doc_2_orphan.pdf")).doesNotExist();
+        assertThat(storageDir.resolve("doc_1_referenced.pdf")).exists();
+        assertThat(storageDir.resolve("doc_3_recent.pdf")).exists();
+        assertThat(storageDir.resolve(BLOB_KEY)).exists();
+        assertThat(storageDir.resolve(".staging/upload.tmp")).exists();
+    }
+
+    @Test
+    @DisplayName("Should purge expired quarantine, restore referenced files and report missing ones")
+    void reconcile_PurgesRestoresAndReportsMissing() throws Exception {
+        Instant expired = Instant.now().minus(Duration.ofDays(8));
+        createFile(".quarantine/doc_1_expired.pdf", expired);
+        createFile(".quarantine/doc_2_referenced.pdf", Instant.now());
+
+        when(versionRepository.findExistingFileKeys(anyCollection())).thenReturn(List.of());
+        when(versionRepository.findFileKeysAfter(anyLong(), any())).thenReturn(List.of(
+                versionFileKey(1L, "doc_2_referenced.pdf"),
+                versionFileKey(2L, "doc_3_missing.pdf")), List.of());
+
+        ReconciliationReport report = reconciliationService.reconcile();
+
+        assertThat(report.purged()).isEqualTo(1);
+        assertThat(report.restored()).isEqualTo(1);
+        assertThat(report.missing()).isEqualTo(1);
+        assertThat(storageDir.resolve(".quarantine/doc_1_expired.pdf")).doesNotExist();
+        assertThat(storageDir.resolve("doc_2_referenced.pdf")).exists();
+    }
+
+    private void createFile(String key, Instant lastModified) throws Exception {
+        Path file = storageDir.resolve(key);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, key);
+        Files.setLastModifiedTime(file, FileTime.from(lastModified));
+    }
+
+    private static VersionFileKey versionFileKey(Long id, String fileKey) {
+        return new VersionFileKey() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getFileKey() {
+                return fileKey;
+            }
+        };
+    }
+}
@@ -0,0 +1,305 @@
+package com.uds.ged.application.service;
+
+import com.uds.ged.application.dto.response.DocumentVersionResponse;
+import com.uds.ged.application.mapper.DocumentMapper;
+import com.uds.ged.domain.model.UploadSession;
+import com.uds.ged.domain.repository.DocumentRepository;
+import com.uds.ged.domain.repository.FileBlobRepository;
+import com.uds.ged.domain.repository.UploadSessionRepository;
+import com.uds.ged.domain.repository.UserRepository;
+import com.uds.ged.infrastructure.exception.InvalidUploadException;
+import com.uds.ged.infrastructure.codec.StorageCodec;
+import com.uds.ged.infrastructure.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UploadServiceTest {
+
+    private static final String UPLOAD_ID = "4f1c2a9e-8d0b-4c57-9f8e-2b1d6a3c7e10";
+
+    @Mock
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private DocumentService documentService;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private DocumentMapper documentMapper;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UploadService uploadService;
+    private UploadSession session;
+
+    @BeforeEach
+    void setUp() {
+        uploadService = new UploadService(uploadSessionRepository, documentRepository, userRepository,
+                documentService, fileStorageService, documentMapper, transactionManager,
+                DataSize.ofBytes(10), DataSize.ofGigabytes(1), Duration.ofHours(24));
+
+        session = UploadSession.builder()
+                .id(UPLOAD_ID)
+                .fileName("scan.pdf")
+                .mimeType("application/pdf")
+                .totalSize(25L)
+                .chunkSize(10)
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should write and record a chunk at an aligned offset")
+    void shouldWriteAndRecordChunk() {
+        InputStream body = new ByteArrayInputStream(new byte[5]);
+        when(uploadSessionRepository.findOwned(UPLOAD_ID, 1L, "testuser")).thenReturn(Optional.of(session));
+        when(uploadSessionRepository.beginChunkWrite(UPLOAD_ID)).thenReturn(1);
+        when(fileStorageService.writeUploadChunk(UPLOAD_ID, 20L, body, 5L)).thenReturn(5L);
+
+        uploadService.writeChunk(1L, UPLOAD_ID, 20L, 5L, body, "testuser");
+
+        verify(uploadSessionRepository).recordChunk(UPLOAD_ID, 20L);
+        verify(uploadSessionRepository).endChunkWrite(UPLOAD_ID);
+    }
+
+    @Test
+    @DisplayName("Should reject chunks once completion has started")
+    void shouldRejectChunkWhileCompleting() {
+        InputStream body = new ByteArrayInputStream(new byte[10]);
+        when(uploadSessionRepository.findOwned(UPLOAD_ID, 1L, "testuser")).thenReturn(Optional.of(session));
+        when(uploadSessionRepository.beginChunkWrite(UPLOAD_ID)).thenReturn(0);
+
+        assertThatThrownBy(() -> uploadService.writeChunk(1L, UPLOAD_ID, 0L, 10L, body, "testuser"))
+                .isInstanceOf(InvalidUploadException.class)
+                .hasMessageContaining("being completed");
+
+        verifyNoInteractions(fileStorageService);
+        verify(uploadSessionRepository, never()).endChunkWrite(anyString());
+    }
+
+    @Test
+    @DisplayName("Should reject misaligned chunk offsets and wrong lengths")
+    void shouldRejectInvalidChunks() {
+        when(uploadSessionRepository.findOwned(UPLOAD_ID, 1L, "testuser")).thenReturn(Optional.of(session));
+        InputStream body = new ByteArrayInputStream(new byte[10]);
+
+        assertThatThrownBy(() -> uploadService.writeChunk(1L, UPLOAD_ID, 5L, 10L, body, "testuser"))
+                .isInstanceOf(InvalidUploadException.class)
+                .hasMessageContaining("Invalid chunk offset");
+        assertThatThrownBy(() -> uploadService.writeChunk(1L, UPLOAD_ID, 20L, 10L, body, "testuser"))
+                .isInstanceOf(InvalidUploadException.class)
+                .hasMessageContaining("must be 5 bytes");
+
+        verifyNoInteractions(fileStorageService);
+    }
+
+    @Test
+    @DisplayName("Should not record a chunk whose body ended early")
+    void shouldNotRecordIncompleteChunk() {
+        InputStream body = new ByteArrayInputStream(new byte[3]);
+        when(uploadSessionRepository.findOwned(UPLOAD_ID, 1L, "testuser")).thenReturn(Optional.of(session));
+        when(uploadSessionRepository.beginChunkWrite(UPLOAD_ID)).thenReturn(1);
+        when(fileStorageService.writeUploadChunk(UPLOAD_ID, 0L, body, 10L)).thenReturn(3L);
+
+        assertThatThrownBy(() -> uploadService.writeChunk(1L, UPLOAD_ID, 0L, -1L, body, "testuser"))
+                .isInstanceOf(InvalidUploadException.class)
+                .hasMessageContaining("Incomplete chunk");
+
+        verify(uploadSessionRepository, never()).recordChunk(anyString(), anyLong());
+        verify(uploadSessionRepository).endChunkWrite(UPLOAD_ID);
+    }
+
+    @Test
+    @DisplayName("Should treat expired sessions as not found")
+    void shouldRejectExpiredSession() {
+        session.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        when(uploadSessionRepository.findOwned(UPLOAD_ID, 1L, "testuser")).thenReturn(Optional.of(session));
+
+        assertThatThrownBy(() -> uploadService.getSession(1L, UPLOAD_ID, "testuser"))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should refuse to complete an upload with missing chunks and reopen it")
+    void shouldRejectIncompleteUpload() {
+        when(uploadSessionRepository.findOwned(UPLOAD_ID, 1L, "testuser")).thenReturn(Optional.of(session));
+        when(uploadSessionRepository.startCompletion(eq(UPLOAD_ID), any())).thenReturn(1);
+        when(uploadSessionRepository.countReceivedChunks(UPLOAD_ID)).thenReturn(2L);
+
+        assertThatThrownBy(() -> uploadService.completeUpload(1L, UPLOAD_ID, "testuser"))
+                .isInstanceOf(InvalidUploadException.class)
+                .hasMessageContaining("2 of 3 chunks");
+
+        verifyNoInteractions(documentService, fileStorageService);
+        verify(uploadSessionRepository).cancelCompletion(UPLOAD_ID);
+        verify(uploadSessionRepository, never()).delete(any());
+    }
+
+    @Test
+    @DisplayName("Should refuse to complete while chunks are being written")
+    void shouldRejectCompletionDuringWrites() {
+        when(uploadSessionRepository.findOwned(UPLOAD_ID, 1L, "testuser")).thenReturn(Optional.of(session));
+        when(uploadSessionRepository.startCompletion(eq(UPLOAD_ID), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> uploadService.completeUpload(1L, UPLOAD_ID, "testuser"))
+                .isInstanceOf(InvalidUploadException.class)
+                .hasMessageContaining("chunks being written");
+
+        verifyNoInteractions(documentService, fileStorageService);
+        verify(uploadSessionRepository, never()).cancelCompletion(anyString());
+    }
+
+    @Test
+    @DisplayName("Should hash outside the transaction, then create the version and close the session")
+    void shouldCompleteUpload() {
+        FileStorageService.StagedFile staged = new FileStorageService.StagedFile(Path.of("part"), "hash", 25L, false, true);
+        DocumentVersionResponse version = DocumentVersionResponse.builder().versionNumber(2).build();
+        when(uploadSessionRepository.findOwned(UPLOAD_ID, 1L, "testuser")).thenReturn(Optional.of(session));
+        when(uploadSessionRepository.startCompletion(eq(UPLOAD_ID), any())).thenReturn(1);
+        when(uploadSessionRepository.countReceivedChunks(UPLOAD_ID)).thenReturn(3L);
+        when(fileStorageService.prepareUpload(UPLOAD_ID, null, "application/pdf")).thenAnswer(invocation -> {
+            verifyNoInteractions(transactionManager);
+            return staged;
+        });
+        when(uploadSessionRepository.findOwnedForUpdate(UPLOAD_ID, 1L, "testuser")).thenReturn(Optional.of(session));
+        when(documentService.addVersion(eq(1L), eq("testuser"), eq("scan.pdf"), eq("application/pdf"), any()))
+                .thenReturn(version);
+
+        DocumentVersionResponse result = uploadService.completeUpload(1L, UPLOAD_ID, "testuser");
+
+        assertThat(result.getVersionNumber()).isEqualTo(2);
+        verify(transactionManager).commit(any());
+        verify(uploadSessionRepository).delete(session);
+        verify(fileStorageService).deleteUpload(UPLOAD_ID);
+        verify(uploadSessionRepository, never()).cancelCompletion(anyString());
+    }
+
+    @Test
+    @DisplayName("Should discard the prepared file and reopen the session when the version cannot be created")
+    void shouldReopenSessionWhenCompletionFails() {
+        FileStorageService.StagedFile staged = new FileStorageService.StagedFile(Path.of("staged"), "hash", 25L, true, false);
+        when(uploadSessionRepository.findOwned(UPLOAD_ID, 1L, "testuser")).thenReturn(Optional.of(session));
+        when(uploadSessionRepository.startCompletion(eq(UPLOAD_ID), any())).thenReturn(1);
+        when(uploadSessionRepository.countReceivedChunks(UPLOAD_ID)).thenReturn(3L);
+        when(fileStorageService.prepareUpload(UPLOAD_ID, null, "application/pdf")).thenReturn(staged);
+        when(uploadSessionRepository.findOwnedForUpdate(UPLOAD_ID, 1L, "testuser")).thenReturn(Optional.of(session));
+        when(documentService.addVersion(eq(1L), eq("testuser"), eq("scan.pdf"), eq("application/pdf"), any()))
+                .thenThrow(new ResourceNotFoundException("Document", "id", 1L));
+
+        assertThatThrownBy(() -> uploadService.completeUpload(1L, UPLOAD_ID, "testuser"))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        verify(transactionManager).rollback(any());
+        verify(fileStorageService).discardUpload(staged);
+        verify(fileStorageService, never()).deleteUpload(anyString());
+        verify(uploadSessionRepository).cancelCompletion(UPLOAD_ID);
+    }
+
+    @Test
+    @DisplayName("Should keep the part file when the version transaction rolls back, so completion can be retried")
+    void shouldRetryCompletionAfterRollback(@TempDir Path storage) throws IOException {
+        FileStorageService storageService = new FileStorageService(storage.toString(), false,
+                mock(FileBlobRepository.class), new StorageCodec(true, 6, List.of("text/*")),
+                new SimpleMeterRegistry());
+        UploadService service = new UploadService(uploadSessionRepository, documentRepository, userRepository,
+                documentService, storageService, documentMapper, new SynchronizingTransactionManager(),
+                DataSize.ofBytes(10), DataSize.ofGigabytes(1), Duration.ofHours(24));
+        storageService.createUpload(UPLOAD_ID, 12);
+        storageService.writeUploadChunk(UPLOAD_ID, 0, new ByteArrayInputStream("Test content".getBytes()), 12);
+
+        when(uploadSessionRepository.findOwned(UPLOAD_ID, 1L, "testuser")).thenReturn(Optional.of(session));
+        when(uploadSessionRepository.startCompletion(eq(UPLOAD_ID), any())).thenReturn(1);
+        when(uploadSessionRepository.countReceivedChunks(UPLOAD_ID)).thenReturn(3L);
+        when(uploadSessionRepository.findOwnedForUpdate(UPLOAD_ID, 1L, "testuser")).thenReturn(Optional.of(session));
+        List<String> storedKeys = new ArrayList<>();
+        when(documentService.addVersion(eq(1L), eq("testuser"), eq("scan.pdf"), eq("application/pdf"), any()))
+                .thenAnswer(invocation -> {
+                    // Content stored, then the version insert fails: the transaction rolls back
+                    Supplier<FileStorageService.StoredFile> storeContent = invocation.getArgument(4);
+                    storedKeys.add(storeContent.get().fileKey());
+                    throw new ResourceNotFoundException("Document", "id", 1L);
+                })
+                .thenAnswer(invocation -> {
+                    Supplier<FileStorageService.StoredFile> storeContent = invocation.getArgument(4);
+                    storedKeys.add(storeContent.get().fileKey());
+                    return DocumentVersionResponse.builder().versionNumber(2).build();
+                });
+
+        assertThatThrownBy(() -> service.completeUpload(1L, UPLOAD_ID, "testuser"))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        assertThat(storage.resolve(storedKeys.get(0))).doesNotExist();
+        assertThat(storage.resolve(".uploads").resolve(UPLOAD_ID + ".part")).exists();
+        verify(uploadSessionRepository).cancelCompletion(UPLOAD_ID);
+
+        DocumentVersionResponse result = service.completeUpload(1L, UPLOAD_ID, "testuser");
+
+        assertThat(result.getVersionNumber()).isEqualTo(2);
+        assertThat(Files.readString(storage.resolve(storedKeys.get(1)))).isEqualTo("Test content");
+        assertThat(storage.resolve(".uploads").resolve(UPLOAD_ID + ".part")).doesNotExist();
+    }
+
+    /**
+     * Runs transaction synchronizations like a real transaction manager, without a resource.
+     */
+    private static class SynchronizingTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
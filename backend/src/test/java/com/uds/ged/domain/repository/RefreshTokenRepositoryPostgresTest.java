@@ -0,0 +1,82 @@
+package com.uds.ged.domain.repository;
+
+import com.uds.ged.domain.model.RefreshToken;
+import com.uds.ged.support.PostgresTestDatabase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Single use of refresh tokens and the purge of expired ones, against the Flyway
+ * schema in PostgreSQL.
+ */
+@Tag("postgres")
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "spring.jpa.hibernate.ddl-auto=validate"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class RefreshTokenRepositoryPostgresTest {
+
+    private static DataSource dataSource;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        dataSource = PostgresTestDatabase.create("refresh_token_repository_test");
+    }
+
+    @AfterAll
+    static void closeDatabase() {
+        PostgresTestDatabase.close(dataSource);
+    }
+
+    @TestConfiguration
+    static class PostgresDataSource {
+
+        @Bean
+        DataSource dataSource() {
+            return dataSource;
+        }
+    }
+
+    @Test
+    @DisplayName("Should spend a refresh token only once")
+    void shouldMarkUsedOnce() {
+        save("token-1", LocalDateTime.now().plusDays(7));
+
+        assertThat(refreshTokenRepository.markUsed("token-1", LocalDateTime.now())).isEqualTo(1);
+        assertThat(refreshTokenRepository.markUsed("token-1", LocalDateTime.now())).isZero();
+        assertThat(refreshTokenRepository.markUsed("unknown", LocalDateTime.now())).isZero();
+    }
+
+    @Test
+    @DisplayName("Should delete expired refresh tokens only")
+    void shouldDeleteExpired() {
+        save("expired", LocalDateTime.now().minusMinutes(1));
+        save("valid", LocalDateTime.now().plusDays(7));
+
+        assertThat(refreshTokenRepository.deleteExpired(LocalDateTime.now())).isEqualTo(1);
+        assertThat(refreshTokenRepository.existsById("valid")).isTrue();
+        assertThat(refreshTokenRepository.existsById("expired")).isFalse();
+    }
+
+    private void save(String id, LocalDateTime expiresAt) {
+        refreshTokenRepository.saveAndFlush(RefreshToken.builder()
+                .id(id)
+                .username("alice")
+                .expiresAt(expiresAt)
+                .build());
+    }
+}
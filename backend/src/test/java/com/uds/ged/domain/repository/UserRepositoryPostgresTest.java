@@ -0,0 +1,111 @@
+package com.uds.ged.domain.repository;
+
+import com.uds.ged.domain.model.User;
+import com.uds.ged.domain.model.enums.UserRole;
+import com.uds.ged.support.PostgresTestDatabase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The user queries behind token refresh, password rehashing and the availability
+ * filter, against the Flyway schema in PostgreSQL.
+ */
+@Tag("postgres")
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "spring.jpa.hibernate.ddl-auto=validate"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class UserRepositoryPostgresTest {
+
+    private static DataSource dataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        dataSource = PostgresTestDatabase.create("user_repository_test");
+    }
+
+    @AfterAll
+    static void closeDatabase() {
+        PostgresTestDatabase.close(dataSource);
+    }
+
+    @TestConfiguration
+    static class PostgresDataSource {
+
+        @Bean
+        DataSource dataSource() {
+            return dataSource;
+        }
+    }
+
+    @Test
+    @DisplayName("Should page identities by ID after the last one seen")
+    void shouldPageIdentitiesByKeyset() {
+        User first = save("alice", UserRole.USER);
+        User second = save("bob", UserRole.USER);
+        User third = save("carol", UserRole.ADMIN);
+
+        List<UserIdentity> page = userRepository.findIdentitiesAfter(0L, PageRequest.of(0, 2));
+        List<UserIdentity> next = userRepository.findIdentitiesAfter(page.get(1).id(), PageRequest.of(0, 2));
+
+        assertThat(page).containsExactly(
+                new UserIdentity(first.getId(), "alice", "alice@ged.com"),
+                new UserIdentity(second.getId(), "bob", "bob@ged.com"));
+        assertThat(next).containsExactly(new UserIdentity(third.getId(), "carol", "carol@ged.com"));
+    }
+
+    @Test
+    @DisplayName("Should read the current token version and role and bump the version on revocation")
+    void shouldReadTokenState() {
+        User user = save("dave", UserRole.ADMIN);
+        user.setRole(UserRole.USER);
+        userRepository.saveAndFlush(user);
+
+        assertThat(userRepository.incrementTokenVersion("dave")).isEqualTo(1);
+
+        assertThat(userRepository.findTokenStateByUsername("dave"))
+                .contains(new UserTokenState(1, UserRole.USER));
+        assertThat(userRepository.findTokenVersionByUsername("dave")).contains(1);
+        assertThat(userRepository.findTokenStateByUsername("nobody")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should replace the stored password hash")
+    void shouldUpdatePassword() {
+        save("erin", UserRole.USER);
+
+        assertThat(userRepository.updatePassword("erin", "$2a$12$rehashed")).isEqualTo(1);
+        entityManager.clear();
+
+        assertThat(userRepository.findByUsername("erin"))
+                .hasValueSatisfying(user -> assertThat(user.getPassword()).isEqualTo("$2a$12$rehashed"));
+    }
+
+    private User save(String username, UserRole role) {
+        return userRepository.saveAndFlush(User.builder()
+                .username(username)
+                .email(username + "@ged.com")
+                .password("$2a$10$hash")
+                .role(role)
+                .build());
+    }
+}
@@ -0,0 +1,168 @@
+package com.uds.ged.infrastructure.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.uds.ged.config.RateLimitConfig;
+import com.uds.ged.config.RateLimitProperties;
+import io.github.bucket4j.Bucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRules(List.of(
+                rule("register", List.of("POST"), "/api/auth/register", RateLimitProperties.KeyType.IP,
+                        2, RateLimitProperties.Cost.REQUEST),
+                rule("api", List.of(), "/api/documents/**", RateLimitProperties.KeyType.USER,
+                        100, RateLimitProperties.Cost.REQUEST),
+                rule("download", List.of("GET"), "/api/files/**", RateLimitProperties.KeyType.USER,
+                        1000, RateLimitProperties.Cost.BYTES)));
+        RateLimitConfig config = new RateLimitConfig(properties, null);
+        meterRegistry = new SimpleMeterRegistry();
+        Cache<String, Bucket> bucketCache = config.bucketCache(meterRegistry);
+        filter = new RateLimitFilter(bucketCache, config, properties, new ObjectMapper().findAndRegisterModules(),
+                meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should reject requests over the limit with Retry-After and RateLimit headers")
+    void shouldRejectWhenBucketIsEmpty() throws Exception {
+        assertThat(register("10.0.0.1").getStatus()).isEqualTo(200);
+        MockHttpServletResponse second = register("10.0.0.1");
+        MockHttpServletResponse third = register("10.0.0.1");
+
+        assertThat(second.getHeader("RateLimit-Limit")).isEqualTo("2");
+        assertThat(second.getHeader("RateLimit-Remaining")).isEqualTo("0");
+        assertThat(third.getStatus()).isEqualTo(429);
+        assertThat(Long.parseLong(third.getHeader("Retry-After"))).isPositive();
+        assertThat(register("10.0.0.2").getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.counter("ged.ratelimit.rejected", "rule", "register").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should key by the connection address and ignore X-Forwarded-For")
+    void shouldIgnoreForwardedForHeader() throws Exception {
+        assertThat(register("10.0.0.1", "203.0.113.1").getStatus()).isEqualTo(200);
+        assertThat(register("10.0.0.1", "203.0.113.2").getStatus()).isEqualTo(200);
+
+        assertThat(register("10.0.0.1", "203.0.113.3").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    @DisplayName("Should keep separate buckets per authenticated user and skip unmatched paths")
+    void shouldKeyByUser() throws Exception {
+        authenticate("alice");
+        for (int i = 0; i < 100; i++) {
+            get("/api/documents");
+        }
+        assertThat(get("/api/documents").getStatus()).isEqualTo(429);
+        assertThat(get("/actuator/health").getHeader("RateLimit-Limit")).isNull();
+
+        authenticate("bob");
+        assertThat(get("/api/documents").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Should charge downloaded bytes and reject once the byte budget is spent")
+    void shouldChargeResponseBytes() throws Exception {
+        authenticate("alice");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/files/1");
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) throws IOException {
+                res.getOutputStream().write(new byte[1500]);
+            }
+        });
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getContentAsByteArray()).hasSize(1500);
+        MockHttpServletResponse next = get("/api/files/1");
+        assertThat(next.getStatus()).isEqualTo(429);
+        assertThat(next.getHeader("RateLimit-Remaining")).isEqualTo("0");
+    }
+
+    @Test
+    @DisplayName("Should refuse a JDBC store whose retention is shorter than a rule period")
+    void shouldRejectRetentionShorterThanRulePeriod() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setStore(RateLimitProperties.Store.JDBC);
+        properties.getJdbc().setRetention(Duration.ofMinutes(30));
+        properties.setRules(List.of(rule("register", List.of("POST"), "/api/auth/register",
+                RateLimitProperties.KeyType.IP, 2, RateLimitProperties.Cost.REQUEST)));
+
+        assertThatThrownBy(() -> new RateLimitConfig(properties, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("register");
+    }
+
+    private MockHttpServletResponse register(String ip) throws Exception {
+        return register(ip, null);
+    }
+
+    private MockHttpServletResponse register(String ip, String forwardedFor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/register");
+        request.setRemoteAddr(ip);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private MockHttpServletResponse get(String uri) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", uri), response, new MockFilterChain());
+        return response;
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    private static RateLimitProperties.Rule rule(String name, List<String> methods, String path,
+                                                 RateLimitProperties.KeyType key, long capacity,
+                                                 RateLimitProperties.Cost cost) {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setName(name);
+        rule.setMethods(methods);
+        rule.setPaths(List.of(path));
+        rule.setKey(key);
+        rule.setCapacity(capacity);
+        rule.setPeriod(Duration.ofHours(1));
+        rule.setCost(cost);
+        return rule;
+    }
+}
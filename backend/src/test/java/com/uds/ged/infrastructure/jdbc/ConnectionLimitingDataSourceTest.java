@@ -0,0 +1,67 @@
+package com.uds.ged.infrastructure.jdbc;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionLimitingDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ConnectionLimitingDataSource(target, 1, Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("Should time out while all permits are borrowed and release one on close")
+    void shouldLimitConcurrentConnections() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+
+        Connection first = dataSource.getConnection();
+        assertThat(dataSource.getActiveCount()).isEqualTo(1);
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessageContaining("1 database connections");
+
+        first.close();
+        first.close();
+
+        verify(connection, times(2)).close();
+        assertThat(dataSource.getActiveCount()).isZero();
+        assertThat(dataSource.getConnection()).isNotNull();
+        assertThat(dataSource.getActiveCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should return the permit when the pool fails to provide a connection")
+    void shouldReleasePermitWhenPoolFails() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("pool down"));
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool down");
+
+        assertThat(dataSource.getActiveCount()).isZero();
+    }
+}
@@ -0,0 +1,164 @@
+package com.uds.ged.infrastructure.jdbc;
+
+import com.uds.ged.config.RateLimitConfig;
+import com.uds.ged.config.RateLimitProperties;
+import com.uds.ged.support.PostgresTestDatabase;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.Refill;
+import io.github.bucket4j.distributed.jdbc.BucketTableSettings;
+import io.github.bucket4j.distributed.jdbc.PrimaryKeyMapper;
+import io.github.bucket4j.distributed.jdbc.SQLProxyConfiguration;
+import io.github.bucket4j.postgresql.PostgreSQLSelectForUpdateBasedProxyManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The {@code jdbc} rate limit store against PostgreSQL: each {@link RateLimitConfig}
+ * plays one node, with its own bucket proxies over the shared table.
+ */
+@Tag("postgres")
+class RateLimitJdbcStoreTest {
+
+    private static DataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        dataSource = PostgresTestDatabase.create("rate_limit_store_test");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterAll
+    static void closeDatabase() {
+        PostgresTestDatabase.close(dataSource);
+    }
+
+    @Test
+    @DisplayName("Should share a small limit between nodes, checking the database on every request")
+    void shouldShareBucketAcrossNodes() {
+        RateLimitProperties.Rule rule = rule(3);
+        Bucket nodeA = node(Duration.ofSeconds(1)).createBucket("shared", rule);
+        Bucket nodeB = node(Duration.ofSeconds(1)).createBucket("shared", rule);
+
+        assertThat(nodeA.tryConsume(1)).isTrue();
+        assertThat(nodeB.tryConsume(1)).isTrue();
+        assertThat(nodeA.tryConsume(1)).isTrue();
+
+        assertThat(nodeB.tryConsume(1)).isFalse();
+        assertThat(nodeA.tryConsume(1)).isFalse();
+        assertThat(storedTokens("shared", rule)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should consume a large limit locally until the node has used its share")
+    void shouldDelaySynchronization() {
+        // 1% of 1000: up to 10 tokens are consumed before the node writes to the database
+        RateLimitProperties.Rule rule = rule(1000);
+        Bucket node = node(Duration.ofHours(1)).createBucket("delayed", rule);
+
+        assertThat(node.tryConsume(1)).isTrue();
+        long afterFirst = storedTokens("delayed", rule);
+        for (int i = 0; i < 8; i++) {
+            assertThat(node.tryConsume(1)).isTrue();
+        }
+        assertThat(storedTokens("delayed", rule)).isEqualTo(afterFirst);
+
+        for (int i = 0; i < 11; i++) {
+            assertThat(node.tryConsume(1)).isTrue();
+        }
+        assertThat(storedTokens("delayed", rule)).isLessThan(afterFirst);
+    }
+
+    @Test
+    @DisplayName("Should reject locally once a small limit is empty, without a database round trip")
+    void shouldSkipSynchronizationOnZero() {
+        RateLimitProperties.Rule rule = rule(2);
+        Bucket node = node(Duration.ofSeconds(1)).createBucket("empty", rule);
+        assertThat(node.tryConsume(2)).isTrue();
+
+        // Had the node asked the database, it would find a new, full bucket
+        jdbcTemplate.update("DELETE FROM rate_limit_buckets WHERE id = ?", "empty");
+
+        assertThat(node.tryConsume(1)).isFalse();
+        assertThat(node(Duration.ofSeconds(1)).createBucket("empty", rule).tryConsume(1)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should delete buckets idle for longer than the retention and keep used ones")
+    void shouldDeleteIdleBuckets() {
+        RateLimitProperties.Rule rule = rule(2);
+        RateLimitConfig node = node(Duration.ofSeconds(1));
+        assertThat(node.createBucket("idle", rule).tryConsume(1)).isTrue();
+        Bucket used = node.createBucket("used", rule);
+        assertThat(used.tryConsume(1)).isTrue();
+        jdbcTemplate.update("UPDATE rate_limit_buckets SET updated_at = CURRENT_TIMESTAMP - INTERVAL '3 hours'"
+                + " WHERE id IN ('idle', 'used')");
+
+        // Writing the state touches updated_at again
+        assertThat(used.tryConsume(1)).isTrue();
+        Timestamp touched = jdbcTemplate.queryForObject(
+                "SELECT updated_at FROM rate_limit_buckets WHERE id = 'used'", Timestamp.class);
+        assertThat(touched.toInstant()).isAfter(Instant.now().minus(Duration.ofMinutes(5)));
+
+        RateLimitProperties properties = properties(Duration.ofSeconds(1));
+        int deleted = new RateLimitBucketCleaner(jdbcTemplate, properties).deleteIdleBuckets();
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM rate_limit_buckets WHERE id IN ('idle', 'used')",
+                String.class)).containsExactly("used");
+    }
+
+    private static RateLimitConfig node(Duration syncInterval) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("dataSource", dataSource);
+        return new RateLimitConfig(properties(syncInterval), beanFactory.getBeanProvider(DataSource.class));
+    }
+
+    private static RateLimitProperties properties(Duration syncInterval) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setStore(RateLimitProperties.Store.JDBC);
+        properties.getJdbc().setSyncInterval(syncInterval);
+        properties.setRules(List.of(rule(1)));
+        return properties;
+    }
+
+    private static RateLimitProperties.Rule rule(long capacity) {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setName("test");
+        rule.setCapacity(capacity);
+        rule.setPeriod(Duration.ofHours(1));
+        return rule;
+    }
+
+    /**
+     * Tokens left in the database row, read without any local optimization.
+     */
+    private static long storedTokens(String key, RateLimitProperties.Rule rule) {
+        PostgreSQLSelectForUpdateBasedProxyManager<String> proxyManager =
+                new PostgreSQLSelectForUpdateBasedProxyManager<>(SQLProxyConfiguration.builder()
+                        .withTableSettings(BucketTableSettings.customSettings("rate_limit_buckets", "id", "state"))
+                        .withPrimaryKeyMapper(PrimaryKeyMapper.STRING)
+                        .build(dataSource));
+        return proxyManager.builder()
+                .build(key, () -> BucketConfiguration.builder()
+                        .addLimit(Bandwidth.classic(rule.getCapacity(),
+                                Refill.greedy(rule.getCapacity(), rule.getPeriod())))
+                        .build())
+                .getAvailableTokens();
+    }
+}
@@ -0,0 +1,71 @@
+package com.uds.ged.infrastructure.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StatementCountFilterTest {
+
+    private StatementCountingInspector inspector;
+    private SimpleMeterRegistry meterRegistry;
+    private StatementCountFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        inspector = new StatementCountingInspector();
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new StatementCountFilter(inspector, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should record the statements of a request under its URI template")
+    void shouldRecordStatementsPerRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/documents/7");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/documents/{id}");
+            inspector.inspect("select 1");
+            inspector.inspect("select 2");
+            inspector.inspect("select 3");
+        });
+
+        DistributionSummary summary = meterRegistry.get("ged.hibernate.statements")
+                .tags("method", "GET", "uri", "/api/documents/{id}").summary();
+        assertThat(summary.count()).isEqualTo(1);
+        assertThat(summary.totalAmount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should record failed requests and stop counting afterwards")
+    void shouldRecordWhenChainFails() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/unmapped");
+
+        assertThatThrownBy(() -> filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            inspector.inspect("insert");
+            throw new ServletException("boom");
+        })).isInstanceOf(ServletException.class);
+
+        assertThat(meterRegistry.get("ged.hibernate.statements")
+                .tags("method", "POST", "uri", "UNKNOWN").summary().totalAmount()).isEqualTo(1);
+        inspector.inspect("outside any request");
+        assertThat(inspector.end()).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("Should pass statements through unchanged")
+    void inspectorShouldNotRewriteStatements() {
+        inspector.begin();
+
+        assertThat(inspector.inspect("select * from documents")).isEqualTo("select * from documents");
+        assertThat(inspector.end()).isEqualTo(1);
+    }
+}
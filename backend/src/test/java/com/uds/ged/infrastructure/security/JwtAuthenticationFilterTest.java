@@ -0,0 +1,82 @@
+package com.uds.ged.infrastructure.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private JwtTokenProvider tokenProvider;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private TokenVersionCache tokenVersionCache;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        filter = new JwtAuthenticationFilter(tokenProvider, userDetailsService, tokenVersionCache);
+        request = new MockHttpServletRequest("GET", "/api/documents");
+        request.addHeader("Authorization", "Bearer token");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should authenticate from token claims without loading the user")
+    void shouldAuthenticateFromClaims() throws Exception {
+        when(tokenProvider.parseToken("token")).thenReturn(Optional.of(principal(2)));
+        when(tokenVersionCache.isCurrent("testuser", 2)).thenReturn(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getName()).isEqualTo("testuser");
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    @DisplayName("Should not authenticate a token whose version was revoked")
+    void shouldRejectRevokedToken() throws Exception {
+        when(tokenProvider.parseToken("token")).thenReturn(Optional.of(principal(1)));
+        when(tokenVersionCache.isCurrent("testuser", 1)).thenReturn(false);
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    private JwtPrincipal principal(int tokenVersion) {
+        Instant now = Instant.now();
+        return new JwtPrincipal("testuser", List.of("ROLE_USER"), tokenVersion, now, now.plusSeconds(60), null);
+    }
+}
@@ -0,0 +1,89 @@
+package com.uds.ged.infrastructure.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "testSecretKeyForJWTTokenGenerationInTestEnvironment1234567890";
+
+    private JwtTokenProvider tokenProvider;
+    private Authentication authentication;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = new JwtTokenProvider(SECRET, 3_600_000, 604_800_000, 100, new SimpleMeterRegistry());
+        User user = new SecurityUser("testuser", "password", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")), 3);
+        authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+
+    @Test
+    @DisplayName("Should parse a generated token into its principal with authorities and version")
+    void shouldParseGeneratedToken() {
+        String token = tokenProvider.generateToken(authentication);
+
+        Optional<JwtPrincipal> principal = tokenProvider.parseToken(token);
+
+        assertThat(principal).isPresent();
+        assertThat(principal.get().username()).isEqualTo("testuser");
+        assertThat(principal.get().authorities()).containsExactly("ROLE_ADMIN");
+        assertThat(principal.get().tokenVersion()).isEqualTo(3);
+        assertThat(principal.get().expiresAt()).isAfter(principal.get().issuedAt());
+    }
+
+    @Test
+    @DisplayName("Should serve repeated validations of the same token from the cache")
+    void shouldCacheVerifiedToken() {
+        String token = tokenProvider.generateToken(authentication);
+
+        JwtPrincipal first = tokenProvider.parseToken(token).orElseThrow();
+        JwtPrincipal second = tokenProvider.parseToken(token).orElseThrow();
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("Should reject tampered, foreign and expired tokens")
+    void shouldRejectInvalidTokens() {
+        String token = tokenProvider.generateToken(authentication);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        String foreign = new JwtTokenProvider(SECRET + "other", 3_600_000, 604_800_000, 100, new SimpleMeterRegistry()).generateToken(authentication);
+        String expired = new JwtTokenProvider(SECRET, -1_000, 604_800_000, 100, new SimpleMeterRegistry()).generateToken(authentication);
+
+        assertThat(tokenProvider.parseToken(tampered)).isEmpty();
+        assertThat(tokenProvider.parseToken(foreign)).isEmpty();
+        assertThat(tokenProvider.parseToken(expired)).isEmpty();
+        assertThat(tokenProvider.parseToken("not-a-jwt")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should accept refresh tokens only as refresh tokens and access tokens only as access tokens")
+    void shouldKeepRefreshAndAccessTokensApart() {
+        String accessToken = tokenProvider.generateToken(authentication);
+        String refreshToken = tokenProvider.generateRefreshToken(authentication, "token-1");
+        String expired = new JwtTokenProvider(SECRET, 3_600_000, -1_000, 100, new SimpleMeterRegistry())
+                .generateRefreshToken(authentication, "token-2");
+
+        Optional<JwtPrincipal> principal = tokenProvider.parseRefreshToken(refreshToken);
+
+        assertThat(principal).isPresent();
+        assertThat(principal.get().username()).isEqualTo("testuser");
+        assertThat(principal.get().authorities()).containsExactly("ROLE_ADMIN");
+        assertThat(principal.get().tokenVersion()).isEqualTo(3);
+        assertThat(principal.get().tokenId()).isEqualTo("token-1");
+        assertThat(tokenProvider.parseToken(refreshToken)).isEmpty();
+        assertThat(tokenProvider.parseRefreshToken(accessToken)).isEmpty();
+        assertThat(tokenProvider.parseRefreshToken(expired)).isEmpty();
+    }
+}
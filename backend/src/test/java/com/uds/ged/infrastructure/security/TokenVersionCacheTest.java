@@ -0,0 +1,55 @@
+package com.uds.ged.infrastructure.security;
+
+import com.uds.ged.domain.model.enums.UserRole;
+import com.uds.ged.domain.repository.UserRepository;
+import com.uds.ged.domain.repository.UserTokenState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenVersionCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private TokenVersionCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new TokenVersionCache(userRepository, true, Duration.ofSeconds(30), 100);
+    }
+
+    @Test
+    @DisplayName("Should read the current role and version from the database and cache the version")
+    void shouldReturnCurrentState() {
+        when(userRepository.findTokenStateByUsername("alice"))
+                .thenReturn(Optional.of(new UserTokenState(3, UserRole.USER)));
+
+        assertThat(cache.currentState("alice", 3)).contains(new UserTokenState(3, UserRole.USER));
+        assertThat(cache.currentState("alice", 2)).isEmpty();
+
+        assertThat(cache.isCurrent("alice", 3)).isTrue();
+        verify(userRepository, never()).findTokenVersionByUsername("alice");
+    }
+
+    @Test
+    @DisplayName("Should report no state for a user that no longer exists")
+    void shouldRejectUnknownUser() {
+        when(userRepository.findTokenStateByUsername("gone")).thenReturn(Optional.empty());
+
+        assertThat(cache.currentState("gone", 0)).isEmpty();
+        assertThat(cache.isCurrent("gone", 0)).isFalse();
+    }
+}
@@ -0,0 +1,190 @@
+package com.uds.ged.infrastructure.web;
+
+import com.uds.ged.infrastructure.codec.StorageCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileResponseWriterTest {
+
+    private static final String CONTENT = "0123456789abcdefghij";
+    private static final String HASH = "9d9595c5d94fb65b824f56e9999527dba9542481580d69feb89056aabaa0aa87";
+
+    @TempDir
+    Path tempDir;
+
+    private SimpleMeterRegistry meterRegistry;
+    private FileResponseWriter writer;
+    private Resource resource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        writer = new FileResponseWriter(meterRegistry);
+        Path file = tempDir.resolve("file.txt");
+        Files.writeString(file, CONTENT);
+        resource = new FileSystemResource(file);
+    }
+
+    @Test
+    void write_NoRange_SendsWholeFileWithValidators() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/files/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(request, response, resource, "text/plain", "file.txt", HASH);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+        assertEquals("\"" + HASH + "\"", response.getHeader("ETag"));
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertNotNull(response.getHeader("Last-Modified"));
+        assertEquals(CONTENT.length(), response.getContentLengthLong());
+    }
+
+    @Test
+    void write_NoRange_RecordsSentBytesAndThroughput() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/files/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(request, response, resource, "text/plain", "file.txt", HASH);
+
+        assertEquals(CONTENT.length(), meterRegistry.get("ged.storage.download.size")
+                .tag("mode", "channel").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("ged.storage.download").tag("mode", "channel").timer().count());
+        assertEquals(1, meterRegistry.get("ged.storage.download.throughput").tag("mode", "channel").summary().count());
+    }
+
+    @Test
+    void write_Sendfile_RecordsBytesOnly() throws Exception {
+        Path large = tempDir.resolve("large.bin");
+        Files.write(large, new byte[64 * 1024]);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/files/1");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(request, response, new FileSystemResource(large), "application/octet-stream", "large.bin", HASH);
+
+        assertEquals(64 * 1024, meterRegistry.get("ged.storage.download.size")
+                .tag("mode", "sendfile").summary().totalAmount());
+        assertNull(meterRegistry.find("ged.storage.download").timer());
+    }
+
+    @Test
+    void write_MatchingIfNoneMatch_Returns304WithoutBody() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/files/1");
+        request.addHeader("If-None-Match", "\"" + HASH + "\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(request, response, resource, "text/plain", "file.txt", HASH);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void write_SingleRange_ReturnsPartialContent() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/files/1");
+        request.addHeader("Range", "bytes=5-9");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(request, response, resource, "text/plain", "file.txt", HASH);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("56789", response.getContentAsString());
+        assertEquals("bytes 5-9/20", response.getHeader("Content-Range"));
+        assertEquals(5, response.getContentLengthLong());
+    }
+
+    @Test
+    void write_MultipleRanges_ReturnsMultipartByteranges() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/files/1");
+        request.addHeader("Range", "bytes=0-1,-3");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(request, response, resource, "text/plain", "file.txt", HASH);
+
+        String body = response.getContentAsString(StandardCharsets.US_ASCII);
+        assertEquals(206, response.getStatus());
+        assertTrue(response.getContentType().startsWith("multipart/byteranges; boundary="));
+        assertTrue(body.contains("Content-Range: bytes 0-1/20\r\n\r\n01"));
+        assertTrue(body.contains("Content-Range: bytes 17-19/20\r\n\r\nhij"));
+        assertEquals(body.length(), response.getContentLengthLong());
+    }
+
+    @Test
+    void write_UnsatisfiableRange_Returns416() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/files/1");
+        request.addHeader("Range", "bytes=50-60");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(request, response, resource, "text/plain", "file.txt", HASH);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */20", response.getHeader("Content-Range"));
+    }
+
+    @Test
+    void write_StaleIfRange_SendsWholeFile() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/files/1");
+        request.addHeader("Range", "bytes=5-9");
+        request.addHeader("If-Range", "\"outdated\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(request, response, resource, "text/plain", "file.txt", HASH);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+    }
+
+    @Test
+    void write_CompressedFileAcceptingGzip_SendsStoredBytesWithContentEncoding() throws Exception {
+        Resource compressed = compressedResource();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/files/1");
+        request.addHeader("Accept-Encoding", "br, gzip;q=0.8");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(request, response, compressed, "text/plain", "file.txt", HASH);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("\"" + HASH + "-gzip\"", response.getHeader("ETag"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        assertArrayEquals(Files.readAllBytes(tempDir.resolve("file.txt.gz")), response.getContentAsByteArray());
+    }
+
+    @Test
+    void write_CompressedFileWithoutGzip_SendsDecompressedContent() throws Exception {
+        Resource compressed = compressedResource();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/files/1");
+        request.addHeader("Accept-Encoding", "gzip;q=0, *");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(request, response, compressed, "text/plain", "file.txt", HASH);
+
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals(CONTENT, response.getContentAsString());
+    }
+
+    private Resource compressedResource() throws Exception {
+        StorageCodec codec = new StorageCodec(true, 6, List.of("text/*"));
+        Path file = tempDir.resolve("file.txt.gz");
+        try (OutputStream outputStream = codec.compress(Files.newOutputStream(file))) {
+            outputStream.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+        }
+        return codec.decode(file);
+    }
+}
@@ -0,0 +1,126 @@
+package com.uds.ged.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uds.ged.application.service.DocumentService;
+import com.uds.ged.domain.repository.UserRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load test of the real HTTP stack on the {@code test} profile, with a
+ * temporary storage directory and in-memory H2 (or PostgreSQL when
+ * {@code -Dloadtest.jdbc-url} is given). Excluded from the regular build; run with
+ * {@code mvn -Pload-test test}. See {@link LoadTestSettings} for the parameters.
+ */
+@Tag("load")
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "app.rate-limit.enabled=false",
+        "management.server.port=0",
+        "logging.level.com.uds.ged=WARN",
+        "logging.level.org.springframework.security=WARN",
+        "logging.level.org.hibernate.SQL=WARN"
+})
+class HttpLoadTest {
+
+    private static final LoadTestSettings SETTINGS = LoadTestSettings.fromSystemProperties();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Environment environment;
+
+    @DynamicPropertySource
+    static void loadTestProperties(DynamicPropertyRegistry registry) throws IOException {
+        Path storage = Files.createTempDirectory("ged-load-test");
+        registry.add("app.storage.location", storage::toString);
+
+        if (SETTINGS.postgres()) {
+            registry.add("spring.datasource.url", SETTINGS::jdbcUrl);
+            registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+            registry.add("spring.datasource.username", () -> System.getProperty("loadtest.jdbc-username", "postgres"));
+            registry.add("spring.datasource.password", () -> System.getProperty("loadtest.jdbc-password", "postgres"));
+            registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+            registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+            registry.add("spring.flyway.enabled", () -> "true");
+        }
+    }
+
+    @Test
+    void sustainsTargetRateWithinErrorBudget() throws Exception {
+        LoadTestSeeder.SeedData seed = new LoadTestSeeder(userRepository, passwordEncoder, documentService)
+                .seed(SETTINGS);
+        URI baseUri = URI.create("http://localhost:" + port);
+        List<String> tokens = login(baseUri, seed.usernames());
+
+        LoadReport report = new LoadDriver(SETTINGS, baseUri, tokens, seed).run();
+
+        String summary = String.format("Load test: %d req/s for %s (after %s warmup), %d users, %d documents, "
+                        + "%s files, %s, %s threads on Java %s%n%s",
+                SETTINGS.rate(), SETTINGS.duration(), SETTINGS.warmup(), SETTINGS.users(), SETTINGS.documents(),
+                SETTINGS.fileSize(), SETTINGS.postgres() ? "PostgreSQL" : "H2",
+                Threading.VIRTUAL.isActive(environment) ? "virtual" : "platform",
+                Runtime.version().feature(), report.format(SETTINGS.duration()));
+        System.out.println(summary);
+        Files.writeString(Path.of("target", "load-test-report.txt"), summary);
+
+        assertThat(report.totalRequests()).isPositive();
+        assertThat((double) report.totalFailures() / report.totalRequests())
+                .as("error rate")
+                .isLessThanOrEqualTo(SETTINGS.maxErrorRate());
+    }
+
+    private List<String> login(URI baseUri, List<String> usernames) throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        List<String> tokens = new ArrayList<>(usernames.size());
+        for (String username : usernames) {
+            String body = objectMapper.writeValueAsString(
+                    Map.of("username", username, "password", LoadTestSeeder.PASSWORD));
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(baseUri.resolve("/api/auth/login"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertThat(response.statusCode()).as("login of %s", username).isEqualTo(200);
+            tokens.add(objectMapper.readTree(response.body()).path("data").path("token").asText());
+        }
+        return tokens;
+    }
+}
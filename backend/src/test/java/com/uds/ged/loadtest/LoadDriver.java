@@ -0,0 +1,181 @@
+package com.uds.ged.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model HTTP load generator: requests are started on a fixed schedule at the
+ * target rate regardless of how many are still outstanding, like independent
+ * clients would, up to {@code maxInFlight}.
+ */
+class LoadDriver {
+
+    private static final String BOUNDARY = "----ged-load-test-boundary";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+    private static final String[] STATUSES = {"DRAFT", "PUBLISHED", "ARCHIVED"};
+
+    private final LoadTestSettings settings;
+    private final URI baseUri;
+    private final List<String> tokens;
+    private final LoadTestSeeder.SeedData seed;
+    private final Operation[] schedule;
+    private final byte[] uploadContent;
+    private final Random random = new Random(7);
+    private long uploads;
+
+    LoadDriver(LoadTestSettings settings, URI baseUri, List<String> tokens, LoadTestSeeder.SeedData seed) {
+        this.settings = settings;
+        this.baseUri = baseUri;
+        this.tokens = tokens;
+        this.seed = seed;
+        this.schedule = weightedSchedule(settings.mix());
+        this.uploadContent = LoadTestSeeder.content(new Random(1), (int) settings.fileSize().toBytes());
+    }
+
+    LoadReport run() throws InterruptedException {
+        LoadReport report = new LoadReport();
+        AtomicInteger inFlight = new AtomicInteger();
+        ExecutorService executor = Executors.newCachedThreadPool();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(executor)
+                .build();
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+        long start = System.nanoTime();
+        long recordFrom = start + settings.warmup().toNanos();
+        long end = recordFrom + settings.duration().toNanos();
+
+        try {
+            for (long i = 0; ; i++) {
+                long intended = start + i * intervalNanos;
+                if (intended >= end) {
+                    break;
+                }
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                Operation operation = schedule[random.nextInt(schedule.length)];
+                boolean recorded = intended >= recordFrom;
+                if (inFlight.incrementAndGet() > settings.maxInFlight()) {
+                    inFlight.decrementAndGet();
+                    if (recorded) {
+                        report.drop(operation);
+                    }
+                    continue;
+                }
+
+                HttpRequest request = request(operation);
+                client.sendAsync(request, LoadDriver::errorBodyOnly)
+                        .whenComplete((response, failure) -> {
+                            inFlight.decrementAndGet();
+                            if (!recorded) {
+                                return;
+                            }
+                            long latency = System.nanoTime() - intended;
+                            if (failure != null) {
+                                report.recordError(operation, latency, failure.toString());
+                            } else if (response.statusCode() >= 400) {
+                                report.recordError(operation, latency, request.method() + " " + request.uri().getPath()
+                                        + " -> " + response.statusCode() + " " + abbreviate(response.body()));
+                            } else {
+                                report.record(operation, latency);
+                            }
+                        });
+            }
+
+            long deadline = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+            while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return report;
+    }
+
+    private HttpRequest request(Operation operation) {
+        String token = tokens.get(random.nextInt(tokens.size()));
+        long documentId = pick(seed.documentIds());
+
+        HttpRequest.Builder builder = switch (operation) {
+            case LIST -> get("/api/documents?page=" + random.nextInt(10) + "&size=20");
+            case SEARCH -> get("/api/documents?size=20&" + (settings.postgres() ? "q=" : "title=")
+                    + LoadTestSeeder.word(random));
+            case GET -> get("/api/documents/" + documentId);
+            case DOWNLOAD -> get("/api/files/" + pick(seed.versionIds()));
+            case UPLOAD -> HttpRequest.newBuilder(baseUri.resolve("/api/documents/" + documentId + "/versions"))
+                    .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(
+                            multipartBody(LoadTestSeeder.unique(uploadContent, ++uploads))));
+            case STATUS -> HttpRequest.newBuilder(baseUri.resolve("/api/documents/" + documentId + "/status"))
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString(
+                            "{\"status\":\"" + STATUSES[random.nextInt(STATUSES.length)] + "\"}"));
+        };
+        return builder
+                .header("Authorization", "Bearer " + token)
+                .timeout(REQUEST_TIMEOUT)
+                .build();
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).GET();
+    }
+
+    private long pick(List<Long> ids) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    /**
+     * Discards successful bodies without decoding them, so the driver does not
+     * compete with the server for CPU; error bodies are kept for the report.
+     */
+    private static HttpResponse.BodySubscriber<String> errorBodyOnly(HttpResponse.ResponseInfo info) {
+        return info.statusCode() >= 400
+                ? HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8)
+                : HttpResponse.BodySubscribers.replacing("");
+    }
+
+    private static String abbreviate(String body) {
+        return body.length() > 200 ? body.substring(0, 200) + "..." : body;
+    }
+
+    private static Operation[] weightedSchedule(Map<Operation, Integer> mix) {
+        List<Operation> schedule = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                schedule.add(operation);
+            }
+        });
+        return schedule.toArray(new Operation[0]);
+    }
+
+    private static byte[] multipartBody(byte[] content) {
+        byte[] head = ("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"carga.pdf\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        byte[] tail = ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        byte[] body = new byte[head.length + content.length + tail.length];
+        System.arraycopy(head, 0, body, 0, head.length);
+        System.arraycopy(content, 0, body, head.length, content.length);
+        System.arraycopy(tail, 0, body, head.length + content.length, tail.length);
+        return body;
+    }
+}
@@ -0,0 +1,106 @@
+package com.uds.ged.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and error counts per operation. Latency is measured from the
+ * scheduled send time, not the actual one, so a stalled server is not hidden by
+ * the driver falling behind (coordinated omission).
+ */
+class LoadReport {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> dropped = new EnumMap<>(Operation.class);
+    private final Map<Operation, String> firstErrors = new ConcurrentHashMap<>();
+
+    LoadReport() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+            errors.put(operation, new LongAdder());
+            dropped.put(operation, new LongAdder());
+        }
+    }
+
+    void record(Operation operation, long latencyNanos) {
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS);
+        latencies.get(operation).recordValue(micros);
+    }
+
+    /**
+     * Records a failed call; the first failure of each operation is kept for the report.
+     */
+    void recordError(Operation operation, long latencyNanos, String error) {
+        record(operation, latencyNanos);
+        errors.get(operation).increment();
+        firstErrors.putIfAbsent(operation, error);
+    }
+
+    void drop(Operation operation) {
+        dropped.get(operation).increment();
+    }
+
+    /**
+     * Requests scheduled in the recorded period, including dropped ones.
+     */
+    long totalRequests() {
+        return latencies.values().stream().mapToLong(Histogram::getTotalCount).sum()
+                + dropped.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    long totalFailures() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum()
+                + dropped.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    String format(Duration duration) {
+        double seconds = duration.toMillis() / 1000.0;
+        StringBuilder out = new StringBuilder(String.format(Locale.ROOT,
+                "%-9s %9s %7s %7s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "dropped", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        Histogram all = new Histogram(MAX_LATENCY_MICROS, 3);
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencies.get(operation);
+            if (histogram.getTotalCount() == 0 && dropped.get(operation).sum() == 0) {
+                continue;
+            }
+            all.add(histogram);
+            out.append(row(operation.name().toLowerCase(Locale.ROOT), histogram,
+                    errors.get(operation).sum(), dropped.get(operation).sum(), seconds));
+        }
+        long allErrors = errors.values().stream().mapToLong(LongAdder::sum).sum();
+        long allDropped = dropped.values().stream().mapToLong(LongAdder::sum).sum();
+        out.append(row("total", all, allErrors, allDropped, seconds));
+        firstErrors.forEach((operation, error) -> out.append(String.format(Locale.ROOT,
+                "first %s error: %s%n", operation.name().toLowerCase(Locale.ROOT), error)));
+        return out.toString();
+    }
+
+    private static String row(String name, Histogram histogram, long errors, long dropped, double seconds) {
+        return String.format(Locale.ROOT, "%-9s %9d %7d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                name,
+                histogram.getTotalCount(),
+                errors,
+                dropped,
+                histogram.getTotalCount() / seconds,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
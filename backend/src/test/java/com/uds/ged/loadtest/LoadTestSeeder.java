@@ -0,0 +1,104 @@
+package com.uds.ged.loadtest;
+
+import com.uds.ged.application.dto.request.DocumentCreateRequest;
+import com.uds.ged.application.dto.response.DocumentResponse;
+import com.uds.ged.application.service.DocumentService;
+import com.uds.ged.domain.model.User;
+import com.uds.ged.domain.model.enums.DocumentStatus;
+import com.uds.ged.domain.model.enums.UserRole;
+import com.uds.ged.domain.repository.UserRepository;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds users, documents with tags and file versions through the application's
+ * own repositories and services, the way {@code DataInitializer} creates the
+ * default users.
+ */
+class LoadTestSeeder {
+
+    static final String PASSWORD = "password123";
+
+    private static final String[] WORDS = {
+            "contrato", "relatorio", "financeiro", "juridico", "auditoria", "proposta",
+            "orcamento", "ata", "parecer", "licitacao", "fornecedor", "projeto"
+    };
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final DocumentService documentService;
+
+    LoadTestSeeder(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                   DocumentService documentService) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.documentService = documentService;
+    }
+
+    record SeedData(List<String> usernames, List<Long> documentIds, List<Long> versionIds) {
+    }
+
+    SeedData seed(LoadTestSettings settings) {
+        Random random = new Random(42);
+        // One hash for everyone: seeding should not spend minutes in BCrypt.
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+
+        List<String> usernames = new ArrayList<>(settings.users());
+        for (int i = 0; i < settings.users(); i++) {
+            User user = new User();
+            user.setUsername("load" + i);
+            user.setPassword(passwordHash);
+            user.setEmail("load" + i + "@ged.com");
+            user.setRole(i % 10 == 0 ? UserRole.ADMIN : UserRole.USER);
+            userRepository.save(user);
+            usernames.add(user.getUsername());
+        }
+
+        byte[] content = content(random, (int) settings.fileSize().toBytes());
+        List<Long> documentIds = new ArrayList<>(settings.documents());
+        List<Long> versionIds = new ArrayList<>(settings.documents() * settings.versions());
+        for (int i = 0; i < settings.documents(); i++) {
+            String owner = usernames.get(i % usernames.size());
+            DocumentCreateRequest request = new DocumentCreateRequest();
+            request.setTitle(word(random) + " " + word(random) + " " + i);
+            request.setDescription("Documento de carga " + i + ": " + word(random) + " " + word(random)
+                    + " " + word(random));
+            request.setTags(new ArrayList<>(List.of(word(random), word(random))));
+            request.setStatus(DocumentStatus.values()[i % DocumentStatus.values().length]);
+            DocumentResponse document = documentService.createDocument(request, owner);
+            documentIds.add(document.getId());
+
+            for (int v = 0; v < settings.versions(); v++) {
+                MockMultipartFile file = new MockMultipartFile("file", "arquivo_" + i + "_" + v + ".pdf",
+                        "application/pdf", unique(content, i * settings.versions() + v));
+                versionIds.add(documentService.uploadVersion(document.getId(), file, owner).getId());
+            }
+        }
+        return new SeedData(usernames, documentIds, versionIds);
+    }
+
+    static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    /**
+     * Distinct bytes per file, so content-addressed storage does not collapse them.
+     */
+    static byte[] unique(byte[] content, long serial) {
+        byte[] copy = content.clone();
+        for (int i = 0; i < Math.min(Long.BYTES, copy.length); i++) {
+            copy[i] = (byte) (serial >>> (i * 8));
+        }
+        return copy;
+    }
+
+    static byte[] content(Random random, int size) {
+        byte[] content = new byte[size];
+        random.nextBytes(content);
+        return content;
+    }
+}
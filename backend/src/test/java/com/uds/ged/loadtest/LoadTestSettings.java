@@ -0,0 +1,76 @@
+package com.uds.ged.loadtest;
+
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Load test parameters, read from {@code loadtest.*} system properties.
+ *
+ * @param users            users seeded and logged in; requests pick one at random
+ * @param documents        documents seeded
+ * @param versions         versions uploaded per seeded document
+ * @param fileSize         size of seeded and uploaded files
+ * @param rate             target arrival rate in requests per second (open model)
+ * @param warmup           initial period driven at full rate but not recorded
+ * @param duration         recorded period
+ * @param maxInFlight      outstanding requests above which new arrivals are dropped
+ * @param maxErrorRate     fraction of failed requests above which the run fails
+ * @param mix              relative weight of each operation
+ * @param jdbcUrl          PostgreSQL URL to run against instead of in-memory H2, may be {@code null}
+ */
+record LoadTestSettings(int users, int documents, int versions, DataSize fileSize,
+                        int rate, Duration warmup, Duration duration, int maxInFlight,
+                        double maxErrorRate, Map<Operation, Integer> mix, String jdbcUrl) {
+
+    private static final String PREFIX = "loadtest.";
+    private static final String DEFAULT_MIX = "list=30,search=15,get=20,upload=5,download=25,status=5";
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.parseInt(property("users", "20")),
+                Integer.parseInt(property("documents", "500")),
+                Integer.parseInt(property("versions", "2")),
+                DataSize.parse(property("file-size", "32KB")),
+                Integer.parseInt(property("rate", "200")),
+                Duration.parse(property("warmup", "PT10S")),
+                Duration.parse(property("duration", "PT60S")),
+                Integer.parseInt(property("max-in-flight", "512")),
+                Double.parseDouble(property("max-error-rate", "0.01")),
+                parseMix(property("mix", DEFAULT_MIX)),
+                StringUtils.hasText(property("jdbc-url", "")) ? property("jdbc-url", "") : null);
+    }
+
+    boolean postgres() {
+        return jdbcUrl != null;
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty(PREFIX + name, defaultValue);
+    }
+
+    /**
+     * Parses {@code op=weight} pairs, e.g. {@code list=70,get=30}.
+     */
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : StringUtils.commaDelimitedListToStringArray(mix)) {
+            String[] pair = entry.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Operation mix is empty: " + mix);
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,13 @@
+package com.uds.ged.loadtest;
+
+/**
+ * Calls the load driver mixes, one per API endpoint being measured.
+ */
+enum Operation {
+    LIST,
+    SEARCH,
+    GET,
+    UPLOAD,
+    DOWNLOAD,
+    STATUS
+}
@@ -0,0 +1,89 @@
+package com.uds.ged.presentation.controller;
+
+import com.uds.ged.application.dto.request.LoginRequest;
+import com.uds.ged.application.dto.request.RefreshTokenRequest;
+import com.uds.ged.application.service.AuthService;
+import com.uds.ged.infrastructure.exception.GlobalExceptionHandler;
+import com.uds.ged.infrastructure.exception.PasswordHashingUnavailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class AuthControllerTest {
+
+    @Mock
+    private AuthService authService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new AuthController(authService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should answer 503 with Retry-After when password hashing is saturated")
+    void shouldReturnServiceUnavailableWhenHashingIsSaturated() throws Exception {
+        when(authService.login(any(LoginRequest.class)))
+                .thenThrow(new PasswordHashingUnavailableException("Password hashing is busy, try again shortly"));
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"admin\",\"password\":\"admin123\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Password hashing is busy, try again shortly"));
+    }
+
+    @Test
+    @DisplayName("Should log out with the access token when it is valid")
+    void shouldLogoutAuthenticatedUser() throws Exception {
+        mockMvc.perform(post("/api/auth/logout")
+                        .principal(new UsernamePasswordAuthenticationToken("alice", null, List.of())))
+                .andExpect(status().isOk());
+
+        verify(authService).logout("alice");
+    }
+
+    @Test
+    @DisplayName("Should log out with the refresh token once the access token has expired")
+    void shouldLogoutWithRefreshToken() throws Exception {
+        mockMvc.perform(post("/api/auth/logout")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"refresh.token\"}"))
+                .andExpect(status().isOk());
+
+        verify(authService).logout(new RefreshTokenRequest("refresh.token"));
+    }
+
+    @Test
+    @DisplayName("Should answer 401 to a logout with neither token")
+    void shouldRejectAnonymousLogout() throws Exception {
+        mockMvc.perform(post("/api/auth/logout"))
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(authService);
+    }
+}
@@ -0,0 +1,82 @@
+package com.uds.ged.support;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Assumptions;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+
+/**
+ * PostgreSQL database for the tests tagged {@code postgres}, with the Flyway schema.
+ * <p>
+ * Uses the database given with {@code -Dged.test.postgres.url} (and {@code .username},
+ * {@code .password}) when set, otherwise a container started once per JVM; tests are
+ * skipped when neither is available. Each test class gets its own schema, cleaned
+ * and migrated on {@link #create(String)}.
+ */
+public final class PostgresTestDatabase {
+
+    private static final String IMAGE = "postgres:15-alpine";
+
+    private static PostgreSQLContainer<?> container;
+
+    private PostgresTestDatabase() {
+    }
+
+    /**
+     * Cleans and migrates a schema and returns a pool connected to it.
+     *
+     * @param schema schema name, one per test class
+     * @return data source whose connections use the schema; close it after the tests
+     */
+    public static HikariDataSource create(String schema) {
+        String url = System.getProperty("ged.test.postgres.url");
+        String username = System.getProperty("ged.test.postgres.username", "postgres");
+        String password = System.getProperty("ged.test.postgres.password", "postgres");
+        if (url == null) {
+            PostgreSQLContainer<?> started = container();
+            url = started.getJdbcUrl();
+            username = started.getUsername();
+            password = started.getPassword();
+        }
+
+        Flyway flyway = Flyway.configure()
+                .dataSource(url, username, password)
+                .schemas(schema)
+                .cleanDisabled(false)
+                .load();
+        flyway.clean();
+        flyway.migrate();
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setSchema(schema);
+        config.setMaximumPoolSize(4);
+        return new HikariDataSource(config);
+    }
+
+    private static synchronized PostgreSQLContainer<?> container() {
+        if (container == null) {
+            Assumptions.assumeTrue(DockerClientFactory.instance().isDockerAvailable(),
+                    "Docker is not available and -Dged.test.postgres.url is not set");
+            container = new PostgreSQLContainer<>(IMAGE);
+            // Stopped by the Testcontainers reaper when the JVM exits
+            container.start();
+        }
+        return container;
+    }
+
+    /**
+     * Closes a data source returned by {@link #create(String)}, if any.
+     */
+    public static void close(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            hikari.close();
+        }
+    }
+}
@@ -23,7 +23,8 @@ export const appConfig: ApplicationConfig = {
   providers: [
     provideRouter(routes),
     provideHttpClient(
-      withInterceptors([authInterceptor, errorInterceptor])
+      // errorInterceptor first, so that it only sees a 401 once the token refresh has failed
+      withInterceptors([errorInterceptor, authInterceptor])
     ),
     importProvidersFrom(
       TranslateModule.forRoot({
@@ -1,17 +1,31 @@
-import { HttpInterceptorFn } from '@angular/common/http';
+import { HttpErrorResponse, HttpInterceptorFn, HttpRequest } from '@angular/common/http';
 import { inject } from '@angular/core';
+import { catchError, switchMap, throwError } from 'rxjs';
 import { AuthService } from '../services/auth.service';
 
+const withToken = (req: HttpRequest<unknown>, token: string) =>
+  req.clone({
+    headers: req.headers.set('Authorization', `Bearer ${token}`)
+  });
+
 export const authInterceptor: HttpInterceptorFn = (req, next) => {
   const authService = inject(AuthService);
   const token = authService.getToken();
 
-  if (token && !req.url.includes('/auth/login')) {
-    const cloned = req.clone({
-      headers: req.headers.set('Authorization', `Bearer ${token}`)
-    });
-    return next(cloned);
+  if (!token || req.url.includes('/auth/login') || req.url.includes('/auth/refresh')) {
+    return next(req);
   }
 
-  return next(req);
+  return next(withToken(req, token)).pipe(
+    catchError((error: HttpErrorResponse) => {
+      // Access tokens are short-lived: renew once with the refresh token and retry
+      if (error.status !== 401 || req.url.includes('/auth/')) {
+        return throwError(() => error);
+      }
+      return authService.refreshToken().pipe(
+        catchError(() => throwError(() => error)),
+        switchMap(newToken => next(withToken(req, newToken)))
+      );
+    })
+  );
 };
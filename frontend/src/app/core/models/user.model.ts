@@ -7,7 +7,9 @@ export interface User {
 
 export interface AuthResponse {
   token: string;
+  refreshToken: string;
   type: string;
+  expiresIn: number;
   username: string;
   email: string;
   role: string;
@@ -1,6 +1,6 @@
 import { Injectable, inject } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
-import { BehaviorSubject, Observable, tap } from 'rxjs';
+import { BehaviorSubject, Observable, finalize, map, shareReplay, tap, throwError } from 'rxjs';
 import { Router } from '@angular/router';
 import { AuthResponse, LoginRequest, RegisterRequest } from '../models/user.model';
 import { ApiResponse } from '../models/document.model';
@@ -17,8 +17,11 @@ export class AuthService {
   public currentUser$ = this.currentUserSubject.asObservable();
 
   private readonly TOKEN_KEY = 'auth_token';
+  private readonly REFRESH_TOKEN_KEY = 'refresh_token';
   private readonly USER_KEY = 'current_user';
 
+  private refreshInFlight$: Observable<string> | null = null;
+
   login(credentials: LoginRequest): Observable<ApiResponse<AuthResponse>> {
     return this.http.post<ApiResponse<AuthResponse>>(`${environment.apiUrl}/auth/login`, credentials)
       .pipe(
@@ -61,8 +64,46 @@ export class AuthService {
     return this.http.get<boolean>(`${environment.apiUrl}/auth/check-email/${email}`);
   }
 
+  /**
+   * Exchanges the stored refresh token for a new access token and refresh token.
+   * Concurrent callers share a single request: a refresh token is accepted once,
+   * and presenting it again revokes the session.
+   * 
+   * @returns Observable<string> the new access token
+   */
+  refreshToken(): Observable<string> {
+    const refreshToken = localStorage.getItem(this.REFRESH_TOKEN_KEY);
+    if (!refreshToken) {
+      return throwError(() => new Error('No refresh token'));
+    }
+
+    if (!this.refreshInFlight$) {
+      this.refreshInFlight$ = this.http.post<ApiResponse<AuthResponse>>(`${environment.apiUrl}/auth/refresh`, { refreshToken })
+        .pipe(
+          map(response => {
+            if (!response.success || !response.data) {
+              throw new Error(response.message || 'Token refresh failed');
+            }
+            // The refresh response carries no email: keep the one from login
+            this.setSession({ ...response.data, email: this.getCurrentUser()?.email ?? response.data.email });
+            return response.data.token;
+          }),
+          finalize(() => this.refreshInFlight$ = null),
+          shareReplay(1)
+        );
+    }
+    return this.refreshInFlight$;
+  }
+
   logout(): void {
+    const refreshToken = localStorage.getItem(this.REFRESH_TOKEN_KEY);
+    if (this.getToken() || refreshToken) {
+      // Revokes the tokens on the server; the refresh token authorizes it once the
+      // access token has expired. The local session is cleared either way
+      this.http.post(`${environment.apiUrl}/auth/logout`, { refreshToken }).subscribe({ error: () => {} });
+    }
     localStorage.removeItem(this.TOKEN_KEY);
+    localStorage.removeItem(this.REFRESH_TOKEN_KEY);
     localStorage.removeItem(this.USER_KEY);
     this.currentUserSubject.next(null);
     this.router.navigate(['/login']);
@@ -87,6 +128,7 @@ export class AuthService {
 
   private setSession(authResult: AuthResponse): void {
     localStorage.setItem(this.TOKEN_KEY, authResult.token);
+    localStorage.setItem(this.REFRESH_TOKEN_KEY, authResult.refreshToken);
     localStorage.setItem(this.USER_KEY, JSON.stringify(authResult));
     this.currentUserSubject.next(authResult);
   }